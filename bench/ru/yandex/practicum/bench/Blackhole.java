@@ -0,0 +1,45 @@
+package ru.yandex.practicum.bench;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Приёмник результатов микробенчмарков, не дающий JIT-компилятору удалить вычисление как мёртвый код.
+ *
+ * <p>Повторяет приём JMH: примитивы сравниваются с двумя заведомо различными volatile-полями,
+ * а ссылки изредка, по псевдослучайному условию, сохраняются в поле.</p>
+ */
+public final class Blackhole {
+    private volatile int int1 = 1;
+    private volatile int int2 = 2;
+    private volatile boolean bool1 = false;
+    private volatile boolean bool2 = true;
+    private volatile int referenceMask = 1;
+    private int random = (int) System.nanoTime();
+    private Object reference;
+
+    public void consume(int value) {
+        if (value == int1 & value == int2) {
+            throw new IllegalStateException("Blackhole fields must differ");
+        }
+    }
+
+    public void consume(boolean value) {
+        if (value == bool1 & value == bool2) {
+            throw new IllegalStateException("Blackhole fields must differ");
+        }
+    }
+
+    public void consume(Object value) {
+        int mask = referenceMask;
+        random = random * 1664525 + 1013904223;
+        if ((random & mask) == 0) {
+            reference = new WeakReference<>(value);
+            referenceMask = (mask << 1) + 1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(reference);
+    }
+}
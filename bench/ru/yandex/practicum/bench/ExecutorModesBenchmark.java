@@ -0,0 +1,110 @@
+package ru.yandex.practicum.bench;
+
+import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.context.web.WebContext;
+import ru.yandex.practicum.server.ExecutorType;
+import ru.yandex.practicum.server.HttpServerEngine;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение моделей исполнения обработчиков ({@link ExecutorType}) на обеих реализациях HTTP-сервера.
+ *
+ * <p>Каждый клиент держит постоянное соединение и отправляет {@code POST /sign} сразу после
+ * получения предыдущего ответа. Печатаются запросы в секунду и перцентили времени ответа.</p>
+ *
+ * <p>Перед каждым замером выполняется секундный прогрев. Аргументы: {@code [connections] [seconds] [threads]}, по умолчанию {@code 64 5 <число ядер>}.
+ * Для {@code FIXED} очередь равна числу соединений, чтобы пул не отклонял запросы.</p>
+ */
+public class ExecutorModesBenchmark {
+    private static final String REQUEST = "{\"msg\":\"0123456789abcdef0123456789abcdef\"}";
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        for (HttpServerEngine engine : HttpServerEngine.values()) {
+            for (ExecutorType type : ExecutorType.values()) {
+                ExecutorService executor = type.create(threads, connections);
+                HttpServer server = engine.create(new InetSocketAddress("localhost", 0), 1024);
+                WebContext.init(server);
+                server.setExecutor(executor);
+                server.start();
+                try {
+                    int port = server.getAddress().getPort();
+                    run(engine, type, port, connections, 1, false);
+                    run(engine, type, port, connections, seconds, true);
+                } finally {
+                    server.stop(0);
+                    executor.shutdown();
+                    executor.awaitTermination(5, TimeUnit.SECONDS);
+                }
+            }
+        }
+    }
+
+    private static void run(HttpServerEngine engine, ExecutorType type, int port, int connections, int seconds,
+                            boolean report) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long[][] latencies = new long[connections][];
+        int[] counts = new int[connections];
+        Thread[] clients = new Thread[connections];
+        for (int i = 0; i < clients.length; i++) {
+            int client = i;
+            RawHttpClient connection = new RawHttpClient(port, "/sign", REQUEST);
+            clients[i] = new Thread(() -> {
+                long[] samples = new long[1 << 16];
+                int count = 0;
+                try (connection) {
+                    long now = System.nanoTime();
+                    while (now < deadline) {
+                        if (connection.exchange(1) != 200) {
+                            throw new IOException("Unexpected status");
+                        }
+                        long end = System.nanoTime();
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = end - now;
+                        now = end;
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+                latencies[client] = samples;
+                counts[client] = count;
+            }, "bench-client-" + i);
+            clients[i].start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        if (!report) {
+            return;
+        }
+        long[] all = new long[Arrays.stream(counts).sum()];
+        int offset = 0;
+        for (int i = 0; i < connections; i++) {
+            System.arraycopy(latencies[i], 0, all, offset, counts[i]);
+            offset += counts[i];
+        }
+        Arrays.sort(all);
+        System.out.printf("%-4s %-13s connections=%-4d %,10.0f req/s  p50=%,8.1f us  p99=%,8.1f us  max=%,9.1f us%n",
+                engine, type, connections, all.length / (double) seconds,
+                percentile(all, 0.50), percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e3);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1e3;
+    }
+}
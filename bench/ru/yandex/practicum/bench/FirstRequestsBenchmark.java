@@ -0,0 +1,143 @@
+package ru.yandex.practicum.bench;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import ru.yandex.practicum.ServerHMAC;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.schema.SignRequestDto;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Задержка первых запросов к только что запущенному серверу с прогревом и без него.
+ *
+ * <p>Для каждого замера запускается отдельная JVM с сервером приложения
+ * ({@link ServerHMAC#startHttpServer(InetSocketAddress)}); в режиме {@code warmup=0} прогрев
+ * выключен, иначе он выполняется с заданным числом запросов. Как только сервер готов, этот процесс
+ * отправляет по одному запросу за раз, чередуя {@code /sign} и {@code /verify} с 32-байтовым
+ * сообщением, и печатает задержку самого первого запроса, перцентили первых 100 запросов и всех
+ * {@code requests}. Режимы чередуются, а перед замерами выполняется один холостой запуск,
+ * чтобы прогреть клиента.</p>
+ *
+ * <p>Аргументы: {@code [requests] [forks] [warmupRequests]}, по умолчанию {@code 1000 3 20000}.</p>
+ */
+public class FirstRequestsBenchmark {
+    private static final String SERVER_FLAG = "--server";
+    private static final String READY_PREFIX = "@ready ";
+    private static final String MESSAGE = "0123456789abcdef0123456789abcdef";
+    private static final int HEAD = 100;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && SERVER_FLAG.equals(args[0])) {
+            runServer(Integer.parseInt(args[1]));
+            return;
+        }
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int forks = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int warmupRequests = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        measure(requests, warmupRequests);
+        System.out.printf("%-14s %10s %10s %10s %10s %10s %10s%n",
+                "mode", "first,ms", "p50@100", "p99@100", "p50@all", "p99@all", "max,ms");
+        for (int fork = 0; fork < forks; fork++) {
+            for (int mode : new int[]{0, warmupRequests}) {
+                long[] latencies = measure(requests, mode);
+                long[] head = Arrays.copyOf(latencies, Math.min(HEAD, latencies.length));
+                Arrays.sort(head);
+                long first = latencies[0];
+                Arrays.sort(latencies);
+                System.out.printf("%-14s %10.2f %10.3f %10.3f %10.3f %10.3f %10.2f%n", "warmup=" + mode,
+                        first / 1e6, percentile(head, 50), percentile(head, 99),
+                        percentile(latencies, 50), percentile(latencies, 99), latencies[latencies.length - 1] / 1e6);
+            }
+        }
+    }
+
+    /**
+     * Запускает сервер в отдельной JVM и измеряет задержку первых {@code requests} запросов к нему.
+     *
+     * @return задержки в наносекундах в порядке отправки
+     */
+    private static long[] measure(int requests, int warmupRequests) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(FirstRequestsBenchmark.class.getName());
+        command.addAll(List.of(SERVER_FLAG, Integer.toString(warmupRequests)));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        try {
+            int port = awaitReady(process.getInputStream());
+            long[] latencies = new long[requests];
+            try (RawHttpClient sign = new RawHttpClient(port, "/sign", "{\"msg\":\"" + MESSAGE + "\"}");
+                 RawHttpClient verify = new RawHttpClient(port, "/verify", verifyJson())) {
+                for (int i = 0; i < requests; i++) {
+                    long start = System.nanoTime();
+                    int status = (i % 2 == 0 ? sign : verify).exchange(1);
+                    latencies[i] = System.nanoTime() - start;
+                    if (status != 200) {
+                        throw new IOException("Unexpected status " + status);
+                    }
+                }
+            }
+            return latencies;
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int awaitReady(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(READY_PREFIX)) {
+                return Integer.parseInt(line.substring(READY_PREFIX.length()));
+            }
+        }
+        throw new IOException("Server exited before becoming ready");
+    }
+
+    private static String verifyJson() {
+        SignRequestDto request = new SignRequestDto();
+        request.setMsg(MESSAGE);
+        String signature = AppContext.getBean(HmacServiceImpl.class).sign(request).getSignature();
+        return "{\"msg\":\"" + MESSAGE + "\",\"signature\":\"" + signature + "\"}";
+    }
+
+    /**
+     * Запускает сервер с конфигурацией по умолчанию и заданным числом запросов прогрева
+     * и работает, пока процесс не будет остановлен.
+     */
+    private static void runServer(int warmupRequests) throws Exception {
+        JsonObject config;
+        try (InputStream is = FirstRequestsBenchmark.class.getClassLoader()
+                .getResourceAsStream(AppConstants.DEFAULT_CONFIG_PATH)) {
+            config = JsonParser.parseString(new String(is.readAllBytes(), AppConstants.CHARSET)).getAsJsonObject();
+        }
+        config.addProperty("warmupRequests", warmupRequests);
+        AppContext.setConfig(config.toString(), false);
+        int port = ServerHMAC.startHttpServer(new InetSocketAddress("localhost", 0)).getAddress().getPort();
+        System.out.println(READY_PREFIX + port);
+        System.out.flush();
+        Thread.currentThread().join();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,362 @@
+package ru.yandex.practicum.bench;
+
+import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.ServerHMAC;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.mapper.JsonObjectMapper;
+import ru.yandex.practicum.schema.SignRequestDto;
+import ru.yandex.practicum.schema.SignResponseDto;
+import ru.yandex.practicum.schema.VerifyRequestDto;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки с открытой моделью: запросы {@code /sign} и {@code /verify} отправляются
+ * по расписанию с заданной частотой независимо от того, успевает ли сервер отвечать.
+ *
+ * <p>Число одновременных запросов ограничено числом соединений. Если все соединения заняты,
+ * очередной запрос ждёт на стороне клиента, а его время ответа отсчитывается от момента,
+ * когда он должен был быть отправлен по расписанию. Так задержки, вызванные тем, что
+ * медленный сервер сдерживает отправку новых запросов (coordinated omission), попадают
+ * в перцентили, а не теряются. Для сравнения печатается и время обслуживания — от фактической
+ * отправки до ответа, а также задержка только успешных запросов и число отказов {@code 503}
+ * при ограничении нагрузки.</p>
+ *
+ * <p>Без {@code -target} в этом же процессе запускается сервер приложения с параметрами
+ * конфигурации ({@link ServerHMAC#startHttpServer(InetSocketAddress)}); для замеров без влияния
+ * генератора на сервер запустите сервер отдельно и укажите его адрес.</p>
+ *
+ * <p>Аргументы: {@code [-target http://host:port] [-rate requestsPerSecond] [-d seconds] [-w warmupSeconds]
+ * [-c connections] [-sizes size:weight,...] [-verify fraction] [-seed n] [-label text] [-o results.json]},
+ * по умолчанию локальный сервер, {@code 1000} запросов в секунду, {@code 10} с замера после {@code 3} с
+ * прогрева, {@code 16} соединений, сообщения по {@code 32} байта, половина запросов — проверка подписи.
+ * Результаты в JSON пишутся в файл {@code -o} или, при {@code -o -}, в стандартный вывод.</p>
+ */
+public class LoadGenerator {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        HttpServer server = null;
+        String target = options.target;
+        if (target == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            server = ServerHMAC.startHttpServer(new InetSocketAddress("localhost", 0));
+            target = "http://localhost:" + server.getAddress().getPort();
+        }
+        try {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            Workload workload = Workload.create(client, target, options);
+            if (options.warmupSeconds > 0) {
+                run(client, workload, options, options.warmupSeconds);
+            }
+            Phase phase = run(client, workload, options, options.seconds);
+            Map<String, Object> results = results(options, target, server != null, phase);
+            printSummary(results, phase);
+            if ("-".equals(options.output)) {
+                System.out.println(JsonObjectMapper.toJson(results));
+            } else if (options.output != null) {
+                Files.writeString(Path.of(options.output), JsonObjectMapper.toJson(results), StandardCharsets.UTF_8);
+            }
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Phase run(HttpClient client, Workload workload, Options options, int seconds) {
+        int total = Math.toIntExact((long) options.rate * seconds);
+        double intervalNanos = 1e9 / options.rate;
+        Phase phase = new Phase(total);
+        Semaphore connections = new Semaphore(options.connections);
+        SplittableRandom random = new SplittableRandom(options.seed);
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            connections.acquireUninterruptibly();
+            long sent = System.nanoTime();
+            phase.recordSendDelay(sent - intended);
+            client.sendAsync(workload.next(random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long done = System.nanoTime();
+                        // освобождение после записи: итоговый acquire главного потока видит все замеры
+                        try {
+                            phase.record(done - intended, done - sent, error == null ? response.statusCode() : -1, done);
+                        } finally {
+                            connections.release();
+                        }
+                    });
+        }
+        connections.acquireUninterruptibly(options.connections);
+        phase.finish(start, seconds);
+        return phase;
+    }
+
+    private static Map<String, Object> results(Options options, String target, boolean local, Phase phase) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("target", target);
+        config.put("rate", options.rate);
+        config.put("durationSeconds", options.seconds);
+        config.put("warmupSeconds", options.warmupSeconds);
+        config.put("connections", options.connections);
+        config.put("sizes", options.sizes);
+        config.put("verifyFraction", options.verifyFraction);
+        config.put("seed", options.seed);
+        if (local) {
+            Map<String, Object> server = new LinkedHashMap<>();
+            server.put("httpServerEngine", AppContext.getHttpServerEngine().name());
+            server.put("executorType", AppContext.getExecutorType().name());
+            server.put("executorThreads", AppContext.getExecutorThreads());
+            server.put("hmacEngine", AppContext.getHmacEngine().name());
+            config.put("server", server);
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        if (options.label != null) {
+            results.put("label", options.label);
+        }
+        results.put("config", config);
+        results.put("jvm", Map.of(
+                "version", System.getProperty("java.version"),
+                "arguments", ManagementFactory.getRuntimeMXBean().getInputArguments(),
+                "availableProcessors", Runtime.getRuntime().availableProcessors()));
+        results.put("requests", phase.completed);
+        results.put("errors", phase.errors.sum());
+        results.put("rejected", phase.rejected.sum());
+        results.put("throughput", phase.throughput);
+        results.put("maxSendDelayMicros", phase.maxSendDelay.get() / 1000);
+        results.put("latencyMicros", percentiles(phase.latencies, phase.completed));
+        results.put("serviceTimeMicros", percentiles(phase.serviceTimes, phase.completed));
+        results.put("successLatencyMicros", percentiles(phase.successLatencies, phase.succeeded.get()));
+        return results;
+    }
+
+    private static Map<String, Object> percentiles(long[] values, int count) {
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        Map<String, Object> result = new LinkedHashMap<>();
+        double sum = 0;
+        for (long value : sorted) {
+            sum += value;
+        }
+        result.put("mean", count == 0 ? 0 : sum / count / 1000);
+        for (double percentile : PERCENTILES) {
+            String name = "p" + (percentile == Math.rint(percentile)
+                    ? Integer.toString((int) percentile)
+                    : Double.toString(percentile).replace(".", "_"));
+            result.put(name, count == 0 ? 0 : sorted[(int) Math.ceil(percentile / 100 * count) - 1] / 1000.0);
+        }
+        result.put("max", count == 0 ? 0 : sorted[count - 1] / 1000.0);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printSummary(Map<String, Object> results, Phase phase) {
+        System.out.printf("requests=%,d errors=%,d (503: %,d) throughput=%,.0f req/s max send delay=%,d us%n",
+                phase.completed, phase.errors.sum(), phase.rejected.sum(), phase.throughput,
+                phase.maxSendDelay.get() / 1000);
+        printPercentiles("latency", (Map<String, Object>) results.get("latencyMicros"));
+        printPercentiles("service time", (Map<String, Object>) results.get("serviceTimeMicros"));
+        printPercentiles("200 latency", (Map<String, Object>) results.get("successLatencyMicros"));
+    }
+
+    private static void printPercentiles(String name, Map<String, Object> percentiles) {
+        StringBuilder line = new StringBuilder(String.format("%-13s", name));
+        for (Map.Entry<String, Object> entry : percentiles.entrySet()) {
+            line.append(String.format(" %s=%,.0f", entry.getKey(), ((Number) entry.getValue()).doubleValue()));
+        }
+        System.out.println(line.append(" us"));
+    }
+
+    /**
+     * Заранее сформированные запросы с весами размеров сообщений. Подписи для {@code /verify}
+     * получаются у того же сервера, поэтому проверки проходят успешно при любом секрете.
+     */
+    private static final class Workload {
+        private final HttpRequest[] signRequests;
+        private final HttpRequest[] verifyRequests;
+        private final double[] cumulativeWeights;
+        private final double verifyFraction;
+
+        private Workload(HttpRequest[] signRequests, HttpRequest[] verifyRequests, double[] cumulativeWeights,
+                         double verifyFraction) {
+            this.signRequests = signRequests;
+            this.verifyRequests = verifyRequests;
+            this.cumulativeWeights = cumulativeWeights;
+            this.verifyFraction = verifyFraction;
+        }
+
+        private static Workload create(HttpClient client, String target, Options options)
+                throws IOException, InterruptedException {
+            URI signUri = URI.create(target + "/sign");
+            URI verifyUri = URI.create(target + "/verify");
+            String[] entries = options.sizes.split(",");
+            HttpRequest[] signRequests = new HttpRequest[entries.length];
+            HttpRequest[] verifyRequests = new HttpRequest[entries.length];
+            double[] weights = new double[entries.length];
+            double total = 0;
+            for (int i = 0; i < entries.length; i++) {
+                String[] entry = entries[i].split(":");
+                int size = Integer.parseInt(entry[0]);
+                total += entry.length > 1 ? Double.parseDouble(entry[1]) : 1;
+                weights[i] = total;
+
+                SignRequestDto sign = new SignRequestDto();
+                sign.setMsg("m".repeat(size));
+                signRequests[i] = post(signUri, JsonObjectMapper.toJson(sign));
+                HttpResponse<String> response = client.send(signRequests[i], HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Failed to sign sample message: " + response.statusCode());
+                }
+                SignResponseDto signature = JsonObjectMapper.fromJson(response.body(), SignResponseDto.class);
+                VerifyRequestDto verify = new VerifyRequestDto();
+                verify.setMsg(sign.getMsg());
+                verify.setSignature(signature.getSignature());
+                verify.setKid(signature.getKid());
+                verifyRequests[i] = post(verifyUri, JsonObjectMapper.toJson(verify));
+            }
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] /= total;
+            }
+            return new Workload(signRequests, verifyRequests, weights, options.verifyFraction);
+        }
+
+        private HttpRequest next(SplittableRandom random) {
+            double weight = random.nextDouble();
+            int index = 0;
+            while (index < cumulativeWeights.length - 1 && weight >= cumulativeWeights[index]) {
+                index++;
+            }
+            return random.nextDouble() < verifyFraction ? verifyRequests[index] : signRequests[index];
+        }
+
+        private static HttpRequest post(URI uri, String json) {
+            return HttpRequest.newBuilder(uri)
+                    .header(AppConstants.CONTENT_TYPE, "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+    }
+
+    /**
+     * Результаты одного прогона. Времена записываются в заранее выделенные массивы
+     * из потоков завершения запросов.
+     */
+    private static final class Phase {
+        private final long[] latencies;
+        private final long[] serviceTimes;
+        private final long[] successLatencies;
+        private final AtomicInteger index = new AtomicInteger();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final AtomicLong maxSendDelay = new AtomicLong();
+        private final AtomicLong lastDone = new AtomicLong();
+        private int completed;
+        private double throughput;
+
+        private Phase(int capacity) {
+            this.latencies = new long[capacity];
+            this.serviceTimes = new long[capacity];
+            this.successLatencies = new long[capacity];
+        }
+
+        private void recordSendDelay(long nanos) {
+            if (nanos > maxSendDelay.get()) {
+                maxSendDelay.set(nanos);
+            }
+        }
+
+        /**
+         * @param status код ответа или {@code -1}, если запрос завершился ошибкой
+         */
+        private void record(long latency, long serviceTime, int status, long done) {
+            int i = index.getAndIncrement();
+            latencies[i] = latency;
+            serviceTimes[i] = serviceTime;
+            if (status == 200) {
+                successLatencies[succeeded.getAndIncrement()] = latency;
+            } else {
+                errors.increment();
+                if (status == 503) {
+                    rejected.increment();
+                }
+            }
+            lastDone.accumulateAndGet(done, Math::max);
+        }
+
+        private void finish(long start, int seconds) {
+            completed = index.get();
+            long elapsed = Math.max(lastDone.get() - start, TimeUnit.SECONDS.toNanos(seconds));
+            throughput = completed / (elapsed / 1e9);
+        }
+    }
+
+    private static final class Options {
+        private String target;
+        private int rate = 1000;
+        private int seconds = 10;
+        private int warmupSeconds = 3;
+        private int connections = 16;
+        private String sizes = "32";
+        private double verifyFraction = 0.5;
+        private long seed = 42;
+        private String label;
+        private String output;
+
+        private static Options parse(String[] args) {
+            Options options = new Options();
+            List<String> unknown = new ArrayList<>();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-target" -> options.target = args[++i];
+                    case "-rate" -> options.rate = Integer.parseInt(args[++i]);
+                    case "-d" -> options.seconds = Integer.parseInt(args[++i]);
+                    case "-w" -> options.warmupSeconds = Integer.parseInt(args[++i]);
+                    case "-c" -> options.connections = Integer.parseInt(args[++i]);
+                    case "-sizes" -> options.sizes = args[++i];
+                    case "-verify" -> options.verifyFraction = Double.parseDouble(args[++i]);
+                    case "-seed" -> options.seed = Long.parseLong(args[++i]);
+                    case "-label" -> options.label = args[++i];
+                    case "-o" -> options.output = args[++i];
+                    default -> unknown.add(args[i]);
+                }
+            }
+            if (!unknown.isEmpty()) {
+                throw new IllegalArgumentException("Unknown arguments: " + unknown);
+            }
+            if (options.rate <= 0 || options.seconds <= 0 || options.connections <= 0) {
+                throw new IllegalArgumentException("rate, duration and connections must be positive");
+            }
+            return options;
+        }
+    }
+}
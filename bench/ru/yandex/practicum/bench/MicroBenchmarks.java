@@ -0,0 +1,261 @@
+package ru.yandex.practicum.bench;
+
+import com.sun.net.httpserver.HttpHandler;
+import ru.yandex.practicum.accesslog.AccessLog;
+import ru.yandex.practicum.codec.Codec;
+import ru.yandex.practicum.codec.impl.Base64Codec;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.crypto.MacEngineType;
+import ru.yandex.practicum.handler.HandlerWrapper;
+import ru.yandex.practicum.handler.JsonResponseWriter;
+import ru.yandex.practicum.handler.impl.SignEndpointHandler;
+import ru.yandex.practicum.handler.impl.VerifyEndpointHandler;
+import ru.yandex.practicum.limiter.ConcurrencyLimiter;
+import ru.yandex.practicum.mapper.JsonObjectMapper;
+import ru.yandex.practicum.mapper.JsonOutput;
+import ru.yandex.practicum.metrics.HttpMetrics;
+import ru.yandex.practicum.model.ApiSettings;
+import ru.yandex.practicum.schema.SignRequestDto;
+import ru.yandex.practicum.schema.SignResponseDto;
+import ru.yandex.practicum.schema.VerifyRequestDto;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Микробенчмарки сервиса подписи, кодека, JSON-маппера и пути обработки HTTP-запроса.
+ *
+ * <p>Выполняются {@link MicroHarness}; имена бенчмарков имеют вид {@code Класс.метод:параметры}
+ * и отбираются регулярным выражением, например {@code 'HmacService.sign:.*size=32$'}.
+ * Обработчики запускаются в том же процессе на {@link StubHttpExchange}, без сети.</p>
+ *
+ * <p>Аргументы: {@code [regex] [-f forks] [-wi warmupIterations] [-i iterations] [-r iterationMillis]
+ * [-o results.csv]}, по умолчанию один форк, 3 прогревочные и 5 измерительных итераций по 1000 мс.</p>
+ */
+public class MicroBenchmarks {
+    private static final String SECRET = "3cR3r5bbaO63tAIc";
+    private static final int[] MESSAGE_SIZES = {32, 1024, 16 * 1024};
+    private static final String[] ALGORITHMS = {"SHA256", "SHA512"};
+    private static final int[] CODEC_SIZES = {16, 32, 48, 64, 1024};
+
+    public static void main(String[] args) throws Exception {
+        MicroHarness harness = new MicroHarness(MicroBenchmarks.class);
+        for (MacEngineType engine : MacEngineType.values()) {
+            for (String algorithm : ALGORITHMS) {
+                for (int size : MESSAGE_SIZES) {
+                    String params = String.format("engine=%s,alg=%s,size=%d", engine, algorithm, size);
+                    harness.add("HmacService.sign:" + params, () -> sign(engine, algorithm, size));
+                    harness.add("HmacService.verify:" + params, () -> verify(engine, algorithm, size));
+                }
+            }
+        }
+        for (int size : CODEC_SIZES) {
+            harness.add("Base64Codec.encode:size=" + size, () -> encode(size));
+            harness.add("Base64Codec.encodeInto:size=" + size, () -> encodeInto(size));
+            harness.add("JdkBase64.encode:size=" + size, () -> jdkEncode(size));
+            harness.add("Base64Codec.decode:size=" + size, () -> decode(size));
+            harness.add("Base64Codec.decodeInto:size=" + size, () -> decodeInto(size));
+            harness.add("JdkBase64.decode:size=" + size, () -> jdkDecode(size));
+            harness.add("Codec.isValidBase64:size=" + size, () -> isValidBase64(size));
+        }
+        harness.add("JsonObjectMapper.fromJson:SignRequestDto", MicroBenchmarks::fromJsonSignRequest);
+        harness.add("JsonObjectMapper.fromJson:VerifyRequestDto", MicroBenchmarks::fromJsonVerifyRequest);
+        harness.add("JsonObjectMapper.fromJsonStream:SignRequestDto", MicroBenchmarks::fromJsonStream);
+        harness.add("JsonObjectMapper.toJson:SignResponseDto", MicroBenchmarks::toJson);
+        harness.add("JsonObjectMapper.toJsonBytes:SignResponseDto", MicroBenchmarks::toJsonBytes);
+        harness.add("JsonObjectMapper.writeJson:SignResponseDto", MicroBenchmarks::writeJson);
+        harness.add("JsonResponseWriter.write:SignResponseDto", MicroBenchmarks::writeResponse);
+        for (int size : new int[]{32, 1024}) {
+            harness.add("SignEndpointHandler.handle:size=" + size,
+                    () -> handle(new SignEndpointHandler(), "/sign", signBody(size)));
+            harness.add("VerifyEndpointHandler.handle:size=" + size,
+                    () -> handle(new VerifyEndpointHandler(), "/verify", verifyBody(size)));
+            harness.add("HandlerWrapper.handle:/sign,size=" + size, () -> handle(
+                    new HandlerWrapper(ApiSettings.SIGN_ENDPOINT, new SignEndpointHandler(),
+                            new HttpMetrics().forEndpoint("/sign"), new AccessLog(null, 1, 1, 1, 0), null, null),
+                    "/sign", signBody(size)));
+        }
+        harness.add("HandlerWrapper.handle:/sign,size=32,accessLog", () -> handle(
+                new HandlerWrapper(ApiSettings.SIGN_ENDPOINT, new SignEndpointHandler(),
+                        new HttpMetrics().forEndpoint("/sign"), tempAccessLog(), null, null), "/sign", signBody(32)));
+        harness.add("HandlerWrapper.handle:/sign,size=32,limiter", () -> handle(
+                new HandlerWrapper(ApiSettings.SIGN_ENDPOINT, new SignEndpointHandler(),
+                        new HttpMetrics().forEndpoint("/sign"), new AccessLog(null, 1, 1, 1, 0),
+                        new ConcurrencyLimiter(32, 4, 512, TimeUnit.MILLISECONDS.toNanos(100)), null),
+                "/sign", signBody(32)));
+        harness.run(args);
+    }
+
+    private static MicroHarness.Operation sign(MacEngineType engine, String algorithm, int size) {
+        HmacServiceImpl service = newService(engine, algorithm);
+        SignRequestDto request = new SignRequestDto();
+        request.setMsg(message(size));
+        return blackhole -> blackhole.consume(service.sign(request));
+    }
+
+    private static MicroHarness.Operation verify(MacEngineType engine, String algorithm, int size) {
+        HmacServiceImpl service = newService(engine, algorithm);
+        VerifyRequestDto request = verifyRequest(service, size);
+        return blackhole -> blackhole.consume(service.verify(request));
+    }
+
+    private static MicroHarness.Operation encode(int size) {
+        Codec codec = AppContext.getBean(Base64Codec.class);
+        byte[] bytes = message(size).getBytes(AppConstants.CHARSET);
+        return blackhole -> blackhole.consume(codec.encode(bytes));
+    }
+
+    private static MicroHarness.Operation encodeInto(int size) {
+        Codec codec = AppContext.getBean(Base64Codec.class);
+        byte[] bytes = message(size).getBytes(AppConstants.CHARSET);
+        byte[] out = new byte[codec.encodedLength(size)];
+        return blackhole -> blackhole.consume(codec.encode(bytes, 0, bytes.length, out, 0));
+    }
+
+    private static MicroHarness.Operation jdkEncode(int size) {
+        byte[] bytes = message(size).getBytes(AppConstants.CHARSET);
+        return blackhole -> blackhole.consume(Base64.getUrlEncoder().encode(bytes));
+    }
+
+    private static MicroHarness.Operation decodeInto(int size) {
+        Codec codec = AppContext.getBean(Base64Codec.class);
+        byte[] encoded = codec.encode(message(size).getBytes(AppConstants.CHARSET));
+        byte[] out = new byte[size];
+        return blackhole -> blackhole.consume(codec.decode(encoded, 0, encoded.length, out, 0));
+    }
+
+    private static MicroHarness.Operation jdkDecode(int size) {
+        byte[] encoded = Base64.getUrlEncoder().encode(message(size).getBytes(AppConstants.CHARSET));
+        return blackhole -> blackhole.consume(Base64.getUrlDecoder().decode(encoded));
+    }
+
+    private static MicroHarness.Operation decode(int size) {
+        Codec codec = AppContext.getBean(Base64Codec.class);
+        byte[] encoded = codec.encode(message(size).getBytes(AppConstants.CHARSET));
+        return blackhole -> blackhole.consume(codec.decode(encoded));
+    }
+
+    private static MicroHarness.Operation isValidBase64(int size) {
+        byte[] encoded = AppContext.getBean(Base64Codec.class).encode(message(size).getBytes(AppConstants.CHARSET));
+        return blackhole -> blackhole.consume(Codec.isValidBase64(encoded));
+    }
+
+    private static MicroHarness.Operation fromJsonSignRequest() {
+        String json = new String(signBody(32), AppConstants.CHARSET);
+        return blackhole -> blackhole.consume(JsonObjectMapper.fromJson(json, SignRequestDto.class));
+    }
+
+    private static MicroHarness.Operation fromJsonVerifyRequest() {
+        String json = new String(verifyBody(32), AppConstants.CHARSET);
+        return blackhole -> blackhole.consume(JsonObjectMapper.fromJson(json, VerifyRequestDto.class));
+    }
+
+    private static MicroHarness.Operation fromJsonStream() {
+        ByteArrayInputStream json = new ByteArrayInputStream(signBody(32));
+        return blackhole -> {
+            json.reset();
+            blackhole.consume(JsonObjectMapper.fromJson(json, SignRequestDto.class));
+        };
+    }
+
+    private static MicroHarness.Operation toJson() {
+        SignResponseDto response = signResponse();
+        return blackhole -> blackhole.consume(JsonObjectMapper.toJson(response));
+    }
+
+    /**
+     * Прежний путь ответа: строка Gson и её кодирование в UTF-8.
+     */
+    private static MicroHarness.Operation toJsonBytes() {
+        SignResponseDto response = signResponse();
+        return blackhole -> blackhole.consume(JsonObjectMapper.toJson(response).getBytes(AppConstants.CHARSET));
+    }
+
+    private static MicroHarness.Operation writeJson() {
+        SignResponseDto response = signResponse();
+        JsonOutput out = new JsonOutput(256);
+        return blackhole -> {
+            out.reset();
+            JsonObjectMapper.writeJson(response, out);
+            blackhole.consume(out.size());
+        };
+    }
+
+    private static MicroHarness.Operation writeResponse() {
+        SignResponseDto response = signResponse();
+        StubHttpExchange exchange = new StubHttpExchange("POST", "/sign", "application/json", new byte[0]);
+        return blackhole -> {
+            exchange.reset();
+            JsonResponseWriter.write(exchange, 200, response);
+            blackhole.consume(exchange.getResponseBytes());
+        };
+    }
+
+    private static SignResponseDto signResponse() {
+        return new SignResponseDto("P0OexNSMup6vIouWoI-3tnfhB-FkGrVw9R_EzVmC_e0=", "default");
+    }
+
+    private static MicroHarness.Operation handle(HttpHandler handler, String path, byte[] body) {
+        StubHttpExchange exchange = new StubHttpExchange("POST", path, "application/json", body);
+        return blackhole -> {
+            exchange.reset();
+            handler.handle(exchange);
+            if (exchange.getResponseCode() != 200) {
+                throw new IllegalStateException("Unexpected status " + exchange.getResponseCode());
+            }
+            blackhole.consume(exchange.getResponseBytes());
+        };
+    }
+
+    private static AccessLog tempAccessLog() throws IOException {
+        Path file = Files.createTempFile("access", ".log");
+        file.toFile().deleteOnExit();
+        return new AccessLog(file, 64 * 1024, 1, 64L * 1024 * 1024, 0);
+    }
+
+    /**
+     * Создаёт сервис без кэша подписей с заданной реализацией HMAC. Реализация берётся
+     * из конфигурации, поэтому она подменяется перед созданием сервиса.
+     */
+    private static HmacServiceImpl newService(MacEngineType engine, String algorithm) {
+        AppContext.setConfig(String.format("{\"hmacAlg\":\"%s\",\"secret\":\"%s\",\"listenPort\":0,"
+                + "\"maxMsgSizeBytes\":1048576,\"hmacEngine\":\"%s\"}", algorithm, SECRET, engine), true);
+        HmacServiceImpl service = new HmacServiceImpl(0, 1);
+        service.init("bench", SECRET, algorithm);
+        return service;
+    }
+
+    private static VerifyRequestDto verifyRequest(HmacServiceImpl service, int size) {
+        SignRequestDto signRequest = new SignRequestDto();
+        signRequest.setMsg(message(size));
+        VerifyRequestDto request = new VerifyRequestDto();
+        request.setMsg(signRequest.getMsg());
+        request.setSignature(service.sign(signRequest).getSignature());
+        return request;
+    }
+
+    private static byte[] signBody(int size) {
+        SignRequestDto request = new SignRequestDto();
+        request.setMsg(message(size));
+        return JsonObjectMapper.toJson(request).getBytes(AppConstants.CHARSET);
+    }
+
+    private static byte[] verifyBody(int size) {
+        return JsonObjectMapper.toJson(verifyRequest(AppContext.getBean(HmacServiceImpl.class), size))
+                .getBytes(AppConstants.CHARSET);
+    }
+
+    private static String message(int size) {
+        StringBuilder message = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            message.append((char) ('a' + i % 26));
+        }
+        return message.toString();
+    }
+}
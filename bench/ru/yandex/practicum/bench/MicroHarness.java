@@ -0,0 +1,299 @@
+package ru.yandex.practicum.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Минимальный аналог JMH для микробенчмарков из этой директории.
+ *
+ * <p>Каждый бенчмарк по умолчанию выполняется в отдельной JVM (форке) с теми же параметрами
+ * JVM, что и у запускающего процесса, поэтому профиль JIT и куча одного бенчмарка не влияют
+ * на другой. В форке сначала подбирается размер пачки вызовов, при котором обращение
+ * к таймеру не искажает замер, затем выполняются прогревочные и измерительные итерации
+ * фиксированной длительности.</p>
+ *
+ * <p>Для каждой измерительной итерации фиксируются время на операцию, выделенная потоком
+ * память на операцию ({@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()},
+ * аналог {@code -prof gc} в JMH), число и длительность сборок мусора. В итоговой таблице —
+ * среднее и стандартное отклонение по итерациям всех форков.</p>
+ *
+ * <p>Параметры командной строки повторяют JMH: {@code [regex] [-f forks] [-wi warmupIterations]
+ * [-i iterations] [-r iterationMillis] [-o results.csv]}; регулярное выражение отбирает
+ * бенчмарки по имени, {@code -f 0} выполняет всё в текущей JVM.</p>
+ */
+final class MicroHarness {
+    private static final String FORK_FLAG = "--fork";
+    private static final String ITERATION_PREFIX = "@iteration ";
+    private static final long TARGET_BATCH_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Измеряемое действие. Результат передаётся в {@link Blackhole}.
+     */
+    @FunctionalInterface
+    interface Operation {
+        void run(Blackhole blackhole) throws Exception;
+    }
+
+    /**
+     * Подготовка состояния бенчмарка. Выполняется в форке, поэтому состояние не создаётся
+     * для бенчмарков, не попавших в отбор.
+     */
+    @FunctionalInterface
+    interface Setup {
+        Operation create() throws Exception;
+    }
+
+    private final Class<?> mainClass;
+    private final Map<String, Setup> benchmarks = new LinkedHashMap<>();
+
+    MicroHarness(Class<?> mainClass) {
+        this.mainClass = mainClass;
+    }
+
+    void add(String name, Setup setup) {
+        if (benchmarks.putIfAbsent(name, setup) != null) {
+            throw new IllegalArgumentException("Duplicate benchmark: " + name);
+        }
+    }
+
+    void run(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        if (options.fork != null) {
+            Setup setup = benchmarks.get(options.fork);
+            if (setup == null) {
+                throw new IllegalArgumentException("Unknown benchmark: " + options.fork);
+            }
+            for (Iteration iteration : measure(setup, options)) {
+                System.out.println(ITERATION_PREFIX + iteration.format());
+            }
+            return;
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, Setup> benchmark : benchmarks.entrySet()) {
+            if (options.include != null && !options.include.matcher(benchmark.getKey()).find()) {
+                continue;
+            }
+            List<Iteration> iterations = new ArrayList<>();
+            if (options.forks == 0) {
+                iterations.addAll(measure(benchmark.getValue(), options));
+            }
+            for (int i = 0; i < options.forks; i++) {
+                iterations.addAll(fork(benchmark.getKey(), options));
+            }
+            Result result = new Result(benchmark.getKey(), iterations);
+            System.out.println(result.format());
+            results.add(result);
+        }
+        if (options.output != null) {
+            writeCsv(Path.of(options.output), results);
+        }
+    }
+
+    private List<Iteration> fork(String name, Options options) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass.getName());
+        command.addAll(List.of(FORK_FLAG, name, "-wi", Integer.toString(options.warmupIterations),
+                "-i", Integer.toString(options.iterations), "-r", Long.toString(options.iterationMillis)));
+
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        List<Iteration> iterations = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(ITERATION_PREFIX)) {
+                    iterations.add(Iteration.parse(line.substring(ITERATION_PREFIX.length())));
+                } else {
+                    System.err.println(line);
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Fork of " + name + " failed with exit code " + exitCode);
+        }
+        return iterations;
+    }
+
+    private static List<Iteration> measure(Setup setup, Options options) throws Exception {
+        Operation operation = setup.create();
+        Blackhole blackhole = new Blackhole();
+        int batch = calibrate(operation, blackhole);
+        for (int i = 0; i < options.warmupIterations; i++) {
+            iteration(operation, blackhole, batch, options.iterationMillis);
+        }
+        List<Iteration> iterations = new ArrayList<>();
+        for (int i = 0; i < options.iterations; i++) {
+            iterations.add(iteration(operation, blackhole, batch, options.iterationMillis));
+        }
+        return iterations;
+    }
+
+    /**
+     * Подбирает число вызовов между обращениями к таймеру так, чтобы пачка занимала
+     * не меньше {@link #TARGET_BATCH_NANOS}.
+     */
+    private static int calibrate(Operation operation, Blackhole blackhole) throws Exception {
+        int batch = 1;
+        while (batch < (1 << 20)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) {
+                operation.run(blackhole);
+            }
+            if (System.nanoTime() - start >= TARGET_BATCH_NANOS) {
+                break;
+            }
+            batch <<= 1;
+        }
+        return batch;
+    }
+
+    private static Iteration iteration(Operation operation, Blackhole blackhole, int batch,
+                                       long millis) throws Exception {
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(millis);
+        long operations = 0;
+        long now;
+        do {
+            for (int i = 0; i < batch; i++) {
+                operation.run(blackhole);
+            }
+            operations += batch;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Iteration((now - start) / (double) operations, allocated / (double) operations,
+                gcCount() - gcCountBefore, gcMillis() - gcMillisBefore);
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    private static void writeCsv(Path path, List<Result> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            out.println("benchmark,ns_per_op,ns_per_op_sd,ops_per_s,bytes_per_op,gc_count,gc_ms,iterations");
+            for (Result result : results) {
+                out.printf(Locale.ROOT, "\"%s\",%.3f,%.3f,%.1f,%.1f,%d,%d,%d%n", result.name, result.nanosPerOp,
+                        result.nanosPerOpSd, 1e9 / result.nanosPerOp, result.bytesPerOp, result.gcCount,
+                        result.gcMillis, result.iterations);
+            }
+        }
+    }
+
+    private record Iteration(double nanosPerOp, double bytesPerOp, long gcCount, long gcMillis) {
+        private String format() {
+            return String.format(Locale.ROOT, "%.6f %.3f %d %d", nanosPerOp, bytesPerOp, gcCount, gcMillis);
+        }
+
+        private static Iteration parse(String line) {
+            String[] fields = line.split(" ");
+            return new Iteration(Double.parseDouble(fields[0]), Double.parseDouble(fields[1]),
+                    Long.parseLong(fields[2]), Long.parseLong(fields[3]));
+        }
+    }
+
+    private static final class Result {
+        private final String name;
+        private final double nanosPerOp;
+        private final double nanosPerOpSd;
+        private final double bytesPerOp;
+        private final long gcCount;
+        private final long gcMillis;
+        private final int iterations;
+
+        private Result(String name, List<Iteration> iterations) {
+            this.name = name;
+            this.iterations = iterations.size();
+            double nanos = 0;
+            double bytes = 0;
+            long count = 0;
+            long millis = 0;
+            for (Iteration iteration : iterations) {
+                nanos += iteration.nanosPerOp;
+                bytes += iteration.bytesPerOp;
+                count += iteration.gcCount;
+                millis += iteration.gcMillis;
+            }
+            this.nanosPerOp = nanos / iterations.size();
+            this.bytesPerOp = bytes / iterations.size();
+            this.gcCount = count;
+            this.gcMillis = millis;
+            double squares = 0;
+            for (Iteration iteration : iterations) {
+                squares += (iteration.nanosPerOp - nanosPerOp) * (iteration.nanosPerOp - nanosPerOp);
+            }
+            this.nanosPerOpSd = iterations.size() > 1 ? Math.sqrt(squares / (iterations.size() - 1)) : 0;
+        }
+
+        private String format() {
+            return String.format("%-62s %,12.1f +- %,9.1f ns/op %,14.0f ops/s %,10.1f B/op %5d gc %6d ms",
+                    name, nanosPerOp, nanosPerOpSd, 1e9 / nanosPerOp, bytesPerOp, gcCount, gcMillis);
+        }
+    }
+
+    private static final class Options {
+        private int forks = 1;
+        private int warmupIterations = 3;
+        private int iterations = 5;
+        private long iterationMillis = 1000;
+        private Pattern include;
+        private String output;
+        private String fork;
+
+        private static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "-f" -> options.forks = Integer.parseInt(args[++i]);
+                    case "-wi" -> options.warmupIterations = Integer.parseInt(args[++i]);
+                    case "-i" -> options.iterations = Integer.parseInt(args[++i]);
+                    case "-r" -> options.iterationMillis = Long.parseLong(args[++i]);
+                    case "-o" -> options.output = args[++i];
+                    case FORK_FLAG -> options.fork = args[++i];
+                    default -> options.include = Pattern.compile(args[i]);
+                }
+            }
+            if (options.iterations <= 0) {
+                throw new IllegalArgumentException("At least one measurement iteration is required");
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.bench;
+
+import ru.yandex.practicum.constant.AppConstants;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+/**
+ * Минимальный HTTP/1.1-клиент с keep-alive для бенчмарков: заранее сформированный запрос
+ * и разбор только {@code Content-Length}, чтобы затраты клиента не искажали сравнение серверов.
+ */
+class RawHttpClient implements AutoCloseable {
+    private final Socket socket;
+    private final OutputStream out;
+    private final InputStream in;
+    private final byte[] request;
+    private final StringBuilder line = new StringBuilder();
+    private byte[] body = new byte[256];
+
+    RawHttpClient(int port, String path, String json) throws IOException {
+        this.socket = new Socket("localhost", port);
+        socket.setTcpNoDelay(true);
+        this.out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+        this.in = new BufferedInputStream(socket.getInputStream());
+        this.request = ("POST " + path + " HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                + "Content-Length: " + json.getBytes(AppConstants.CHARSET).length + "\r\n\r\n" + json)
+                .getBytes(AppConstants.CHARSET);
+    }
+
+    /**
+     * Отправляет {@code depth} запросов подряд и дочитывает все ответы.
+     *
+     * @return код последнего ответа
+     */
+    int exchange(int depth) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            out.write(request);
+        }
+        out.flush();
+        int status = 0;
+        for (int i = 0; i < depth; i++) {
+            status = readResponse();
+        }
+        return status;
+    }
+
+    private int readResponse() throws IOException {
+        int status = -1;
+        int contentLength = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                if (line.length() == 0) {
+                    if (body.length < contentLength) {
+                        body = new byte[contentLength];
+                    }
+                    if (in.readNBytes(body, 0, contentLength) < contentLength) {
+                        break;
+                    }
+                    return status;
+                }
+                String header = line.toString();
+                if (status == -1) {
+                    status = Integer.parseInt(header.substring(9, 12));
+                } else if (header.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    contentLength = Integer.parseInt(header.substring(15).trim());
+                }
+                line.setLength(0);
+            } else if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        throw new IOException("Connection closed");
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.yandex.practicum.bench;
+
+import ru.yandex.practicum.schema.SignRequestDto;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+import ru.yandex.practicum.util.BoundedCache;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Влияние кэша подписей на {@link HmacServiceImpl#sign(SignRequestDto)} при разной доле повторов.
+ *
+ * <p>С вероятностью, равной заданной доле попаданий, поток подписывает одно из 1000 «горячих»
+ * сообщений, иначе — новое уникальное сообщение. Один и тот же поток сообщений подписывается
+ * сервисом без кэша и с кэшем; печатаются операции в секунду и фактическая доля попаданий.</p>
+ *
+ * <p>Аргументы: {@code [threads] [seconds] [messageSize] [cacheSize]}, по умолчанию число ядер,
+ * {@code 3}, {@code 256} и {@code 10000}.</p>
+ */
+public class SignatureCacheBenchmark {
+    private static final int HOT_MESSAGES = 1000;
+    private static final double[] HIT_RATIOS = {0, 0.5, 0.9, 0.99};
+    private static final AtomicLong UNIQUE = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int messageSize = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        int cacheSize = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+
+        String padding = "x".repeat(Math.max(0, messageSize - 20));
+        String[] hot = new String[HOT_MESSAGES];
+        for (int i = 0; i < hot.length; i++) {
+            hot[i] = String.format("hot-%015d", i) + padding;
+        }
+        for (double hitRatio : HIT_RATIOS) {
+            HmacServiceImpl uncached = newService(0);
+            HmacServiceImpl cached = newService(cacheSize);
+            run("no cache", uncached, hot, padding, hitRatio, threads, 1);
+            run("no cache", uncached, hot, padding, hitRatio, threads, seconds);
+            run("cache", cached, hot, padding, hitRatio, threads, 1);
+            run("cache", cached, hot, padding, hitRatio, threads, seconds);
+        }
+    }
+
+    private static HmacServiceImpl newService(int cacheSize) {
+        HmacServiceImpl service = new HmacServiceImpl(cacheSize, 60_000);
+        service.init("bench", "P0OexNSMup6vIouWoI-3tnfhB-FkGrVw9R_EzVmC_e0=", "SHA256");
+        return service;
+    }
+
+    private static void run(String name, HmacServiceImpl service, String[] hot, String padding, double hitRatio,
+                            int threads, int seconds) throws InterruptedException {
+        BoundedCache<?, String> cache = service.getSignatureCache();
+        long hitsBefore = cache == null ? 0 : cache.getHits() + cache.getCoalesced();
+        long missesBefore = cache == null ? 0 : cache.getMisses();
+        LongAdder operations = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(() -> {
+                SignRequestDto request = new SignRequestDto();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while ((count & 63) != 0 || System.nanoTime() < deadline) {
+                    request.setMsg(random.nextDouble() < hitRatio
+                            ? hot[random.nextInt(hot.length)]
+                            : padding + UNIQUE.incrementAndGet());
+                    service.sign(request);
+                    count++;
+                }
+                operations.add(count);
+            }, "bench-worker-" + i);
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (seconds > 1) {
+            String observed = "-";
+            if (cache != null) {
+                long hits = cache.getHits() + cache.getCoalesced() - hitsBefore;
+                long misses = cache.getMisses() - missesBefore;
+                observed = String.format("%.3f", hits / (double) (hits + misses));
+            }
+            System.out.printf("hitRatio=%.2f %-8s %,12.0f ops/s observed hit ratio=%s%n",
+                    hitRatio, name, operations.sum() / (double) seconds, observed);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ru.yandex.practicum.bench;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+
+/**
+ * Обмен без сети для прогона обработчиков в одном процессе.
+ *
+ * <p>Тело запроса читается из заданного массива, тело ответа отбрасывается с подсчётом байт.
+ * Перед каждым вызовом обработчика обмен сбрасывается {@link #reset()}, поэтому один экземпляр
+ * переиспользуется и не искажает замер выделений памяти.</p>
+ */
+final class StubHttpExchange extends HttpExchange {
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress("localhost", 8080);
+
+    private final Headers requestHeaders = new Headers();
+    private final Headers responseHeaders = new Headers();
+    private final URI uri;
+    private final String method;
+    private final byte[] body;
+    private final ByteArrayInputStream requestBody;
+    private final CountingSink responseBody = new CountingSink();
+    private InputStream filteredRequestBody;
+    private OutputStream filteredResponseBody;
+    private int responseCode = -1;
+
+    StubHttpExchange(String method, String path, String contentType, byte[] body) {
+        this.method = method;
+        this.uri = URI.create(path);
+        this.body = body;
+        this.requestBody = new ByteArrayInputStream(body);
+        requestHeaders.set("Content-Type", contentType);
+        requestHeaders.set("Content-Length", Integer.toString(body.length));
+    }
+
+    void reset() {
+        requestBody.reset();
+        responseHeaders.clear();
+        responseBody.count = 0;
+        filteredRequestBody = null;
+        filteredResponseBody = null;
+        responseCode = -1;
+    }
+
+    long getResponseBytes() {
+        return responseBody.count;
+    }
+
+    int getRequestBytes() {
+        return body.length;
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return uri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return method;
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return null;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return filteredRequestBody != null ? filteredRequestBody : requestBody;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return filteredResponseBody != null ? filteredResponseBody : responseBody;
+    }
+
+    @Override
+    public void sendResponseHeaders(int code, long responseLength) {
+        responseCode = code;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return ADDRESS;
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return ADDRESS;
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return null;
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+    }
+
+    @Override
+    public void setStreams(InputStream i, OutputStream o) {
+        if (i != null) {
+            filteredRequestBody = i;
+        }
+        if (o != null) {
+            filteredResponseBody = o;
+        }
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+
+    private static final class CountingSink extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package ru.yandex.practicum.bench;
+
+import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.context.web.WebContext;
+import ru.yandex.practicum.protocol.TcpFrames;
+import ru.yandex.practicum.server.impl.NioHttpServer;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+import ru.yandex.practicum.tcp.TcpFrameServer;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сравнение пропускной способности {@code POST /sign} на встроенном сервере JDK, на
+ * {@link NioHttpServer} (с обработчиками в пуле и в потоках селекторов) и TCP-слушателя на loopback.
+ *
+ * <p>Клиенты держат постоянные соединения и отправляют заранее сформированные запросы
+ * с 32-байтовым сообщением. Для NIO и TCP дополнительно измеряется режим с конвейеризацией.
+ * Помимо запросов в секунду печатается число запросов на секунду процессорного времени
+ * серверных потоков, то есть пропускная способность в пересчёте на одно ядро.</p>
+ *
+ * <p>Аргументы: {@code [connections] [seconds] [pipelineDepth]}, по умолчанию {@code 8 5 16}.</p>
+ */
+public class TcpVsHttpBenchmark {
+    private static final byte[] MESSAGE = "0123456789abcdef0123456789abcdef".getBytes(AppConstants.CHARSET);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int pipelineDepth = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        // без этого встроенный сервер упирается в алгоритм Нейгла и задержанные ACK на каждом ответе
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        HmacServiceImpl hmacService = AppContext.getBean(HmacServiceImpl.class);
+        AtomicInteger workerIds = new AtomicInteger();
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                task -> new Thread(task, "server-http-" + workerIds.incrementAndGet()));
+        HttpServer httpServer = startHttpServer(HttpServer.create(new InetSocketAddress("localhost", 0), 1024),
+                httpExecutor);
+        HttpServer nioServer = startHttpServer(NioHttpServer.create(new InetSocketAddress("localhost", 0), 1024,
+                Runtime.getRuntime().availableProcessors(), false), httpExecutor);
+        HttpServer nioInlineServer = startHttpServer(NioHttpServer.create(new InetSocketAddress("localhost", 0), 1024,
+                Runtime.getRuntime().availableProcessors(), true), httpExecutor);
+        TcpFrameServer tcpServer = TcpFrameServer.create(new InetSocketAddress("localhost", 0),
+                Runtime.getRuntime().availableProcessors(), hmacService, AppContext.getMaxSizeBytes());
+        tcpServer.start();
+
+        try {
+            int httpPort = httpServer.getAddress().getPort();
+            int nioPort = nioServer.getAddress().getPort();
+            int nioInlinePort = nioInlineServer.getAddress().getPort();
+            int tcpPort = tcpServer.getAddress().getPort();
+            run("http", connections, 1, 1, () -> new HttpClientConnection(httpPort));
+            run("http", connections, seconds, 1, () -> new HttpClientConnection(httpPort));
+            run("nio", connections, 1, 1, () -> new HttpClientConnection(nioPort));
+            run("nio", connections, seconds, 1, () -> new HttpClientConnection(nioPort));
+            run("nio", connections, seconds, pipelineDepth, () -> new HttpClientConnection(nioPort));
+            run("nio-i", connections, seconds, 1, () -> new HttpClientConnection(nioInlinePort));
+            run("nio-i", connections, seconds, pipelineDepth, () -> new HttpClientConnection(nioInlinePort));
+            run("tcp", connections, 1, 1, () -> new TcpClientConnection(tcpPort));
+            run("tcp", connections, seconds, 1, () -> new TcpClientConnection(tcpPort));
+            run("tcp", connections, seconds, pipelineDepth, () -> new TcpClientConnection(tcpPort));
+        } finally {
+            tcpServer.stop();
+            httpServer.stop(0);
+            nioServer.stop(0);
+            nioInlineServer.stop(0);
+            httpExecutor.shutdown();
+        }
+    }
+
+    private static HttpServer startHttpServer(HttpServer server, ExecutorService executor) {
+        WebContext.init(server);
+        server.setExecutor(executor);
+        server.start();
+        return server;
+    }
+
+    private static void run(String name, int connections, int seconds, int depth,
+                            ConnectionFactory factory) throws Exception {
+        LongAdder completed = new LongAdder();
+        long serverCpuBefore = serverCpuNanos();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        Thread[] clients = new Thread[connections];
+        for (int i = 0; i < clients.length; i++) {
+            ClientConnection connection = factory.open();
+            clients[i] = new Thread(() -> {
+                try (connection) {
+                    while (System.nanoTime() < deadline) {
+                        connection.roundTrip(depth);
+                        completed.add(depth);
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, "bench-client-" + i);
+            clients[i].start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        double serverCpuSeconds = (serverCpuNanos() - serverCpuBefore) / 1e9;
+        long requests = completed.sum();
+        System.out.printf("%-5s connections=%-3d depth=%-3d %,12.0f req/s %,12.0f req/cpu-s%n",
+                name, connections, depth, requests / (double) seconds, requests / serverCpuSeconds);
+    }
+
+    private static long serverCpuNanos() {
+        long total = 0;
+        for (long id : THREADS.getAllThreadIds()) {
+            var info = THREADS.getThreadInfo(id);
+            if (info == null) {
+                continue;
+            }
+            String threadName = info.getThreadName();
+            if (threadName.startsWith("server-http-") || threadName.startsWith("HTTP-Dispatcher")
+                    || threadName.startsWith("http-selector-") || threadName.startsWith("tcp-selector-")) {
+                total += Math.max(0, THREADS.getThreadCpuTime(id));
+            }
+        }
+        return total;
+    }
+
+    private interface ConnectionFactory {
+        ClientConnection open() throws IOException;
+    }
+
+    private interface ClientConnection extends AutoCloseable {
+        void roundTrip(int depth) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static class HttpClientConnection extends RawHttpClient implements ClientConnection {
+        private HttpClientConnection(int port) throws IOException {
+            super(port, "/sign", "{\"msg\":\"" + new String(MESSAGE, AppConstants.CHARSET) + "\"}");
+        }
+
+        @Override
+        public void roundTrip(int depth) throws IOException {
+            if (exchange(depth) != 200) {
+                throw new IOException("Unexpected status");
+            }
+        }
+    }
+
+    private static class TcpClientConnection implements ClientConnection {
+        private final Socket socket;
+        private final OutputStream out;
+        private final DataInputStream in;
+        private final byte[] frame;
+        private byte[] batch = new byte[0];
+        private final byte[] response = new byte[128];
+
+        private TcpClientConnection(int port) throws IOException {
+            this.socket = new Socket("localhost", port);
+            socket.setTcpNoDelay(true);
+            this.out = socket.getOutputStream();
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            int length = 1 + MESSAGE.length;
+            this.frame = new byte[TcpFrames.HEADER_SIZE + length];
+            frame[3] = (byte) length;
+            frame[4] = TcpFrames.OP_SIGN;
+            System.arraycopy(MESSAGE, 0, frame, 5, MESSAGE.length);
+        }
+
+        @Override
+        public void roundTrip(int depth) throws IOException {
+            if (batch.length != frame.length * depth) {
+                batch = new byte[frame.length * depth];
+                for (int i = 0; i < depth; i++) {
+                    System.arraycopy(frame, 0, batch, i * frame.length, frame.length);
+                }
+            }
+            out.write(batch);
+            out.flush();
+            for (int i = 0; i < depth; i++) {
+                in.readFully(response, 0, in.readInt());
+                if (response[0] != TcpFrames.STATUS_OK) {
+                    throw new IOException("Unexpected status: " + Arrays.toString(response));
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
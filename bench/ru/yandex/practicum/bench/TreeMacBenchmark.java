@@ -0,0 +1,96 @@
+package ru.yandex.practicum.bench;
+
+import ru.yandex.practicum.crypto.MacEngine;
+import ru.yandex.practicum.crypto.TreeMac;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Пропускная способность подписи большого локального файла обычным потоковым HMAC
+ * ({@link HmacServiceImpl#signStream(InputStream)}) и древовидной схемой {@link TreeMac}.
+ *
+ * <p>Файл создаётся во временном каталоге и удаляется в конце. Древовидная схема измеряется
+ * при чтении файла потоком ({@link HmacServiceImpl#signTree(InputStream)}) и над отображённым
+ * в память файлом в пулах из 1, 2, 4… потоков вплоть до числа ядер: рост пропускной способности
+ * с числом потоков и есть масштабирование схемы. Печатаются МБ/с лучшего из повторов.</p>
+ *
+ * <p>Аргументы: {@code [sizeMiB] [rounds]}, по умолчанию {@code 1024} и {@code 3}.</p>
+ */
+public class TreeMacBenchmark {
+    private static final Blackhole BLACKHOLE = new Blackhole();
+
+    public static void main(String[] args) throws Exception {
+        int sizeMiB = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        HmacServiceImpl service = new HmacServiceImpl(0, 0);
+        service.init("bench", "P0OexNSMup6vIouWoI-3tnfhB-FkGrVw9R_EzVmC_e0=", "SHA256");
+        MacEngine engine = service.getKeyring().getActive().getEngine();
+        Path file = Files.createTempFile("tree-mac-bench", ".bin");
+        try {
+            writeRandom(file, sizeMiB);
+            long size = Files.size(file);
+            run("signStream", size, rounds, () -> {
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+                    return service.signStream(in).getSignature();
+                }
+            });
+            run("signTree stream", size, rounds, () -> {
+                try (InputStream in = Files.newInputStream(file)) {
+                    return service.signTree(in).getSignature();
+                }
+            });
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                int cores = Runtime.getRuntime().availableProcessors();
+                for (int threads = 1; ; threads = Math.min(cores, threads * 2)) {
+                    ForkJoinPool pool = new ForkJoinPool(threads);
+                    TreeMac treeMac = new TreeMac(pool);
+                    run("tree mmap x" + threads, size, rounds, () -> treeMac.sign(engine, mapped));
+                    pool.shutdown();
+                    if (threads == cores) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void writeRandom(Path file, int sizeMiB) throws IOException {
+        byte[] block = new byte[1 << 20];
+        Random random = new Random(42);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int i = 0; i < sizeMiB; i++) {
+                random.nextBytes(block);
+                out.write(block);
+            }
+        }
+    }
+
+    private static void run(String name, long size, int rounds, Task task) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            BLACKHOLE.consume(task.run());
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-18s %,10.1f MB/s%n", name, size / 1e6 / (best / 1e9));
+    }
+
+    private interface Task {
+        Object run() throws Exception;
+    }
+}
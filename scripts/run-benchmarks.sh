@@ -0,0 +1,10 @@
+#!/bin/sh
+
+set -e
+
+libs=$(find lib -name "*.jar" -printf "%p;")
+benchmark=${1:-TcpVsHttpBenchmark}
+[ $# -gt 0 ] && shift
+
+javac -d 'out/bench' -cp "out/production;$libs" $(find bench -name "*.java")
+java -Djava.util.logging.config.file=/dev/null -cp "out/bench;out/production;$libs" "ru.yandex.practicum.bench.$benchmark" "$@"
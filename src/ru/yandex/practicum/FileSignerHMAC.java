@@ -0,0 +1,56 @@
+package ru.yandex.practicum;
+
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.file.FileSigner;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Консольная утилита подписи и проверки локальных файлов.
+ *
+ * <p>Использует ту же конфигурацию и тот же набор ключей, что и {@link ServerHMAC} (через {@link AppContext}),
+ * и подписывает файлы схемой {@code tmac1} с помощью {@link FileSigner}, не ограничивая их размер:</p>
+ * <pre>
+ * FileSignerHMAC sign &lt;файл или каталог&gt; &lt;манифест&gt;
+ * FileSignerHMAC verify &lt;каталог&gt; &lt;манифест&gt;
+ * </pre>
+ * <p>При проверке для каждого файла, не прошедшего проверку, печатается {@code FAILED} или
+ * {@code MISSING} и путь. Код завершения {@code 0}, если все файлы подлинны, {@code 1} при
+ * расхождениях и {@code 2} при неверных аргументах.</p>
+ */
+public class FileSignerHMAC {
+    private static final Logger log = Logger.getLogger(FileSignerHMAC.class.getName());
+    private static final String USAGE = "Usage: FileSignerHMAC sign <file|dir> <manifest>\n"
+            + "       FileSignerHMAC verify <dir> <manifest>";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3 || !("sign".equals(args[0]) || "verify".equals(args[0]))) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        Path path = Path.of(args[1]);
+        Path manifest = Path.of(args[2]);
+        FileSigner signer = new FileSigner();
+        long start = System.nanoTime();
+        if ("sign".equals(args[0])) {
+            List<FileSigner.Entry> entries = signer.signAll(path);
+            FileSigner.writeManifest(manifest, entries);
+            log.info(String.format("Signed %d files in %d ms, manifest: %s",
+                    entries.size(), (System.nanoTime() - start) / 1_000_000, manifest));
+            return;
+        }
+        List<FileSigner.Result> results = signer.verifyAll(path, FileSigner.readManifest(manifest));
+        int failed = 0;
+        for (FileSigner.Result result : results) {
+            if (result.getStatus() != FileSigner.Status.OK) {
+                System.out.println(result.getStatus() + " " + result.getEntry().getPath());
+                failed++;
+            }
+        }
+        log.info(String.format("Verified %d files in %d ms, failed: %d",
+                results.size(), (System.nanoTime() - start) / 1_000_000, failed));
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
@@ -4,24 +4,40 @@ import com.sun.net.httpserver.HttpServer;
 import ru.yandex.practicum.context.app.AppContext;
 import ru.yandex.practicum.context.web.WebContext;
 import ru.yandex.practicum.exception.app.ServerInstantiationException;
+import ru.yandex.practicum.limiter.QueueTimeExecutor;
+import ru.yandex.practicum.server.ExecutorType;
+import ru.yandex.practicum.server.HttpServerEngine;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+import ru.yandex.practicum.tcp.TcpFrameServer;
+import ru.yandex.practicum.warmup.Readiness;
+import ru.yandex.practicum.warmup.Warmup;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 /**
  * Основной класс сервера для генерации и проверки HMAC-подписей.
  *
  * <p>Этот класс отвечает за инициализацию HTTP-сервера, настройку обработчиков
- * и запуск сервера на указанном порту. Использует встроенный HTTP-сервер из
- * пакета {@code com.sun.net.httpserver} для обработки входящих запросов.</p>
+ * и запуск сервера на указанном порту. Реализация сервера выбирается параметром
+ * {@code httpServerEngine} конфигурации (см. {@link HttpServerEngine}); обе предоставляют
+ * API пакета {@code com.sun.net.httpserver}.</p>
  *
  * <p>Конфигурация сервера (порт, секрет, алгоритм и др.) загружается через
  * {@link AppContext}, а маршруты и их обработчики регистрируются с помощью
  * {@link WebContext}.</p>
  *
- * <p>Сервер использует пул потоков на основе {@link Executors#newWorkStealingPool()},
- * что обеспечивает эффективную обработку запросов в асинхронном режиме.</p>
+ * <p>Если в конфигурации задан {@code tcpListenPort}, дополнительно запускается
+ * {@link TcpFrameServer} с тем же сервисом подписи.</p>
+ *
+ * <p>Пул потоков обработчиков выбирается параметром {@code executorType} (см. {@link ExecutorType}),
+ * его размер — {@code executorThreads} и {@code executorQueueCapacity}. Длина очереди входящих
+ * соединений задаётся {@code acceptBacklog}. Пул оборачивается в {@link QueueTimeExecutor}, чтобы
+ * адаптивный предел параллельности учитывал ожидание запросов в его очереди.</p>
+ *
+ * <p>После запуска сервер прогревается синтетическими запросами ({@link Warmup}) и только затем
+ * сообщает о готовности через {@code GET /ready}.</p>
  */
 public class ServerHMAC {
     private static final Logger log = Logger.getLogger(ServerHMAC.class.getName());
@@ -29,13 +45,42 @@ public class ServerHMAC {
     public static void main(String[] args) {
         try {
             log.info("Starting server initialization..");
-            HttpServer server = HttpServer.create(new InetSocketAddress(AppContext.getListenPort()), 0);
-            WebContext.init(server);
-            server.setExecutor(Executors.newWorkStealingPool());
-            server.start();
+            log.info("Using http server engine: " + AppContext.getHttpServerEngine());
+            log.info(String.format("Using executor: %s, threads: %d, queue capacity: %d, accept backlog: %d",
+                    AppContext.getExecutorType(), AppContext.getExecutorThreads(),
+                    AppContext.getExecutorQueueCapacity(), AppContext.getAcceptBacklog()));
+            startHttpServer(new InetSocketAddress(AppContext.getListenPort()));
+            if (AppContext.getTcpListenPort() >= 0) {
+                startTcpListener();
+            }
             log.info("Server initialization finished.");
         } catch (Exception e) {
             throw new ServerInstantiationException("Failed to instantiate http server: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Создаёт и запускает HTTP-сервер с маршрутами приложения по параметрам конфигурации,
+     * прогревает его и отмечает готовым к приёму трафика.
+     *
+     * @param address адрес прослушивания; порт {@code 0} выбирает свободный порт
+     */
+    public static HttpServer startHttpServer(InetSocketAddress address) throws IOException, InterruptedException {
+        HttpServer server = AppContext.getHttpServerEngine().create(address, AppContext.getAcceptBacklog());
+        WebContext.init(server);
+        server.setExecutor(new QueueTimeExecutor(AppContext.getExecutorType().create(
+                AppContext.getExecutorThreads(), AppContext.getExecutorQueueCapacity())));
+        server.start();
+        new Warmup().run(server.getAddress().getPort());
+        AppContext.getBean(Readiness.class).setReady(true);
+        return server;
+    }
+
+    private static void startTcpListener() throws IOException {
+        TcpFrameServer tcpServer = TcpFrameServer.create(new InetSocketAddress(AppContext.getTcpListenPort()),
+                AppContext.getTcpSelectorThreads(), AppContext.getBean(HmacServiceImpl.class),
+                AppContext.getMaxSizeBytes());
+        tcpServer.start();
+        log.info("Tcp listener started on port " + tcpServer.getAddress().getPort());
+    }
 }
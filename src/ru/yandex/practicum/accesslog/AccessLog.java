@@ -0,0 +1,235 @@
+package ru.yandex.practicum.accesslog;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.exception.app.InvalidConfigurationException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Журнал доступа: одна строка на HTTP-запрос в отдельном файле.
+ *
+ * <p>Поток обработки запроса только кладёт событие фиксированного размера в {@link AccessLogRing}
+ * и никогда не ждёт: при заполненном буфере событие отбрасывается и учитывается счётчиком
+ * {@link #getDropped()}. Строки форматирует и пишет пачками фоновый поток {@code access-log-writer}
+ * в файл с ротацией по размеру ({@link RollingFileWriter}); буфер файла сбрасывается, когда
+ * очередь событий опустела.</p>
+ *
+ * <p>Успешные запросы записываются с вероятностью {@code accessLogSampleRate}, ответы с кодом
+ * 400 и выше — всегда. Журнал выключен, если в конфигурации не задан {@code accessLogFile}.</p>
+ *
+ * <p>Формат строки: время UTC, адрес клиента, метод, путь, код ответа, размер тела запроса
+ * ({@code -}, если неизвестен), время обработки в миллисекундах и текст ошибки в кавычках
+ * или {@code -}.</p>
+ */
+public final class AccessLog implements AutoCloseable {
+    private static final Logger log = Logger.getLogger(AccessLog.class.getName());
+    private static final int BATCH_SIZE = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    private final AccessLogRing ring;
+    private final double sampleRate;
+    private final RollingFileWriter writer;
+    private final Thread thread;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final StringBuilder line = new StringBuilder(256);
+    private boolean failing;
+    private volatile boolean closed;
+
+    public AccessLog() {
+        this(AppContext.getAccessLogFile(), AppContext.getAccessLogBufferSize(), AppContext.getAccessLogSampleRate(),
+                AppContext.getAccessLogMaxFileBytes(), AppContext.getAccessLogMaxFiles());
+    }
+
+    /**
+     * @param file         файл журнала; {@code null} выключает журнал
+     * @param bufferSize   ёмкость буфера событий
+     * @param sampleRate   доля записываемых успешных запросов, от 0 до 1
+     * @param maxFileBytes размер файла, после которого он ротируется
+     * @param maxFiles     число хранимых архивов
+     */
+    public AccessLog(Path file, int bufferSize, double sampleRate, long maxFileBytes, int maxFiles) {
+        this.sampleRate = sampleRate;
+        if (file == null) {
+            this.ring = null;
+            this.writer = null;
+            this.thread = null;
+            return;
+        }
+        this.ring = new AccessLogRing(bufferSize);
+        try {
+            this.writer = new RollingFileWriter(file, maxFileBytes, maxFiles);
+        } catch (IOException e) {
+            throw new InvalidConfigurationException("Failed to open access log file: " + e.getMessage());
+        }
+        this.thread = new Thread(this::run, "access-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "access-log-shutdown"));
+    }
+
+    public boolean isEnabled() {
+        return ring != null;
+    }
+
+    /**
+     * Записывает событие о завершённом запросе, если журнал включён и запрос попал в выборку.
+     *
+     * @param requestBytes размер тела запроса или {@code -1}, если он неизвестен
+     * @param message      текст ошибки или {@code null}
+     */
+    public void record(HttpExchange exchange, int status, long requestBytes, long nanos, String message) {
+        if (isSampled(status)) {
+            record(exchange.getRequestMethod(), exchange.getRequestURI().getRawPath(), exchange.getRemoteAddress(),
+                    status, requestBytes, nanos, message);
+        }
+    }
+
+    boolean isSampled(int status) {
+        return ring != null && !closed
+                && (status >= 400 || sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    void record(String method, String path, InetSocketAddress address, int status, long requestBytes, long nanos,
+                String message) {
+        if (!ring.offer(System.currentTimeMillis(), method, path, address, status, requestBytes, nanos, message)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * @return число событий, отброшенных из-за заполненного буфера или ошибки записи файла
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Останавливает фоновый поток, дописывает накопленные события и закрывает файл.
+     */
+    @Override
+    public void close() {
+        if (ring == null || closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            return;
+        }
+        drainAll();
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to close access log", e);
+        }
+    }
+
+    private void run() {
+        while (!closed) {
+            if (drainBatch() == 0) {
+                flush();
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void drainAll() {
+        while (drainBatch() > 0) {
+            // дописываем события, поступившие до закрытия
+        }
+        flush();
+    }
+
+    private int drainBatch() {
+        return ring.drain(this::write, BATCH_SIZE);
+    }
+
+    private void write(long timestamp, String method, String path, InetSocketAddress address, int status,
+                       long bytes, long nanos, String message) {
+        line.setLength(0);
+        TIMESTAMP.formatTo(Instant.ofEpochMilli(timestamp), line);
+        line.append(' ');
+        if (address == null) {
+            line.append('-');
+        } else {
+            line.append(address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString())
+                    .append(':').append(address.getPort());
+        }
+        line.append(' ').append(method).append(' ').append(path).append(' ').append(status).append(' ');
+        if (bytes < 0) {
+            line.append('-');
+        } else {
+            line.append(bytes);
+        }
+        long micros = nanos / 1000;
+        line.append(' ').append(micros / 1000).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) {
+            line.append(fraction < 10 ? "00" : "0");
+        }
+        line.append(fraction).append(' ');
+        if (message == null) {
+            line.append('-');
+        } else {
+            line.append('"');
+            for (int i = 0; i < message.length(); i++) {
+                char c = message.charAt(i);
+                if (c == '"' || c == '\\') {
+                    line.append('\\').append(c);
+                } else if (c == '\n' || c == '\r') {
+                    line.append(' ');
+                } else {
+                    line.append(c);
+                }
+            }
+            line.append('"');
+        }
+        line.append('\n');
+
+        byte[] bytesToWrite = line.toString().getBytes(AppConstants.CHARSET);
+        try {
+            writer.write(bytesToWrite, 0, bytesToWrite.length);
+            written.increment();
+            failing = false;
+        } catch (IOException e) {
+            dropped.increment();
+            if (!failing) {
+                failing = true;
+                log.log(Level.WARNING, "Failed to write access log", e);
+            }
+        }
+    }
+
+    private void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to flush access log", e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.yandex.practicum.accesslog;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ограниченный кольцевой буфер событий журнала доступа: много писателей, один читатель.
+ *
+ * <p>Событие имеет фиксированный набор полей и хранится в параллельных массивах, поэтому запись
+ * не создаёт объектов. Каждая ячейка снабжена номером последовательности: писатель захватывает
+ * ячейку CAS-ом на счётчике хвоста, заполняет поля и публикует её записью номера, а читатель
+ * видит ячейку только после публикации. Если буфер заполнен, {@link #offer} сразу возвращает
+ * {@code false} — писатель никогда не ждёт.</p>
+ */
+class AccessLogRing {
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    private final long[] timestamps;
+    private final long[] durations;
+    private final long[] requestBytes;
+    private final int[] statuses;
+    private final String[] methods;
+    private final String[] paths;
+    private final InetSocketAddress[] addresses;
+    private final String[] messages;
+
+    /**
+     * @param capacity ёмкость буфера; округляется вверх до степени двойки
+     */
+    AccessLogRing(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.timestamps = new long[size];
+        this.durations = new long[size];
+        this.requestBytes = new long[size];
+        this.statuses = new int[size];
+        this.methods = new String[size];
+        this.paths = new String[size];
+        this.addresses = new InetSocketAddress[size];
+        this.messages = new String[size];
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return {@code false}, если буфер заполнен и событие не записано
+     */
+    boolean offer(long timestamp, String method, String path, InetSocketAddress address, int status,
+                  long bytes, long duration, String message) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    timestamps[index] = timestamp;
+                    methods[index] = method;
+                    paths[index] = path;
+                    addresses[index] = address;
+                    statuses[index] = status;
+                    requestBytes[index] = bytes;
+                    durations[index] = duration;
+                    messages[index] = message;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Передаёт опубликованные события потребителю и освобождает их ячейки. Вызывается только
+     * одним потоком.
+     *
+     * @return число переданных событий
+     */
+    int drain(AccessLogConsumer consumer, int limit) {
+        int count = 0;
+        while (count < limit) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            consumer.accept(timestamps[index], methods[index], paths[index], addresses[index], statuses[index],
+                    requestBytes[index], durations[index], messages[index]);
+            methods[index] = null;
+            paths[index] = null;
+            addresses[index] = null;
+            messages[index] = null;
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            count++;
+        }
+        return count;
+    }
+
+    @FunctionalInterface
+    interface AccessLogConsumer {
+        void accept(long timestamp, String method, String path, InetSocketAddress address, int status,
+                    long bytes, long duration, String message);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.yandex.practicum.accesslog;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Запись в файл с ротацией по размеру.
+ *
+ * <p>Когда размер файла превышает {@code maxFileBytes}, он переименовывается в {@code <имя>.1},
+ * предыдущие архивы сдвигаются ({@code .1} в {@code .2} и т.д.), самый старый сверх
+ * {@code maxFiles} удаляется. При {@code maxFiles = 0} файл просто начинается заново. Ошибка
+ * ротации не теряет записи: файл открывается заново и дописывается.</p>
+ */
+class RollingFileWriter implements AutoCloseable {
+    private static final Logger log = Logger.getLogger(RollingFileWriter.class.getName());
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private OutputStream out;
+    private long size;
+
+    RollingFileWriter(Path file, long maxFileBytes, int maxFiles) throws IOException {
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        open();
+    }
+
+    void write(byte[] bytes, int offset, int length) throws IOException {
+        if (size > 0 && size + length > maxFileBytes) {
+            roll();
+        }
+        out.write(bytes, offset, length);
+        size += length;
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Ротирует файл. Если ротация не удалась, запись продолжается в текущий файл, а следующая
+     * попытка откладывается ещё на {@code maxFileBytes} байт.
+     */
+    private void roll() throws IOException {
+        try {
+            out.close();
+            if (maxFiles > 0) {
+                Files.deleteIfExists(archive(maxFiles));
+                for (int i = maxFiles - 1; i >= 1; i--) {
+                    if (Files.exists(archive(i))) {
+                        Files.move(archive(i), archive(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                Files.move(file, archive(1), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to roll " + file + ", appending to the current file", e);
+            open();
+            size = 0;
+            return;
+        }
+        open();
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND), BUFFER_SIZE);
+        size = Files.size(file);
+    }
+
+    private Path archive(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
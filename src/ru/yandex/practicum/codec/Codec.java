@@ -1,25 +1,80 @@
 package ru.yandex.practicum.codec;
 
-import java.util.Base64;
+import ru.yandex.practicum.codec.impl.Base64Codec;
 
+import java.nio.ByteBuffer;
+
+/**
+ * Кодек двоичных данных в текст.
+ *
+ * <p>Помимо методов, возвращающих новый массив, кодек умеет работать с фрагментами массивов
+ * и с {@link ByteBuffer}, записывая результат в буфер вызывающей стороны: так на горячем пути
+ * (например, кодирование подписи в ответе) не создаются промежуточные массивы.</p>
+ */
 public interface Codec {
     byte[] encode(byte[] bytes);
 
     byte[] decode(byte[] text);
 
     /**
-     * Проверяет, является ли переданный массив байтов корректным Base64-кодированным значением.
-     * Метод возвращает {@code false} при ошибках декодирования.</p>
+     * @return длина текста, в который кодируются {@code length} байтов
+     */
+    int encodedLength(int length);
+
+    /**
+     * Длина декодированных данных, вычисленная по длине текста и дополнению. Корректность
+     * алфавита не проверяется.
+     */
+    int decodedLength(byte[] text, int offset, int length);
+
+    /**
+     * Кодирует фрагмент массива в массив вызывающей стороны.
+     *
+     * @return число записанных байтов, равное {@link #encodedLength(int)}
+     * @throws IllegalArgumentException если в {@code out} не хватает места
+     */
+    int encode(byte[] bytes, int offset, int length, byte[] out, int outOffset);
+
+    /**
+     * Декодирует фрагмент текста в массив вызывающей стороны.
+     *
+     * @return число записанных байтов, равное {@link #decodedLength(byte[], int, int)}
+     * @throws IllegalArgumentException если текст некорректен или в {@code out} не хватает места
+     */
+    int decode(byte[] text, int offset, int length, byte[] out, int outOffset);
+
+    /**
+     * Кодирует оставшиеся байты {@code bytes} в {@code out}. Позиции обоих буферов сдвигаются
+     * на прочитанное и записанное.
+     *
+     * @return число записанных байтов
+     * @throws IllegalArgumentException если в {@code out} не хватает места; позиции при этом не меняются
+     */
+    int encode(ByteBuffer bytes, ByteBuffer out);
+
+    /**
+     * Декодирует оставшийся текст {@code text} в {@code out}. Позиции обоих буферов сдвигаются
+     * на прочитанное и записанное.
+     *
+     * @return число записанных байтов
+     * @throws IllegalArgumentException если текст некорректен или в {@code out} не хватает места;
+     *                                  позиция {@code text} при этом не меняется
+     */
+    int decode(ByteBuffer text, ByteBuffer out);
+
+    /**
+     * Проверяет алфавит и дополнение текста, не декодируя его и не выбрасывая исключений.
+     */
+    boolean isValid(byte[] text, int offset, int length);
+
+    /**
+     * Проверяет, является ли переданный массив байтов корректным Base64-кодированным значением
+     * с URL-безопасным алфавитом.
      *
      * @param bytes массив байтов для проверки; должен быть в формате Base64
      * @return {@code true}, если данные корректно декодируются как Base64, иначе {@code false}
      */
     static boolean isValidBase64(byte[] bytes) {
-        try {
-            Base64.getUrlDecoder().decode(bytes);
-            return true;
-        } catch (IllegalArgumentException e) {
-            return false;
-        }
+        return Base64Codec.isValidBase64(bytes, 0, bytes.length);
     }
 }
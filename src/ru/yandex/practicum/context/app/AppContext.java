@@ -1,17 +1,25 @@
 package ru.yandex.practicum.context.app;
 
 import ru.yandex.practicum.codec.Codec;
+import ru.yandex.practicum.crypto.KeyringFileWatcher;
+import ru.yandex.practicum.crypto.MacEngineType;
 import ru.yandex.practicum.exception.app.BeanInitializationException;
 import ru.yandex.practicum.exception.app.ConfigurationNotFoundException;
 import ru.yandex.practicum.exception.app.InvalidConfigurationException;
 import ru.yandex.practicum.exception.web.DeserializationException;
 import ru.yandex.practicum.mapper.JsonObjectMapper;
+import ru.yandex.practicum.server.ExecutorType;
+import ru.yandex.practicum.server.HttpServerEngine;
 import ru.yandex.practicum.service.HmacService;
+import ru.yandex.practicum.tenant.TenantConfig;
+import ru.yandex.practicum.tenant.TenantRegistry;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Logger;
@@ -61,13 +69,206 @@ public class AppContext {
         return AppConfigProvider.getConfig().getMaxMsgSizeBytes();
     }
 
+    public static int getMaxBatchSizeBytes() {
+        return AppConfigProvider.getConfig().getMaxBatchSizeBytes();
+    }
+
+    public static int getMaxBatchItems() {
+        return AppConfigProvider.getConfig().getMaxBatchItems();
+    }
+
+    public static long getMaxStreamSizeBytes() {
+        return AppConfigProvider.getConfig().getMaxStreamSizeBytes();
+    }
+
+    /**
+     * @return порт TCP-слушателя или отрицательное число, если слушатель выключен
+     */
+    public static int getTcpListenPort() {
+        return AppConfigProvider.getConfig().getTcpListenPort();
+    }
+
+    public static int getTcpSelectorThreads() {
+        int threads = AppConfigProvider.getConfig().getTcpSelectorThreads();
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public static HttpServerEngine getHttpServerEngine() {
+        return HttpServerEngine.valueOf(AppConfigProvider.getConfig().getHttpServerEngine());
+    }
+
+    public static int getHttpSelectorThreads() {
+        int threads = AppConfigProvider.getConfig().getHttpSelectorThreads();
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public static boolean isHttpInlineHandlers() {
+        return AppConfigProvider.getConfig().isHttpInlineHandlers();
+    }
+
+    public static ExecutorType getExecutorType() {
+        return ExecutorType.valueOf(AppConfigProvider.getConfig().getExecutorType());
+    }
+
+    public static int getExecutorThreads() {
+        int threads = AppConfigProvider.getConfig().getExecutorThreads();
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public static int getExecutorQueueCapacity() {
+        return AppConfigProvider.getConfig().getExecutorQueueCapacity();
+    }
+
+    /**
+     * @return длина очереди входящих соединений; {@code 0} означает значение по умолчанию системы
+     */
+    public static int getAcceptBacklog() {
+        return AppConfigProvider.getConfig().getAcceptBacklog();
+    }
+
+    /**
+     * @return размер кэша подписей; {@code 0} означает, что кэш выключен
+     */
+    public static int getSignatureCacheSize() {
+        return AppConfigProvider.getConfig().getSignatureCacheSize();
+    }
+
+    public static long getSignatureCacheTtlMillis() {
+        return AppConfigProvider.getConfig().getSignatureCacheTtlMillis();
+    }
+
+    /**
+     * @return файл журнала доступа или {@code null}, если журнал выключен
+     */
+    public static Path getAccessLogFile() {
+        String file = AppConfigProvider.getConfig().getAccessLogFile();
+        return file == null ? null : Path.of(file);
+    }
+
+    public static int getAccessLogBufferSize() {
+        return AppConfigProvider.getConfig().getAccessLogBufferSize();
+    }
+
+    public static double getAccessLogSampleRate() {
+        return AppConfigProvider.getConfig().getAccessLogSampleRate();
+    }
+
+    public static long getAccessLogMaxFileBytes() {
+        return AppConfigProvider.getConfig().getAccessLogMaxFileBytes();
+    }
+
+    public static int getAccessLogMaxFiles() {
+        return AppConfigProvider.getConfig().getAccessLogMaxFiles();
+    }
+
+    /**
+     * @return число запросов прогрева; {@code 0} означает, что прогрев выключен
+     */
+    public static int getWarmupRequests() {
+        return AppConfigProvider.getConfig().getWarmupRequests();
+    }
+
+    public static long getWarmupMaxMillis() {
+        return AppConfigProvider.getConfig().getWarmupMaxMillis();
+    }
+
+    public static boolean isConcurrencyLimiter() {
+        return AppConfigProvider.getConfig().isConcurrencyLimiter();
+    }
+
+    public static int getConcurrencyLimitInitial() {
+        return AppConfigProvider.getConfig().getConcurrencyLimitInitial();
+    }
+
+    public static int getConcurrencyLimitMin() {
+        return AppConfigProvider.getConfig().getConcurrencyLimitMin();
+    }
+
+    public static int getConcurrencyLimitMax() {
+        return AppConfigProvider.getConfig().getConcurrencyLimitMax();
+    }
+
+    public static long getConcurrencyLatencyMillis() {
+        return AppConfigProvider.getConfig().getConcurrencyLatencyMillis();
+    }
+
+    /**
+     * @return допустимая частота запросов одного клиента; {@code 0} означает, что ограничение выключено
+     */
+    public static double getRateLimitPerSecond() {
+        return AppConfigProvider.getConfig().getRateLimitPerSecond();
+    }
+
+    /**
+     * @return размер корзины токенов клиента; по умолчанию равен частоте за секунду
+     */
+    public static int getRateLimitBurst() {
+        AppConfigProvider.AppConfig config = AppConfigProvider.getConfig();
+        return config.getRateLimitBurst() > 0
+                ? config.getRateLimitBurst()
+                : (int) Math.max(1, Math.ceil(config.getRateLimitPerSecond()));
+    }
+
+    public static int getRateLimitMaxClients() {
+        return AppConfigProvider.getConfig().getRateLimitMaxClients();
+    }
+
+    /**
+     * @return заголовок с идентификатором клиента или {@code null}, если клиенты различаются по IP-адресу
+     */
+    public static String getRateLimitKeyHeader() {
+        return AppConfigProvider.getConfig().getRateLimitKeyHeader();
+    }
+
+    public static String getHmacAlg() {
+        return AppConfigProvider.getConfig().getHmacAlg();
+    }
+
+    /**
+     * @return параметры арендаторов по идентификаторам; пустая таблица, если арендаторы не заданы
+     */
+    public static Map<String, TenantConfig> getTenants() {
+        Map<String, TenantConfig> tenants = AppConfigProvider.getConfig().getTenants();
+        return tenants == null ? Map.of() : tenants;
+    }
+
+    public static String getTenantHeader() {
+        return AppConfigProvider.getConfig().getTenantHeader();
+    }
+
+    public static MacEngineType getHmacEngine() {
+        return MacEngineType.valueOf(AppConfigProvider.getConfig().getHmacEngine());
+    }
+
     public static void setConfig(String config, boolean debug) {
         AppConfigProvider.setConfig(config, debug);
     }
 
+    /**
+     * Инициализирует сервис подписи ключом и, если задан файл ключей, загружает набор из него
+     * и запускает наблюдение за файлом.
+     *
+     * @param keysFile файл ключей или {@code null}
+     */
+    public static void initHmacService(HmacService hmacService, String keyId, String secret, String algorithm,
+                                       String keysFile) {
+        hmacService.init(keyId, secret, algorithm);
+        if (keysFile != null) {
+            KeyringFileWatcher watcher = new KeyringFileWatcher(Path.of(keysFile), hmacService.getKeyring());
+            watcher.reload();
+            try {
+                watcher.start();
+            } catch (IOException e) {
+                throw new InvalidConfigurationException("Failed to watch keys file: " + e.getMessage());
+            }
+        }
+    }
+
     private static <T> void postInitializeBean(T bean) {
         if (bean instanceof HmacService hmacService) {
-            hmacService.init(AppConfigProvider.getConfig().getSecret(), AppConfigProvider.getConfig().getHmacAlg());
+            AppConfigProvider.AppConfig config = AppConfigProvider.getConfig();
+            initHmacService(hmacService, config.getKeyId(), config.getSecret(), config.getHmacAlg(),
+                    config.getKeysFile());
         }
     }
 
@@ -122,18 +323,135 @@ public class AppContext {
             if (appConfig.getListenPort() < 0) {
                 throw new InvalidConfigurationException("listenPort cannot be negative");
             }
+            if (appConfig.getTcpListenPort() < -1) {
+                throw new InvalidConfigurationException("tcpListenPort must be -1 (disabled) or a port number");
+            }
+            if (appConfig.getTcpSelectorThreads() < 0) {
+                throw new InvalidConfigurationException("tcpSelectorThreads cannot be negative");
+            }
+            if (Arrays.stream(HttpServerEngine.values()).noneMatch(type -> type.name().equals(appConfig.getHttpServerEngine()))) {
+                throw new InvalidConfigurationException(
+                        "httpServerEngine must be one of " + Arrays.toString(HttpServerEngine.values()));
+            }
+            if (appConfig.getHttpSelectorThreads() < 0) {
+                throw new InvalidConfigurationException("httpSelectorThreads cannot be negative");
+            }
+            if (Arrays.stream(ExecutorType.values()).noneMatch(type -> type.name().equals(appConfig.getExecutorType()))) {
+                throw new InvalidConfigurationException(
+                        "executorType must be one of " + Arrays.toString(ExecutorType.values()));
+            }
+            if (appConfig.getExecutorThreads() < 0) {
+                throw new InvalidConfigurationException("executorThreads cannot be negative");
+            }
+            if (appConfig.getExecutorQueueCapacity() <= 0) {
+                throw new InvalidConfigurationException("executorQueueCapacity must greater than zero");
+            }
+            if (appConfig.getAcceptBacklog() < 0) {
+                throw new InvalidConfigurationException("acceptBacklog cannot be negative");
+            }
+            if (appConfig.getSignatureCacheSize() < 0) {
+                throw new InvalidConfigurationException("signatureCacheSize cannot be negative");
+            }
+            if (appConfig.getSignatureCacheTtlMillis() <= 0) {
+                throw new InvalidConfigurationException("signatureCacheTtlMillis must greater than zero");
+            }
+            if (appConfig.getAccessLogBufferSize() <= 0) {
+                throw new InvalidConfigurationException("accessLogBufferSize must greater than zero");
+            }
+            if (!(appConfig.getAccessLogSampleRate() >= 0 && appConfig.getAccessLogSampleRate() <= 1)) {
+                throw new InvalidConfigurationException("accessLogSampleRate must be between 0 and 1");
+            }
+            if (appConfig.getAccessLogMaxFileBytes() <= 0) {
+                throw new InvalidConfigurationException("accessLogMaxFileBytes must greater than zero");
+            }
+            if (appConfig.getAccessLogMaxFiles() < 0) {
+                throw new InvalidConfigurationException("accessLogMaxFiles cannot be negative");
+            }
+            if (appConfig.getWarmupRequests() < 0) {
+                throw new InvalidConfigurationException("warmupRequests cannot be negative");
+            }
+            if (appConfig.getWarmupMaxMillis() <= 0) {
+                throw new InvalidConfigurationException("warmupMaxMillis must greater than zero");
+            }
+            if (appConfig.getConcurrencyLimitMin() <= 0) {
+                throw new InvalidConfigurationException("concurrencyLimitMin must greater than zero");
+            }
+            if (appConfig.getConcurrencyLimitMax() < appConfig.getConcurrencyLimitMin()) {
+                throw new InvalidConfigurationException("concurrencyLimitMax must not be less than concurrencyLimitMin");
+            }
+            if (appConfig.getConcurrencyLimitInitial() < appConfig.getConcurrencyLimitMin()
+                    || appConfig.getConcurrencyLimitInitial() > appConfig.getConcurrencyLimitMax()) {
+                throw new InvalidConfigurationException(
+                        "concurrencyLimitInitial must be between concurrencyLimitMin and concurrencyLimitMax");
+            }
+            if (appConfig.getConcurrencyLatencyMillis() <= 0) {
+                throw new InvalidConfigurationException("concurrencyLatencyMillis must greater than zero");
+            }
+            if (appConfig.getRateLimitPerSecond() < 0) {
+                throw new InvalidConfigurationException("rateLimitPerSecond cannot be negative");
+            }
+            if (appConfig.getRateLimitBurst() < 0) {
+                throw new InvalidConfigurationException("rateLimitBurst cannot be negative");
+            }
+            if (appConfig.getRateLimitMaxClients() <= 0) {
+                throw new InvalidConfigurationException("rateLimitMaxClients must greater than zero");
+            }
             if (appConfig.getMaxMsgSizeBytes() <= 0) {
                 throw new InvalidConfigurationException("maxMsgSizeBytes must greater than zero");
             }
+            if (appConfig.getMaxBatchSizeBytes() <= 0) {
+                throw new InvalidConfigurationException("maxBatchSizeBytes must greater than zero");
+            }
+            if (appConfig.getMaxBatchItems() <= 0) {
+                throw new InvalidConfigurationException("maxBatchItems must greater than zero");
+            }
+            if (appConfig.getMaxStreamSizeBytes() <= 0) {
+                throw new InvalidConfigurationException("maxStreamSizeBytes must greater than zero");
+            }
             if (appConfig.getHmacAlg() == null || appConfig.getHmacAlg().isBlank()) {
                 throw new InvalidConfigurationException("hmacAlg must not be empty");
             }
+            if (appConfig.getKeyId() == null || appConfig.getKeyId().isEmpty()) {
+                throw new InvalidConfigurationException("keyId must not be empty");
+            }
             if (appConfig.getSecret() == null || appConfig.getSecret().isBlank()) {
                 throw new InvalidConfigurationException("secret must not be empty");
             }
             if (!Codec.isValidBase64(appConfig.getSecret().getBytes())) {
                 throw new InvalidConfigurationException("secret must be a valid base64 encoded string");
             }
+            if (Arrays.stream(MacEngineType.values()).noneMatch(type -> type.name().equals(appConfig.getHmacEngine()))) {
+                throw new InvalidConfigurationException(
+                        "hmacEngine must be one of " + Arrays.toString(MacEngineType.values()));
+            }
+            if (appConfig.getTenantHeader() == null || appConfig.getTenantHeader().isBlank()) {
+                throw new InvalidConfigurationException("tenantHeader must not be empty");
+            }
+            if (appConfig.getTenants() != null) {
+                appConfig.getTenants().forEach(AppConfigProvider::validateTenant);
+            }
+        }
+
+        private static void validateTenant(String id, TenantConfig tenant) {
+            String prefix = "tenants." + id + ".";
+            if (id.isEmpty() || tenant == null) {
+                throw new InvalidConfigurationException("tenant id and settings must not be empty");
+            }
+            if (tenant.getHmacAlg() != null && tenant.getHmacAlg().isBlank()) {
+                throw new InvalidConfigurationException(prefix + "hmacAlg must not be empty");
+            }
+            if (tenant.getKeyId() == null || tenant.getKeyId().isEmpty()) {
+                throw new InvalidConfigurationException(prefix + "keyId must not be empty");
+            }
+            if (tenant.getSecret() == null || tenant.getSecret().isBlank()) {
+                throw new InvalidConfigurationException(prefix + "secret must not be empty");
+            }
+            if (!Codec.isValidBase64(tenant.getSecret().getBytes())) {
+                throw new InvalidConfigurationException(prefix + "secret must be a valid base64 encoded string");
+            }
+            if (tenant.getMaxMsgSizeBytes() < 0) {
+                throw new InvalidConfigurationException(prefix + "maxMsgSizeBytes cannot be negative");
+            }
         }
 
         /**
@@ -144,6 +462,41 @@ public class AppContext {
             private String secret;
             private int listenPort;
             private int maxMsgSizeBytes;
+            private String hmacEngine = MacEngineType.JCE.name();
+            private int maxBatchSizeBytes = 4 * 1024 * 1024;
+            private int maxBatchItems = 10_000;
+            private long maxStreamSizeBytes = 1024L * 1024 * 1024;
+            private int tcpListenPort = -1;
+            private int tcpSelectorThreads;
+            private String httpServerEngine = HttpServerEngine.JDK.name();
+            private int httpSelectorThreads;
+            private boolean httpInlineHandlers;
+            private String executorType = ExecutorType.WORK_STEALING.name();
+            private int executorThreads;
+            private int executorQueueCapacity = 1000;
+            private int acceptBacklog = 1024;
+            private String keyId = "default";
+            private String keysFile;
+            private int signatureCacheSize;
+            private long signatureCacheTtlMillis = 60_000;
+            private String accessLogFile;
+            private int accessLogBufferSize = 64 * 1024;
+            private double accessLogSampleRate = 1;
+            private long accessLogMaxFileBytes = 100L * 1024 * 1024;
+            private int accessLogMaxFiles = 5;
+            private int warmupRequests = 10_000;
+            private long warmupMaxMillis = 30_000;
+            private boolean concurrencyLimiter;
+            private int concurrencyLimitInitial = 32;
+            private int concurrencyLimitMin = 4;
+            private int concurrencyLimitMax = 512;
+            private long concurrencyLatencyMillis = 100;
+            private double rateLimitPerSecond;
+            private int rateLimitBurst;
+            private int rateLimitMaxClients = 100_000;
+            private String rateLimitKeyHeader;
+            private Map<String, TenantConfig> tenants;
+            private String tenantHeader = TenantRegistry.DEFAULT_HEADER;
 
             public String getHmacAlg() {
                 return hmacAlg;
@@ -176,6 +529,286 @@ public class AppContext {
             public void setMaxMsgSizeBytes(int maxMsgSizeBytes) {
                 this.maxMsgSizeBytes = maxMsgSizeBytes;
             }
+
+            public String getHmacEngine() {
+                return hmacEngine;
+            }
+
+            public void setHmacEngine(String hmacEngine) {
+                this.hmacEngine = hmacEngine;
+            }
+
+            public int getMaxBatchSizeBytes() {
+                return maxBatchSizeBytes;
+            }
+
+            public void setMaxBatchSizeBytes(int maxBatchSizeBytes) {
+                this.maxBatchSizeBytes = maxBatchSizeBytes;
+            }
+
+            public int getMaxBatchItems() {
+                return maxBatchItems;
+            }
+
+            public void setMaxBatchItems(int maxBatchItems) {
+                this.maxBatchItems = maxBatchItems;
+            }
+
+            public long getMaxStreamSizeBytes() {
+                return maxStreamSizeBytes;
+            }
+
+            public void setMaxStreamSizeBytes(long maxStreamSizeBytes) {
+                this.maxStreamSizeBytes = maxStreamSizeBytes;
+            }
+
+            public int getTcpListenPort() {
+                return tcpListenPort;
+            }
+
+            public void setTcpListenPort(int tcpListenPort) {
+                this.tcpListenPort = tcpListenPort;
+            }
+
+            public int getTcpSelectorThreads() {
+                return tcpSelectorThreads;
+            }
+
+            public void setTcpSelectorThreads(int tcpSelectorThreads) {
+                this.tcpSelectorThreads = tcpSelectorThreads;
+            }
+
+            public String getHttpServerEngine() {
+                return httpServerEngine;
+            }
+
+            public void setHttpServerEngine(String httpServerEngine) {
+                this.httpServerEngine = httpServerEngine;
+            }
+
+            public int getHttpSelectorThreads() {
+                return httpSelectorThreads;
+            }
+
+            public void setHttpSelectorThreads(int httpSelectorThreads) {
+                this.httpSelectorThreads = httpSelectorThreads;
+            }
+
+            public boolean isHttpInlineHandlers() {
+                return httpInlineHandlers;
+            }
+
+            public void setHttpInlineHandlers(boolean httpInlineHandlers) {
+                this.httpInlineHandlers = httpInlineHandlers;
+            }
+
+            public String getExecutorType() {
+                return executorType;
+            }
+
+            public void setExecutorType(String executorType) {
+                this.executorType = executorType;
+            }
+
+            public int getExecutorThreads() {
+                return executorThreads;
+            }
+
+            public void setExecutorThreads(int executorThreads) {
+                this.executorThreads = executorThreads;
+            }
+
+            public int getExecutorQueueCapacity() {
+                return executorQueueCapacity;
+            }
+
+            public void setExecutorQueueCapacity(int executorQueueCapacity) {
+                this.executorQueueCapacity = executorQueueCapacity;
+            }
+
+            public int getAcceptBacklog() {
+                return acceptBacklog;
+            }
+
+            public void setAcceptBacklog(int acceptBacklog) {
+                this.acceptBacklog = acceptBacklog;
+            }
+
+            public String getKeyId() {
+                return keyId;
+            }
+
+            public void setKeyId(String keyId) {
+                this.keyId = keyId;
+            }
+
+            public String getKeysFile() {
+                return keysFile;
+            }
+
+            public void setKeysFile(String keysFile) {
+                this.keysFile = keysFile;
+            }
+
+            public int getSignatureCacheSize() {
+                return signatureCacheSize;
+            }
+
+            public void setSignatureCacheSize(int signatureCacheSize) {
+                this.signatureCacheSize = signatureCacheSize;
+            }
+
+            public long getSignatureCacheTtlMillis() {
+                return signatureCacheTtlMillis;
+            }
+
+            public void setSignatureCacheTtlMillis(long signatureCacheTtlMillis) {
+                this.signatureCacheTtlMillis = signatureCacheTtlMillis;
+            }
+
+            public String getAccessLogFile() {
+                return accessLogFile;
+            }
+
+            public void setAccessLogFile(String accessLogFile) {
+                this.accessLogFile = accessLogFile;
+            }
+
+            public int getAccessLogBufferSize() {
+                return accessLogBufferSize;
+            }
+
+            public void setAccessLogBufferSize(int accessLogBufferSize) {
+                this.accessLogBufferSize = accessLogBufferSize;
+            }
+
+            public double getAccessLogSampleRate() {
+                return accessLogSampleRate;
+            }
+
+            public void setAccessLogSampleRate(double accessLogSampleRate) {
+                this.accessLogSampleRate = accessLogSampleRate;
+            }
+
+            public long getAccessLogMaxFileBytes() {
+                return accessLogMaxFileBytes;
+            }
+
+            public void setAccessLogMaxFileBytes(long accessLogMaxFileBytes) {
+                this.accessLogMaxFileBytes = accessLogMaxFileBytes;
+            }
+
+            public int getAccessLogMaxFiles() {
+                return accessLogMaxFiles;
+            }
+
+            public void setAccessLogMaxFiles(int accessLogMaxFiles) {
+                this.accessLogMaxFiles = accessLogMaxFiles;
+            }
+
+            public int getWarmupRequests() {
+                return warmupRequests;
+            }
+
+            public void setWarmupRequests(int warmupRequests) {
+                this.warmupRequests = warmupRequests;
+            }
+
+            public long getWarmupMaxMillis() {
+                return warmupMaxMillis;
+            }
+
+            public void setWarmupMaxMillis(long warmupMaxMillis) {
+                this.warmupMaxMillis = warmupMaxMillis;
+            }
+
+            public boolean isConcurrencyLimiter() {
+                return concurrencyLimiter;
+            }
+
+            public void setConcurrencyLimiter(boolean concurrencyLimiter) {
+                this.concurrencyLimiter = concurrencyLimiter;
+            }
+
+            public int getConcurrencyLimitInitial() {
+                return concurrencyLimitInitial;
+            }
+
+            public void setConcurrencyLimitInitial(int concurrencyLimitInitial) {
+                this.concurrencyLimitInitial = concurrencyLimitInitial;
+            }
+
+            public int getConcurrencyLimitMin() {
+                return concurrencyLimitMin;
+            }
+
+            public void setConcurrencyLimitMin(int concurrencyLimitMin) {
+                this.concurrencyLimitMin = concurrencyLimitMin;
+            }
+
+            public int getConcurrencyLimitMax() {
+                return concurrencyLimitMax;
+            }
+
+            public void setConcurrencyLimitMax(int concurrencyLimitMax) {
+                this.concurrencyLimitMax = concurrencyLimitMax;
+            }
+
+            public long getConcurrencyLatencyMillis() {
+                return concurrencyLatencyMillis;
+            }
+
+            public void setConcurrencyLatencyMillis(long concurrencyLatencyMillis) {
+                this.concurrencyLatencyMillis = concurrencyLatencyMillis;
+            }
+
+            public double getRateLimitPerSecond() {
+                return rateLimitPerSecond;
+            }
+
+            public void setRateLimitPerSecond(double rateLimitPerSecond) {
+                this.rateLimitPerSecond = rateLimitPerSecond;
+            }
+
+            public int getRateLimitBurst() {
+                return rateLimitBurst;
+            }
+
+            public void setRateLimitBurst(int rateLimitBurst) {
+                this.rateLimitBurst = rateLimitBurst;
+            }
+
+            public int getRateLimitMaxClients() {
+                return rateLimitMaxClients;
+            }
+
+            public void setRateLimitMaxClients(int rateLimitMaxClients) {
+                this.rateLimitMaxClients = rateLimitMaxClients;
+            }
+
+            public String getRateLimitKeyHeader() {
+                return rateLimitKeyHeader;
+            }
+
+            public void setRateLimitKeyHeader(String rateLimitKeyHeader) {
+                this.rateLimitKeyHeader = rateLimitKeyHeader;
+            }
+
+            public Map<String, TenantConfig> getTenants() {
+                return tenants;
+            }
+
+            public void setTenants(Map<String, TenantConfig> tenants) {
+                this.tenants = tenants;
+            }
+
+            public String getTenantHeader() {
+                return tenantHeader;
+            }
+
+            public void setTenantHeader(String tenantHeader) {
+                this.tenantHeader = tenantHeader;
+            }
         }
     }
 }
@@ -0,0 +1,69 @@
+package ru.yandex.practicum.context.web;
+
+import java.util.Arrays;
+
+/**
+ * Контекст одного HTTP-запроса для передачи промежуточных результатов между этапами обработки.
+ *
+ * <p>Валидатор складывает в контекст то, что он уже разобрал (например, декодированную подпись),
+ * а бизнес-метод обработчика забирает это значение вместо повторного разбора. Значения
+ * адресуются типизированными ключами {@link Key}, объявленными рядом с тем, кто их заполняет.</p>
+ *
+ * <p>Контекст создаётся на каждый запрос и используется одним потоком, поэтому не синхронизирован.
+ * Значения хранятся в небольшом массиве: ключей на запрос единицы, и поиск перебором дешевле хеш-таблицы.</p>
+ */
+public final class RequestContext {
+    private Object[] entries = new Object[4];
+    private int size;
+
+    public <T> void put(Key<T> key, T value) {
+        for (int i = 0; i < size; i += 2) {
+            if (entries[i] == key) {
+                entries[i + 1] = value;
+                return;
+            }
+        }
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size++] = key;
+        entries[size++] = value;
+    }
+
+    /**
+     * @return значение по ключу или {@code null}, если оно не задано
+     */
+    public <T> T get(Key<T> key) {
+        for (int i = 0; i < size; i += 2) {
+            if (entries[i] == key) {
+                return key.type.cast(entries[i + 1]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ключ значения в {@link RequestContext}. Ключи сравниваются по ссылке, поэтому объявляются
+     * как константы.
+     *
+     * @param <T> тип значения
+     */
+    public static final class Key<T> {
+        private final String name;
+        private final Class<T> type;
+
+        private Key(String name, Class<T> type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        public static <T> Key<T> of(String name, Class<T> type) {
+            return new Key<>(name, type);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -2,9 +2,14 @@ package ru.yandex.practicum.context.web;
 
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.accesslog.AccessLog;
 import ru.yandex.practicum.context.app.AppContext;
 import ru.yandex.practicum.model.ApiSettings;
 import ru.yandex.practicum.handler.HandlerWrapper;
+import ru.yandex.practicum.limiter.AdmissionControl;
+import ru.yandex.practicum.limiter.ClientRateLimiter;
+import ru.yandex.practicum.limiter.ConcurrencyLimiter;
+import ru.yandex.practicum.metrics.HttpMetrics;
 
 import java.util.logging.Logger;
 
@@ -13,7 +18,10 @@ import java.util.logging.Logger;
  *
  * <p>Отвечает за настройку контекстов HTTP-сервера на основе перечисления {@link ApiSettings}.
  * Для каждого API-эндпоинта создаётся соответствующий обработчик, оборачиваемый в {@link HandlerWrapper}
- * для дополнительной обработки запросов (например, валидации, логирования и т.п.).</p>
+ * для дополнительной обработки запросов (например, валидации, логирования и т.п.) и учёта
+ * метрик в {@link HttpMetrics} и журнале доступа {@link AccessLog}. Эндпоинты с ограничением нагрузки
+ * получают предел параллельности из {@link AdmissionControl}, а при заданном {@code rateLimitPerSecond}
+ * API-эндпоинты — общее ограничение частоты запросов клиентов {@link ClientRateLimiter}.</p>
  */
 public class WebContext {
     private static final Logger log = Logger.getLogger(WebContext.class.getName());
@@ -21,10 +29,19 @@ public class WebContext {
     private WebContext() {}
 
     public static void init(HttpServer httpServer) {
+        HttpMetrics metrics = AppContext.getBean(HttpMetrics.class);
+        AccessLog accessLog = AppContext.getBean(AccessLog.class);
+        AdmissionControl admissionControl = AppContext.getBean(AdmissionControl.class);
+        ClientRateLimiter rateLimiter = AppContext.getRateLimitPerSecond() > 0
+                ? AppContext.getBean(ClientRateLimiter.class)
+                : null;
         for (ApiSettings settings : ApiSettings.values()) {
             log.info("Initializing handler for path: " + settings.getPath());
             HttpHandler handler = (HttpHandler) AppContext.getBean(settings.getHandlerClass());
-            httpServer.createContext(settings.getPath(), new HandlerWrapper(settings, handler));
+            ConcurrencyLimiter limiter = settings.isLoadShedding() ? admissionControl.forEndpoint(settings.getPath()) : null;
+            httpServer.createContext(settings.getPath(),
+                    new HandlerWrapper(settings, handler, metrics.forEndpoint(settings.getPath()), accessLog, limiter,
+                            settings.isRateLimited() ? rateLimiter : null));
         }
     }
 }
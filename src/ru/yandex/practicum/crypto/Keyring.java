@@ -0,0 +1,172 @@
+package ru.yandex.practicum.crypto;
+
+import ru.yandex.practicum.exception.app.InternalServerException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Набор действующих ключей HMAC с идентификаторами ({@code kid}).
+ *
+ * <p>Новые подписи вычисляются активным ключом, а проверка выбирает ключ по {@code kid} подписи,
+ * поэтому ключи можно добавлять, переключать и выводить из оборота без перезапуска: подписи,
+ * выданные старым ключом, проверяются, пока он не отозван.</p>
+ *
+ * <p>Состояние хранится в неизменяемом снимке, который заменяется целиком при каждом изменении
+ * (copy-on-write). Чтение — одно volatile-чтение и поиск в хеш-таблице, без блокировок.
+ * {@link MacEngine} для ключа строится в потоке, изменяющем набор, а не на пути запроса;
+ * движки неизменившихся ключей переиспользуются.</p>
+ */
+public class Keyring {
+    private final MacEngineType engineType;
+    private final String algorithm;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), null);
+
+    public Keyring(MacEngineType engineType, String algorithm) {
+        this.engineType = engineType;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * @return активный ключ, которым вычисляются новые подписи
+     * @throws InternalServerException если набор пуст
+     */
+    public Key getActive() {
+        Key active = snapshot.active;
+        if (active == null) {
+            throw new InternalServerException("Keyring is empty");
+        }
+        return active;
+    }
+
+    /**
+     * @return ключ с идентификатором {@code kid} или {@code null}, если такого ключа нет
+     */
+    public Key get(String kid) {
+        return snapshot.keys.get(kid);
+    }
+
+    public Set<String> getKeyIds() {
+        return snapshot.keys.keySet();
+    }
+
+    /**
+     * Регистрирует обработчик, вызываемый после каждого изменения набора в изменяющем его потоке.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Добавляет ключ или заменяет ключ с тем же идентификатором. Первый добавленный ключ
+     * становится активным.
+     *
+     * @param kid идентификатор ключа
+     * @param key декодированный секрет
+     */
+    public synchronized void put(String kid, byte[] key) {
+        Map<String, Key> keys = new HashMap<>(snapshot.keys);
+        keys.put(kid, build(kid, key, snapshot.keys.get(kid)));
+        String activeKid = snapshot.active != null ? snapshot.active.id : kid;
+        publish(keys, activeKid);
+    }
+
+    /**
+     * Делает ключ активным для новых подписей.
+     *
+     * @throws IllegalArgumentException если ключа нет в наборе
+     */
+    public synchronized void activate(String kid) {
+        requireKey(snapshot.keys, kid);
+        publish(snapshot.keys, kid);
+    }
+
+    /**
+     * Выводит ключ из оборота: подписи с этим {@code kid} перестают проходить проверку.
+     *
+     * @throws IllegalArgumentException если ключ активен
+     */
+    public synchronized void retire(String kid) {
+        if (snapshot.active != null && snapshot.active.id.equals(kid)) {
+            throw new IllegalArgumentException("Active key cannot be retired: " + kid);
+        }
+        Map<String, Key> keys = new HashMap<>(snapshot.keys);
+        if (keys.remove(kid) != null) {
+            publish(keys, snapshot.active != null ? snapshot.active.id : null);
+        }
+    }
+
+    /**
+     * Заменяет набор целиком. Ключи, которых нет в {@code keys}, отзываются.
+     *
+     * @param keys      декодированные секреты по идентификаторам
+     * @param activeKid идентификатор активного ключа
+     * @throws IllegalArgumentException если активного ключа нет в {@code keys}
+     */
+    public synchronized void replaceAll(Map<String, byte[]> keys, String activeKid) {
+        Map<String, Key> built = new HashMap<>();
+        for (Map.Entry<String, byte[]> entry : keys.entrySet()) {
+            built.put(entry.getKey(), build(entry.getKey(), entry.getValue(), snapshot.keys.get(entry.getKey())));
+        }
+        requireKey(built, activeKid);
+        publish(built, activeKid);
+    }
+
+    private Key build(String kid, byte[] key, Key previous) {
+        if (previous != null && Arrays.equals(previous.secret, key)) {
+            return previous;
+        }
+        return new Key(kid, key.clone(), engineType.create(key, algorithm));
+    }
+
+    private void publish(Map<String, Key> keys, String activeKid) {
+        Map<String, Key> copy = Collections.unmodifiableMap(new HashMap<>(keys));
+        snapshot = new Snapshot(copy, activeKid != null ? copy.get(activeKid) : null);
+        listeners.forEach(Runnable::run);
+    }
+
+    private static void requireKey(Map<String, Key> keys, String kid) {
+        if (!keys.containsKey(kid)) {
+            throw new IllegalArgumentException("Unknown key id: " + kid);
+        }
+    }
+
+    /**
+     * Ключ набора: идентификатор и проинициализированный движок HMAC.
+     */
+    public static final class Key {
+        private final String id;
+        private final byte[] secret;
+        private final MacEngine engine;
+
+        private Key(String id, byte[] secret, MacEngine engine) {
+            this.id = id;
+            this.secret = secret;
+            this.engine = engine;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public MacEngine getEngine() {
+            return engine;
+        }
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Key> keys;
+        private final Key active;
+
+        private Snapshot(Map<String, Key> keys, Key active) {
+            this.keys = keys;
+            this.active = active;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ru.yandex.practicum.crypto;
+
+import ru.yandex.practicum.codec.Codec;
+import ru.yandex.practicum.codec.impl.Base64Codec;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.exception.app.InvalidConfigurationException;
+import ru.yandex.practicum.exception.web.DeserializationException;
+import ru.yandex.practicum.mapper.JsonObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Загружает {@link Keyring} из файла ключей и перечитывает его при изменении.
+ *
+ * <p>Формат файла:</p>
+ * <pre>{@code
+ * {
+ *   "active": "2024-06",
+ *   "keys": {
+ *     "2024-01": "<секрет в Base64>",
+ *     "2024-06": "<секрет в Base64>"
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>Файл задаёт набор целиком: ключи, удалённые из файла, отзываются. Если файл после изменения
+ * некорректен, ошибка пишется в лог, а набор остаётся прежним. Чтобы при записи не прочитать
+ * файл наполовину, новое содержимое лучше записывать во временный файл и переименовывать.</p>
+ */
+public class KeyringFileWatcher {
+    private static final Logger log = Logger.getLogger(KeyringFileWatcher.class.getName());
+
+    private final Path file;
+    private final Keyring keyring;
+    private final Codec codec;
+
+    public KeyringFileWatcher(Path file, Keyring keyring) {
+        this.file = file.toAbsolutePath();
+        this.keyring = keyring;
+        this.codec = AppContext.getBean(Base64Codec.class);
+    }
+
+    /**
+     * Читает файл и заменяет набор ключей.
+     *
+     * @throws InvalidConfigurationException если файл не читается или некорректен
+     */
+    public void reload() {
+        KeysFile keysFile;
+        try {
+            keysFile = JsonObjectMapper.fromJson(Files.readString(file, AppConstants.CHARSET), KeysFile.class);
+        } catch (IOException | DeserializationException e) {
+            throw new InvalidConfigurationException("Failed to read keys file: " + e.getMessage());
+        }
+        if (keysFile == null || keysFile.keys == null || keysFile.keys.isEmpty()) {
+            throw new InvalidConfigurationException("keys file must contain at least one key");
+        }
+        Map<String, byte[]> keys = new HashMap<>();
+        for (Map.Entry<String, String> entry : keysFile.keys.entrySet()) {
+            if (entry.getKey().isEmpty() || entry.getValue() == null || entry.getValue().isEmpty()) {
+                throw new InvalidConfigurationException("key id and secret must not be empty");
+            }
+            try {
+                keys.put(entry.getKey(), codec.decode(entry.getValue().getBytes(AppConstants.CHARSET)));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidConfigurationException("secret of key " + entry.getKey()
+                        + " must be a valid base64 encoded string");
+            }
+        }
+        if (!keys.containsKey(keysFile.active)) {
+            throw new InvalidConfigurationException("active must be one of " + keys.keySet());
+        }
+        keyring.replaceAll(keys, keysFile.active);
+        log.info(String.format("Loaded keys %s, active key: %s", keys.keySet(), keysFile.active));
+    }
+
+    /**
+     * Запускает фоновый поток, перечитывающий файл при каждом его изменении.
+     */
+    public void start() throws IOException {
+        WatchService watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(() -> watch(watchService), "keyring-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= file.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    try {
+                        reload();
+                    } catch (RuntimeException e) {
+                        log.log(Level.WARNING, "Keys file was not applied: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // наблюдение остановлено
+        }
+    }
+
+    /**
+     * Здесь бы подошел record, но GSON 2.8.7 не умеет работать с ним.
+     */
+    private static class KeysFile {
+        private String active;
+        private Map<String, String> keys;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.yandex.practicum.crypto;
+
+/**
+ * Движок вычисления HMAC для одного ключа.
+ *
+ * <p>Движок инициализируется один раз методом {@link #init(byte[], String)}, после чего
+ * потокобезопасен и может использоваться одновременно из любого числа потоков.
+ * Результат записывается в буфер вызывающей стороны, что позволяет обходиться
+ * без промежуточных массивов на горячем пути.</p>
+ */
+public interface MacEngine {
+    /**
+     * Инициализирует движок ключом.
+     *
+     * @param key       декодированный секретный ключ
+     * @param algorithm имя алгоритма HMAC в формате JCE, например {@code HmacSHA256}
+     */
+    void init(byte[] key, String algorithm);
+
+    int getMacLength();
+
+    /**
+     * Вычисляет HMAC для фрагмента массива и записывает его в {@code out}.
+     *
+     * @param message   массив с сообщением
+     * @param offset    смещение начала сообщения
+     * @param length    длина сообщения
+     * @param out       буфер для результата, не меньше {@link #getMacLength()} байт от {@code outOffset}
+     * @param outOffset смещение в буфере результата
+     * @return число записанных байт
+     */
+    int doFinal(byte[] message, int offset, int length, byte[] out, int outOffset);
+
+    /**
+     * Начинает инкрементальное вычисление HMAC для сообщения, поступающего частями.
+     */
+    MacSession newSession();
+
+    default byte[] doFinal(byte[] message) {
+        byte[] mac = new byte[getMacLength()];
+        doFinal(message, 0, message.length, mac, 0);
+        return mac;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.crypto;
+
+import ru.yandex.practicum.crypto.impl.JceMacEngine;
+import ru.yandex.practicum.crypto.impl.PrecomputedHmacEngine;
+
+import java.util.function.Supplier;
+
+/**
+ * Доступные реализации {@link MacEngine}, выбираемые параметром {@code hmacEngine} конфигурации.
+ */
+public enum MacEngineType {
+    /**
+     * Стандартный {@link javax.crypto.Mac} с пулом проинициализированных экземпляров.
+     */
+    JCE(JceMacEngine::new),
+    /**
+     * Собственная реализация HMAC-SHA256/384/512 с заранее вычисленными состояниями ipad/opad.
+     */
+    PRECOMPUTED(PrecomputedHmacEngine::new);
+
+    private final Supplier<MacEngine> factory;
+
+    MacEngineType(Supplier<MacEngine> factory) {
+        this.factory = factory;
+    }
+
+    public MacEngine create(byte[] key, String algorithm) {
+        MacEngine engine = factory.get();
+        engine.init(key, algorithm);
+        return engine;
+    }
+}
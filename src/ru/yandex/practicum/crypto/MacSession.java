@@ -0,0 +1,26 @@
+package ru.yandex.practicum.crypto;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Инкрементальное вычисление HMAC одного сообщения, поступающего частями.
+ *
+ * <p>Сессия получается через {@link MacEngine#newSession()} и принадлежит одному потоку.
+ * После {@link #doFinal(byte[], int)} сессия возвращается движку и больше не используется.
+ * Сессия, брошенная без завершения, просто собирается сборщиком мусора.</p>
+ */
+public interface MacSession {
+    void update(byte[] bytes, int offset, int length);
+
+    /**
+     * Добавляет в сообщение оставшиеся байты буфера, сдвигая его позицию до {@code limit}.
+     */
+    void update(ByteBuffer bytes);
+
+    /**
+     * Завершает вычисление и записывает HMAC в {@code out}.
+     *
+     * @return число записанных байт
+     */
+    int doFinal(byte[] out, int outOffset);
+}
@@ -0,0 +1,265 @@
+package ru.yandex.practicum.crypto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Древовидная подпись больших сообщений (схема {@value #SCHEME}).
+ *
+ * <p>Сообщение делится на фрагменты по {@value #CHUNK_SIZE} байт (последний может быть короче,
+ * пустое сообщение — один пустой фрагмент). Каждый фрагмент подписывается независимо, поэтому
+ * фрагменты обрабатываются параллельно в {@link ForkJoinPool}, а подписи собираются в дерево:</p>
+ * <pre>
+ * leaf(i)    = HMAC(K, 0x00 || u64(i) || chunk(i))
+ * node(l, r) = HMAC(K, 0x01 || l || r)
+ * root       = HMAC(K, 0x02 || u64(длина сообщения) || u32(размер фрагмента) || tree(0, n))
+ * </pre>
+ * <p>где {@code tree(lo, hi)} для одного листа равно самому листу, а иначе — {@code node} левого
+ * поддерева из наибольшей степени двойки листов, меньшей {@code hi - lo}, и правого из остальных
+ * (как в RFC 6962). Форма дерева зависит только от числа фрагментов. Байты-метки разделяют листья,
+ * узлы и корень, номер листа не даёт переставить фрагменты, а длина и размер фрагмента в корне —
+ * обрезать сообщение или сравнить подписи с разным делением.</p>
+ *
+ * <p>Все вызовы HMAC используют один ключ — движок {@link MacEngine} активного ключа сервиса.
+ * Подпись не совпадает с обычным HMAC сообщения и передаётся с префиксом {@value #PREFIX},
+ * по которому проверка выбирает схему.</p>
+ */
+public class TreeMac {
+    public static final String SCHEME = "tmac1";
+    public static final String PREFIX = SCHEME + ".";
+    public static final int CHUNK_SIZE = 1 << 20;
+    private static final int REGION_SIZE = 1 << 30;
+    private static final byte LEAF = 0;
+    private static final byte NODE = 1;
+    private static final byte ROOT = 2;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public TreeMac(ForkJoinPool pool) {
+        this(pool, CHUNK_SIZE);
+    }
+
+    TreeMac(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Подписывает сообщение, читаемое из потока.
+     *
+     * <p>Вызывающий поток читает фрагменты и отдаёт их пулу, не дожидаясь подписи. Буферов
+     * фрагментов не больше, чем потоков пула плюс два: когда все заняты, чтение ждёт освобождения,
+     * поэтому расход памяти не зависит от размера сообщения. Вызывающий поток не должен быть
+     * потоком того же пула. Если чтение потока завершилось ошибкой (например, тело превысило
+     * допустимый размер), ещё не начатые листья отменяются, чтобы пул не подписывал ненужные
+     * фрагменты.</p>
+     *
+     * @param message поток с сообщением; не закрывается
+     * @return корневая подпись
+     * @throws IOException при ошибке чтения потока
+     */
+    public byte[] sign(MacEngine engine, InputStream message) throws IOException {
+        int maxBuffers = pool.getParallelism() + 2;
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(maxBuffers);
+        int allocated = 0;
+        List<ForkJoinTask<byte[]>> leaves = new ArrayList<>();
+        long total = 0;
+        try {
+            while (true) {
+                byte[] buffer = buffers.poll();
+                if (buffer == null && allocated < maxBuffers) {
+                    buffer = new byte[chunkSize];
+                    allocated++;
+                } else if (buffer == null) {
+                    buffer = buffers.take();
+                }
+                int n = message.readNBytes(buffer, 0, chunkSize);
+                if (n == 0 && !leaves.isEmpty()) {
+                    buffers.add(buffer);
+                    break;
+                }
+                byte[] chunk = buffer;
+                long index = leaves.size();
+                leaves.add(pool.submit(() -> {
+                    try {
+                        return leaf(engine, index, chunk, n);
+                    } finally {
+                        buffers.add(chunk);
+                    }
+                }));
+                total += n;
+                if (n < chunkSize) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            cancel(leaves);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a chunk buffer");
+        } catch (IOException | RuntimeException e) {
+            cancel(leaves);
+            throw e;
+        }
+        byte[][] macs = new byte[leaves.size()][];
+        for (int i = 0; i < macs.length; i++) {
+            macs[i] = leaves.get(i).join();
+        }
+        return root(engine, total, combine(engine, macs, 0, macs.length));
+    }
+
+    /**
+     * Подписывает оставшиеся байты буфера, например отображённого в память файла. Позиция буфера
+     * не меняется. Листья и узлы дерева вычисляются задачами пула.
+     *
+     * @return корневая подпись
+     */
+    public byte[] sign(MacEngine engine, ByteBuffer message) {
+        ByteBuffer source = message.duplicate();
+        int base = source.position();
+        int total = source.remaining();
+        return sign(engine, total, index -> {
+            long offset = (long) index * chunkSize;
+            int start = base + (int) offset;
+            return source.duplicate().limit(start + (int) Math.min(chunkSize, total - offset)).position(start);
+        });
+    }
+
+    /**
+     * Подписывает файл целиком, отображая его в память областями по {@value #REGION_SIZE} байт
+     * (отображение одним буфером ограничено 2 ГиБ). Фрагменты передаются в HMAC прямо из
+     * отображённых областей, без копирования в кучу.
+     *
+     * @return корневая подпись
+     * @throws IOException при ошибке отображения файла
+     */
+    public byte[] sign(MacEngine engine, FileChannel file) throws IOException {
+        long total = file.size();
+        int chunksPerRegion = Math.max(1, REGION_SIZE / chunkSize);
+        long regionSize = (long) chunksPerRegion * chunkSize;
+        ByteBuffer[] regions = new ByteBuffer[(int) ((total + regionSize - 1) / regionSize)];
+        for (int i = 0; i < regions.length; i++) {
+            long position = i * regionSize;
+            regions[i] = file.map(FileChannel.MapMode.READ_ONLY, position, Math.min(regionSize, total - position));
+        }
+        return sign(engine, total, index -> {
+            ByteBuffer region = regions[index / chunksPerRegion];
+            int start = index % chunksPerRegion * chunkSize;
+            return region.duplicate().limit(Math.min(start + chunkSize, region.capacity())).position(start);
+        });
+    }
+
+    private byte[] sign(MacEngine engine, long total, Chunks chunks) {
+        int leaves = total == 0 ? 1 : Math.toIntExact((total + chunkSize - 1) / chunkSize);
+        Chunks source = total == 0 ? index -> ByteBuffer.allocate(0) : chunks;
+        byte[] tree = pool.invoke(new Subtree(engine, source, 0, leaves));
+        return root(engine, total, tree);
+    }
+
+    private static void cancel(List<ForkJoinTask<byte[]>> leaves) {
+        for (ForkJoinTask<byte[]> leaf : leaves) {
+            leaf.cancel(false);
+        }
+    }
+
+    private static byte[] leaf(MacEngine engine, long index, byte[] chunk, int length) {
+        MacSession session = engine.newSession();
+        session.update(header(LEAF, index), 0, 9);
+        session.update(chunk, 0, length);
+        return finish(engine, session);
+    }
+
+    private static byte[] combine(MacEngine engine, byte[][] macs, int from, int to) {
+        if (to - from == 1) {
+            return macs[from];
+        }
+        int split = from + Integer.highestOneBit(to - from - 1);
+        return node(engine, combine(engine, macs, from, split), combine(engine, macs, split, to));
+    }
+
+    private static byte[] node(MacEngine engine, byte[] left, byte[] right) {
+        byte[] message = new byte[1 + left.length + right.length];
+        message[0] = NODE;
+        System.arraycopy(left, 0, message, 1, left.length);
+        System.arraycopy(right, 0, message, 1 + left.length, right.length);
+        return engine.doFinal(message);
+    }
+
+    private byte[] root(MacEngine engine, long total, byte[] tree) {
+        byte[] header = header(ROOT, total);
+        MacSession session = engine.newSession();
+        session.update(header, 0, 9);
+        session.update(new byte[]{
+                (byte) (chunkSize >>> 24), (byte) (chunkSize >>> 16), (byte) (chunkSize >>> 8), (byte) chunkSize
+        }, 0, 4);
+        session.update(tree, 0, tree.length);
+        return finish(engine, session);
+    }
+
+    private static byte[] header(byte tag, long value) {
+        byte[] header = new byte[9];
+        header[0] = tag;
+        for (int i = 8; i > 0; i--) {
+            header[i] = (byte) value;
+            value >>>= 8;
+        }
+        return header;
+    }
+
+    private static byte[] finish(MacEngine engine, MacSession session) {
+        byte[] mac = new byte[engine.getMacLength()];
+        session.doFinal(mac, 0);
+        return mac;
+    }
+
+    /**
+     * Фрагмент сообщения по номеру в виде буфера от начала до конца фрагмента.
+     */
+    private interface Chunks {
+        ByteBuffer get(int index);
+    }
+
+    /**
+     * Поддерево над листьями {@code [from, to)}: правая половина вычисляется в текущем
+     * потоке, левая — отдельной задачей.
+     */
+    @SuppressWarnings("serial")
+    private final class Subtree extends RecursiveTask<byte[]> {
+        private final MacEngine engine;
+        private final Chunks chunks;
+        private final int from;
+        private final int to;
+
+        private Subtree(MacEngine engine, Chunks chunks, int from, int to) {
+            this.engine = engine;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected byte[] compute() {
+            if (to - from == 1) {
+                MacSession session = engine.newSession();
+                session.update(header(LEAF, from), 0, 9);
+                session.update(chunks.get(from));
+                return finish(engine, session);
+            }
+            int split = from + Integer.highestOneBit(to - from - 1);
+            Subtree left = new Subtree(engine, chunks, from, split);
+            left.fork();
+            byte[] right = new Subtree(engine, chunks, split, to).compute();
+            return node(engine, left.join(), right);
+        }
+    }
+}
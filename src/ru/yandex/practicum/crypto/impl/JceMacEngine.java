@@ -0,0 +1,113 @@
+package ru.yandex.practicum.crypto.impl;
+
+import ru.yandex.practicum.crypto.MacEngine;
+import ru.yandex.practicum.crypto.MacSession;
+import ru.yandex.practicum.exception.app.InternalServerException;
+import ru.yandex.practicum.util.StripedPool;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Движок HMAC на основе {@link Mac} из JCE.
+ *
+ * <p>При инициализации создаётся прототип {@link Mac}, уже проинициализированный ключом.
+ * Рабочие экземпляры получаются клонированием прототипа, что дешевле повторного
+ * {@link Mac#getInstance(String)} и {@link Mac#init(java.security.Key)}, и переиспользуются
+ * через {@link StripedPool}. Сам прототип наружу не выдаётся и только читается при
+ * клонировании. Если провайдер не поддерживает клонирование, экземпляр создаётся и
+ * инициализируется заново.</p>
+ */
+public class JceMacEngine implements MacEngine {
+    private SecretKeySpec key;
+    private Mac prototype;
+    private StripedPool<Mac> pool;
+
+    @Override
+    public void init(byte[] key, String algorithm) {
+        if (prototype != null) {
+            throw new InternalServerException("MacEngine is already initialized");
+        }
+        this.key = new SecretKeySpec(key, algorithm);
+        this.prototype = createMac(this.key);
+        this.pool = new StripedPool<>(this::newMac);
+    }
+
+    @Override
+    public int getMacLength() {
+        return prototype.getMacLength();
+    }
+
+    @Override
+    public int doFinal(byte[] message, int offset, int length, byte[] out, int outOffset) {
+        Mac mac = pool.borrow();
+        try {
+            mac.update(message, offset, length);
+            mac.doFinal(out, outOffset);
+        } catch (ShortBufferException e) {
+            mac.reset();
+            throw new IllegalArgumentException("Output buffer is too short: " + e.getMessage());
+        }
+        pool.release(mac);
+        return mac.getMacLength();
+    }
+
+    @Override
+    public MacSession newSession() {
+        return new JceMacSession(pool.borrow());
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return createMac(key);
+        }
+    }
+
+    private static Mac createMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(key.getAlgorithm());
+            mac.init(key);
+            return mac;
+        } catch (NoSuchAlgorithmException e) {
+            throw new InternalServerException("HMAC algorithm not found: " + e.getMessage());
+        } catch (InvalidKeyException e) {
+            throw new InternalServerException("Invalid key: " + e.getMessage());
+        }
+    }
+
+    private class JceMacSession implements MacSession {
+        private final Mac mac;
+
+        private JceMacSession(Mac mac) {
+            this.mac = mac;
+        }
+
+        @Override
+        public void update(byte[] bytes, int offset, int length) {
+            mac.update(bytes, offset, length);
+        }
+
+        @Override
+        public void update(ByteBuffer bytes) {
+            mac.update(bytes);
+        }
+
+        @Override
+        public int doFinal(byte[] out, int outOffset) {
+            try {
+                mac.doFinal(out, outOffset);
+            } catch (ShortBufferException e) {
+                mac.reset();
+                throw new IllegalArgumentException("Output buffer is too short: " + e.getMessage());
+            }
+            pool.release(mac);
+            return mac.getMacLength();
+        }
+    }
+}
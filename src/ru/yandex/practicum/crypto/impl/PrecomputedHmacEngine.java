@@ -0,0 +1,130 @@
+package ru.yandex.practicum.crypto.impl;
+
+import ru.yandex.practicum.crypto.MacEngine;
+import ru.yandex.practicum.crypto.MacSession;
+import ru.yandex.practicum.exception.app.InternalServerException;
+import ru.yandex.practicum.util.StripedPool;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Движок HMAC-SHA256/384/512 (RFC 2104) с заранее вычисленными состояниями хэш-функции.
+ *
+ * <p>При инициализации ключ приводится к размеру блока, и состояния внутреннего и внешнего
+ * дайджестов вычисляются после поглощения {@code key XOR ipad} и {@code key XOR opad}.
+ * Для каждого сообщения эти состояния лишь копируются в рабочие объекты из пула, поэтому
+ * короткое сообщение обходится двумя вызовами функции сжатия (плюс блоки самого сообщения)
+ * и не создаёт мусора.</p>
+ */
+public class PrecomputedHmacEngine implements MacEngine {
+    private static final byte IPAD = 0x36;
+    private static final byte OPAD = 0x5c;
+
+    private Sha2Digest innerPrototype;
+    private Sha2Digest outerPrototype;
+    private StripedPool<Session> pool;
+
+    @Override
+    public void init(byte[] key, String algorithm) {
+        if (innerPrototype != null) {
+            throw new InternalServerException("MacEngine is already initialized");
+        }
+        Supplier<Sha2Digest> digestFactory = digestFactory(algorithm);
+        Sha2Digest inner = digestFactory.get();
+        Sha2Digest outer = digestFactory.get();
+
+        byte[] blockKey = new byte[inner.getBlockSize()];
+        if (key.length > blockKey.length) {
+            inner.update(key, 0, key.length);
+            inner.digest(blockKey, 0);
+            inner.reset();
+        } else {
+            System.arraycopy(key, 0, blockKey, 0, key.length);
+        }
+
+        byte[] pad = new byte[blockKey.length];
+        for (int i = 0; i < pad.length; i++) {
+            pad[i] = (byte) (blockKey[i] ^ IPAD);
+        }
+        inner.update(pad, 0, pad.length);
+        for (int i = 0; i < pad.length; i++) {
+            pad[i] = (byte) (blockKey[i] ^ OPAD);
+        }
+        outer.update(pad, 0, pad.length);
+        Arrays.fill(pad, (byte) 0);
+        Arrays.fill(blockKey, (byte) 0);
+
+        this.innerPrototype = inner;
+        this.outerPrototype = outer;
+        this.pool = new StripedPool<>(() -> new Session(digestFactory));
+    }
+
+    @Override
+    public int getMacLength() {
+        return outerPrototype.getDigestLength();
+    }
+
+    @Override
+    public int doFinal(byte[] message, int offset, int length, byte[] out, int outOffset) {
+        MacSession session = newSession();
+        session.update(message, offset, length);
+        return session.doFinal(out, outOffset);
+    }
+
+    @Override
+    public MacSession newSession() {
+        Session session = pool.borrow();
+        session.inner.copyFrom(innerPrototype);
+        return session;
+    }
+
+    private static Supplier<Sha2Digest> digestFactory(String algorithm) {
+        return switch (algorithm.toUpperCase()) {
+            case "HMACSHA256" -> Sha256Digest::new;
+            case "HMACSHA384" -> Sha512Digest::sha384;
+            case "HMACSHA512" -> Sha512Digest::sha512;
+            default -> throw new InternalServerException("HMAC algorithm not supported by precomputed engine: " + algorithm);
+        };
+    }
+
+    /**
+     * Рабочие дайджесты и буфер внутреннего хэша, которыми поток владеет на время вычисления.
+     */
+    private class Session implements MacSession {
+        private final Sha2Digest inner;
+        private final Sha2Digest outer;
+        private final byte[] innerHash;
+
+        private Session(Supplier<Sha2Digest> digestFactory) {
+            this.inner = digestFactory.get();
+            this.outer = digestFactory.get();
+            this.innerHash = new byte[inner.getDigestLength()];
+        }
+
+        @Override
+        public void update(byte[] bytes, int offset, int length) {
+            inner.update(bytes, offset, length);
+        }
+
+        @Override
+        public void update(ByteBuffer bytes) {
+            inner.update(bytes);
+        }
+
+        @Override
+        public int doFinal(byte[] out, int outOffset) {
+            int macLength = outer.getDigestLength();
+            if (out.length - outOffset < macLength) {
+                throw new IllegalArgumentException("Output buffer is too short");
+            }
+            inner.digest(innerHash, 0);
+            outer.copyFrom(outerPrototype);
+            outer.update(innerHash, 0, innerHash.length);
+            outer.digest(out, outOffset);
+            pool.release(this);
+            return macLength;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ru.yandex.practicum.crypto.impl;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Общая часть реализаций SHA-2: буферизация входа по блокам и финальное дополнение.
+ *
+ * <p>В отличие от {@link java.security.MessageDigest}, состояние можно скопировать в уже
+ * существующий объект методом {@link #copyFrom(Sha2Digest)}, поэтому повторное
+ * использование заранее вычисленного состояния не создаёт мусора.</p>
+ *
+ * <p>Класс не потокобезопасен.</p>
+ */
+abstract class Sha2Digest {
+    private final byte[] block;
+    private final int lengthFieldSize;
+    private final int digestLength;
+    private int blockLength;
+    private long byteCount;
+
+    protected Sha2Digest(int blockSize, int digestLength) {
+        this.block = new byte[blockSize];
+        this.lengthFieldSize = blockSize / 8;
+        this.digestLength = digestLength;
+    }
+
+    int getBlockSize() {
+        return block.length;
+    }
+
+    int getDigestLength() {
+        return digestLength;
+    }
+
+    void reset() {
+        blockLength = 0;
+        byteCount = 0;
+        resetState();
+    }
+
+    void copyFrom(Sha2Digest other) {
+        System.arraycopy(other.block, 0, block, 0, other.blockLength);
+        blockLength = other.blockLength;
+        byteCount = other.byteCount;
+        copyState(other);
+    }
+
+    void update(byte[] in, int offset, int length) {
+        byteCount += length;
+        if (blockLength > 0) {
+            int n = Math.min(length, block.length - blockLength);
+            System.arraycopy(in, offset, block, blockLength, n);
+            blockLength += n;
+            offset += n;
+            length -= n;
+            if (blockLength < block.length) {
+                return;
+            }
+            compress(block, 0);
+            blockLength = 0;
+        }
+        while (length >= block.length) {
+            compress(in, offset);
+            offset += block.length;
+            length -= block.length;
+        }
+        System.arraycopy(in, offset, block, 0, length);
+        blockLength = length;
+    }
+
+    void update(ByteBuffer in) {
+        if (in.hasArray()) {
+            update(in.array(), in.arrayOffset() + in.position(), in.remaining());
+            in.position(in.limit());
+            return;
+        }
+        while (in.hasRemaining()) {
+            int n = Math.min(in.remaining(), block.length - blockLength);
+            in.get(block, blockLength, n);
+            blockLength += n;
+            byteCount += n;
+            if (blockLength == block.length) {
+                compress(block, 0);
+                blockLength = 0;
+            }
+        }
+    }
+
+    /**
+     * Завершает вычисление и записывает дайджест в {@code out}. После вызова объект
+     * нужно сбросить или перезаписать через {@link #copyFrom(Sha2Digest)}.
+     */
+    void digest(byte[] out, int offset) {
+        long bitCount = byteCount << 3;
+        block[blockLength++] = (byte) 0x80;
+        if (blockLength > block.length - lengthFieldSize) {
+            fill(blockLength, block.length);
+            compress(block, 0);
+            blockLength = 0;
+        }
+        fill(blockLength, block.length - 8);
+        for (int i = 0; i < 8; i++) {
+            block[block.length - 1 - i] = (byte) (bitCount >>> (8 * i));
+        }
+        if (lengthFieldSize > 8) {
+            block[block.length - 9] = (byte) (byteCount >>> 61);
+        }
+        compress(block, 0);
+        writeState(out, offset, digestLength);
+    }
+
+    private void fill(int from, int to) {
+        for (int i = from; i < to; i++) {
+            block[i] = 0;
+        }
+    }
+
+    protected abstract void resetState();
+
+    protected abstract void copyState(Sha2Digest other);
+
+    protected abstract void compress(byte[] in, int offset);
+
+    protected abstract void writeState(byte[] out, int offset, int length);
+}
@@ -0,0 +1,250 @@
+package ru.yandex.practicum.file;
+
+import ru.yandex.practicum.codec.Codec;
+import ru.yandex.practicum.codec.impl.Base64Codec;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.crypto.Keyring;
+import ru.yandex.practicum.crypto.TreeMac;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Подпись и проверка локальных файлов древовидной схемой {@link TreeMac}.
+ *
+ * <p>Файл отображается в память ({@link FileChannel#map}), и фрагменты передаются в HMAC прямо
+ * из отображённых областей, без копирования в кучу и без ограничения {@code maxMsgSizeBytes}.
+ * Подпись совпадает с подписью {@code POST /sign/stream?scheme=tmac1} того же содержимого
+ * и проверяется эндпоинтом {@code POST /verify/stream}.</p>
+ *
+ * <p>Каталог обходится целиком: файлы подписываются параллельно в {@link ForkJoinPool}, а внутри
+ * большого файла параллельно подписываются его фрагменты, поэтому пул загружен и одним большим
+ * файлом, и множеством маленьких. Результат — манифест, строки которого в порядке путей содержат
+ * подпись, идентификатор ключа и путь относительно подписанного каталога через {@code /}:</p>
+ * <pre>
+ * # hmac-manifest v1
+ * tmac1.… default data/part-0001.bin
+ * </pre>
+ */
+public class FileSigner {
+    public static final String MANIFEST_HEADER = "# hmac-manifest v1";
+
+    private final Keyring keyring;
+    private final ForkJoinPool pool;
+    private final TreeMac treeMac;
+    private final Codec codec;
+
+    public FileSigner() {
+        this(AppContext.getBean(HmacServiceImpl.class).getKeyring(), ForkJoinPool.commonPool());
+    }
+
+    public FileSigner(Keyring keyring, ForkJoinPool pool) {
+        this.keyring = keyring;
+        this.pool = pool;
+        this.treeMac = new TreeMac(pool);
+        this.codec = AppContext.getBean(Base64Codec.class);
+    }
+
+    /**
+     * Подписывает файл активным ключом.
+     *
+     * @return подпись с префиксом {@value TreeMac#PREFIX}
+     */
+    public String sign(Path file) throws IOException {
+        return sign(keyring.getActive(), file);
+    }
+
+    /**
+     * Подписывает файл или все обычные файлы каталога и его подкаталогов активным ключом.
+     * Пути записей отсчитываются от каталога, а для одиночного файла — от его родителя.
+     *
+     * @return записи манифеста в порядке путей
+     */
+    public List<Entry> signAll(Path path) throws IOException {
+        Path base = Files.isDirectory(path) ? path.toAbsolutePath() : path.toAbsolutePath().getParent();
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> walk = Files.walk(path)) {
+                files = walk.filter(Files::isRegularFile).toList();
+            }
+        } else {
+            files = List.of(path);
+        }
+        Keyring.Key key = keyring.getActive();
+        return run(() -> files.parallelStream()
+                .map(file -> new Entry(relativize(base, file), key.getId(), unchecked(() -> sign(key, file))))
+                .sorted(Comparator.comparing(Entry::getPath))
+                .toList());
+    }
+
+    /**
+     * Проверяет записи манифеста относительно каталога {@code base}. Запись с путём вне каталога
+     * не проверяется и получает {@link Status#FAILED}.
+     *
+     * @return результаты в порядке записей
+     */
+    public List<Result> verifyAll(Path base, List<Entry> entries) throws IOException {
+        Path root = base.toAbsolutePath().normalize();
+        return run(() -> entries.parallelStream()
+                .map(entry -> new Result(entry, unchecked(() -> verify(root, entry))))
+                .toList());
+    }
+
+    private Status verify(Path root, Entry entry) throws IOException {
+        Path file = root.resolve(entry.getPath()).normalize();
+        if (!file.startsWith(root)) {
+            return Status.FAILED;
+        }
+        if (!Files.isRegularFile(file)) {
+            return Status.MISSING;
+        }
+        Keyring.Key key = keyring.get(entry.getKid());
+        if (key == null || !entry.getSignature().startsWith(TreeMac.PREFIX)) {
+            return Status.FAILED;
+        }
+        byte[] expected = entry.getSignature().substring(TreeMac.PREFIX.length()).getBytes(AppConstants.CHARSET);
+        if (!codec.isValid(expected, 0, expected.length)) {
+            return Status.FAILED;
+        }
+        byte[] actual;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            actual = treeMac.sign(key.getEngine(), channel);
+        } catch (NoSuchFileException e) {
+            return Status.MISSING;
+        }
+        return MessageDigest.isEqual(codec.decode(expected), actual) ? Status.OK : Status.FAILED;
+    }
+
+    private String sign(Keyring.Key key, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            byte[] root = treeMac.sign(key.getEngine(), channel);
+            return TreeMac.PREFIX + new String(codec.encode(root), AppConstants.CHARSET);
+        }
+    }
+
+    public static void writeManifest(Path manifest, List<Entry> entries) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(manifest, AppConstants.CHARSET)) {
+            writer.write(MANIFEST_HEADER);
+            writer.newLine();
+            for (Entry entry : entries) {
+                writer.write(entry.getSignature() + ' ' + entry.getKid() + ' ' + entry.getPath());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Читает манифест, пропуская пустые строки и комментарии.
+     *
+     * @throws IllegalArgumentException если строка не содержит подписи, ключа и пути
+     */
+    public static List<Entry> readManifest(Path manifest) throws IOException {
+        List<String> lines = Files.readAllLines(manifest, AppConstants.CHARSET);
+        if (lines.isEmpty() || !MANIFEST_HEADER.equals(lines.get(0))) {
+            throw new IllegalArgumentException("Manifest must start with \"" + MANIFEST_HEADER + "\"");
+        }
+        List<Entry> entries = new ArrayList<>(lines.size());
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(" ", 3);
+            if (parts.length < 3 || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("Invalid manifest line " + (i + 1));
+            }
+            entries.add(new Entry(parts[2], parts[1], parts[0]));
+        }
+        return entries;
+    }
+
+    private static String relativize(Path base, Path file) {
+        return base.relativize(file.toAbsolutePath()).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    /**
+     * Выполняет задачу в пуле подписи, чтобы параллельный поток файлов и фрагменты внутри файлов
+     * делили одни и те же потоки.
+     */
+    private <T> T run(IoTask<T> task) throws IOException {
+        try {
+            return pool.submit(() -> unchecked(task)).join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T unchecked(IoTask<T> task) {
+        try {
+            return task.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface IoTask<T> {
+        T run() throws IOException;
+    }
+
+    public enum Status {
+        OK,
+        FAILED,
+        MISSING
+    }
+
+    public static final class Entry {
+        private final String path;
+        private final String kid;
+        private final String signature;
+
+        public Entry(String path, String kid, String signature) {
+            this.path = path;
+            this.kid = kid;
+            this.signature = signature;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+    }
+
+    public static final class Result {
+        private final Entry entry;
+        private final Status status;
+
+        private Result(Entry entry, Status status) {
+            this.entry = entry;
+            this.status = status;
+        }
+
+        public Entry getEntry() {
+            return entry;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+    }
+}
@@ -2,13 +2,24 @@ package ru.yandex.practicum.handler;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import ru.yandex.practicum.accesslog.AccessLog;
+import ru.yandex.practicum.constant.AppConstants;
 import ru.yandex.practicum.exception.app.ServerInstantiationException;
 import ru.yandex.practicum.exception.web.HttpRequestException;
+import ru.yandex.practicum.limiter.ClientRateLimiter;
+import ru.yandex.practicum.limiter.ConcurrencyLimiter;
+import ru.yandex.practicum.limiter.QueueTimeExecutor;
+import ru.yandex.practicum.metrics.EndpointMetrics;
 import ru.yandex.practicum.model.ApiSettings;
+import ru.yandex.practicum.util.CountingInputStream;
+import ru.yandex.practicum.util.StripedPool;
 import ru.yandex.practicum.validator.HttpRequestValidator;
+import ru.yandex.practicum.warmup.Warmup;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -22,45 +33,183 @@ import java.util.logging.Logger;
  * <p>В случае ошибки валидации или обработки запроса отправляется соответствующий
  * HTTP-ответ с кодом состояния и сообщением об ошибке. Соединение всегда закрывается
  * в блоке {@code finally}.</p>
+ *
+ * <p>После закрытия обмена в {@link EndpointMetrics} учитываются код ответа, время обработки
+ * и размер тела запроса. Размер берётся из {@code Content-Length}, а для тел без этого заголовка
+ * (например, {@code Transfer-Encoding: chunked}) считается по прочитанным обработчиком байтам.
+ * Тот же запрос вместе с текстом ошибки передаётся в {@link AccessLog}; синхронно в журнал приложения
+ * пишутся только непредвиденные ошибки с кодом 500.</p>
+ *
+ * <p>До валидации и чтения тела проверяются ограничения нагрузки. Клиент, превысивший частоту
+ * запросов {@link ClientRateLimiter}, получает {@code 429} (запросы прогрева {@link Warmup} этим
+ * ограничением не учитываются), а запрос сверх предела параллельности
+ * {@link ConcurrencyLimiter} эндпоинта или слишком долго ждавший в очереди пула — {@code 503}.
+ * Оба ответа заранее сформированы и содержат заголовок {@code Retry-After}.</p>
+ *
+ * <p>Отказы и ответы об ошибках часто отправляются до того, как тело запроса прочитано. Перед таким
+ * ответом дочитывается не больше {@value #ERROR_DRAIN_BYTES} байт тела, чтобы клиент успел отправить
+ * запрос целиком; если тело длиннее, ответ содержит {@code Connection: close}, и клиент с keep-alive
+ * не отправит следующий запрос в соединение, которое сервер закрывает.</p>
  */
 public class HandlerWrapper implements HttpHandler {
     private static final Logger log = Logger.getLogger(HandlerWrapper.class.getName());
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final String RETRY_AFTER = "Retry-After";
+    private static final String CONNECTION = "Connection";
+    private static final int ERROR_DRAIN_BYTES = 64 * 1024;
+    private static final StripedPool<byte[]> DRAIN_BUFFERS = new StripedPool<>(() -> new byte[8 * 1024]);
+    private static final String OVERLOADED = "Server is overloaded, retry later";
+    private static final String TOO_MANY_REQUESTS = "Too many requests, retry later";
+    private static final byte[] OVERLOADED_BODY = OVERLOADED.getBytes(AppConstants.CHARSET);
+    private static final byte[] TOO_MANY_REQUESTS_BODY = TOO_MANY_REQUESTS.getBytes(AppConstants.CHARSET);
+    private static final String[] RETRY_AFTER_SECONDS = new String[61];
+
+    static {
+        for (int i = 0; i < RETRY_AFTER_SECONDS.length; i++) {
+            RETRY_AFTER_SECONDS[i] = Integer.toString(i);
+        }
+    }
 
     private final ApiSettings apiSettings;
     private final HttpHandler handler;
+    private final EndpointMetrics metrics;
+    private final AccessLog accessLog;
+    private final ConcurrencyLimiter limiter;
+    private final ClientRateLimiter rateLimiter;
 
-    public HandlerWrapper(ApiSettings apiSettings, HttpHandler handler) {
+    /**
+     * @param limiter     предел параллельности эндпоинта или {@code null}, если нагрузка не ограничивается
+     * @param rateLimiter ограничение частоты запросов клиентов или {@code null}
+     */
+    public HandlerWrapper(ApiSettings apiSettings, HttpHandler handler, EndpointMetrics metrics, AccessLog accessLog,
+                          ConcurrencyLimiter limiter, ClientRateLimiter rateLimiter) {
         this.apiSettings = apiSettings;
         this.handler = handler;
+        this.metrics = metrics;
+        this.accessLog = accessLog;
+        this.limiter = limiter;
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
     public void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        long queuedAt = QueueTimeExecutor.getQueuedNanos(start);
+        long retryAfterNanos = rateLimiter == null || Warmup.isWarmupRequest(exchange)
+                ? 0 : rateLimiter.tryAcquire(exchange, start);
+        boolean admitted = retryAfterNanos == 0 && (limiter == null || limiter.tryAcquire(queuedAt, start));
+        long requestBytes = parseContentLength(exchange.getRequestHeaders().getFirst(CONTENT_LENGTH));
+        CountingInputStream countingBody = null;
+        if (requestBytes == -1) {
+            countingBody = new CountingInputStream(exchange.getRequestBody());
+            exchange.setStreams(countingBody, null);
+        }
+        String error = null;
         try {
+            if (retryAfterNanos > 0) {
+                error = TOO_MANY_REQUESTS;
+                reject(exchange, 429, retryAfterNanos, TOO_MANY_REQUESTS_BODY);
+                return;
+            }
+            if (!admitted) {
+                error = OVERLOADED;
+                reject(exchange, 503, 0, OVERLOADED_BODY);
+                return;
+            }
             HttpRequestValidator.checkIsSupportedMethod(apiSettings, exchange.getRequestMethod());
             HttpRequestValidator.checkIsSupportedMediaType(apiSettings, exchange.getRequestHeaders());
             handler.handle(exchange);
 
         } catch (HttpRequestException e) {
-            handleErrorResponse(exchange, e.getCode(), e.getMessage());
+            error = e.getMessage();
+            handleErrorResponse(exchange, e.getCode(), error);
 
         } catch (ServerInstantiationException e) {
             throw e;
 
         } catch (Exception e) {
-            handleErrorResponse(exchange, 500, e.getMessage());
+            error = e.getMessage();
+            log.log(Level.WARNING, "Failed to process request for path: " + apiSettings.getPath(), e);
+            handleErrorResponse(exchange, 500, error);
 
         } finally {
             exchange.close();
+            long end = System.nanoTime();
+            if (admitted && limiter != null) {
+                limiter.release(queuedAt, end);
+            }
+            int status = exchange.getResponseCode() == -1 ? 500 : exchange.getResponseCode();
+            long bytes = countingBody != null ? countingBody.getCount() : requestBytes;
+            long nanos = end - start;
+            metrics.record(status, bytes, nanos);
+            accessLog.record(exchange, status, bytes, nanos, error);
+        }
+    }
+
+    /**
+     * Разбирает значение {@code Content-Length}, не бросая исключений.
+     *
+     * @return длина тела; {@code -1}, если заголовка нет или значение не число
+     */
+    public static long parseContentLength(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
 
+    /**
+     * Отправляет заранее сформированный отказ с {@code Retry-After} не меньше секунды.
+     */
+    private static void reject(HttpExchange exchange, int code, long retryAfterNanos, byte[] body) throws IOException {
+        long seconds = Math.max(1, (retryAfterNanos + 999_999_999) / 1_000_000_000);
+        exchange.getResponseHeaders().set(RETRY_AFTER,
+                RETRY_AFTER_SECONDS[(int) Math.min(seconds, RETRY_AFTER_SECONDS.length - 1)]);
+        drainOrClose(exchange);
+        exchange.sendResponseHeaders(code, body.length);
+        OutputStream os = exchange.getResponseBody();
+        os.write(body);
+        os.flush();
+    }
+
     private void handleErrorResponse(HttpExchange exchange, int code, String message) throws IOException {
-        log.info(message);
         byte[] body = message.getBytes();
+        drainOrClose(exchange);
         OutputStream os = exchange.getResponseBody();
         exchange.sendResponseHeaders(code, body.length);
         os.write(body);
         os.flush();
     }
+
+    /**
+     * Дочитывает не больше {@value #ERROR_DRAIN_BYTES} байт непрочитанного тела, а если оно не
+     * закончилось или чтение не удалось, просит закрыть соединение после ответа.
+     */
+    private static void drainOrClose(HttpExchange exchange) {
+        InputStream body = exchange.getRequestBody();
+        byte[] buffer = DRAIN_BUFFERS.borrow();
+        boolean eof = false;
+        try {
+            long remaining = ERROR_DRAIN_BYTES;
+            while (remaining >= 0) {
+                int n = body.read(buffer, 0, (int) Math.min(buffer.length, remaining + 1));
+                if (n == -1) {
+                    eof = true;
+                    break;
+                }
+                remaining -= n;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.FINE, "Failed to drain request body", e);
+        } finally {
+            DRAIN_BUFFERS.release(buffer);
+        }
+        if (!eof) {
+            exchange.getResponseHeaders().set(CONNECTION, "close");
+        }
+    }
 }
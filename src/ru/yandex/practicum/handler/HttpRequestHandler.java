@@ -4,14 +4,25 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import ru.yandex.practicum.constant.AppConstants;
 import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.context.web.RequestContext;
 import ru.yandex.practicum.exception.app.InternalServerException;
+import ru.yandex.practicum.exception.web.HttpBadRequestException;
+import ru.yandex.practicum.exception.web.HttpUnsupportedMediaTypeException;
 import ru.yandex.practicum.mapper.JsonObjectMapper;
+import ru.yandex.practicum.model.MediaType;
+import ru.yandex.practicum.protocol.FrameBuffer;
+import ru.yandex.practicum.protocol.HmacFrames;
+import ru.yandex.practicum.tenant.Tenant;
+import ru.yandex.practicum.tenant.TenantRegistry;
+import ru.yandex.practicum.util.LimitedInputStream;
 import ru.yandex.practicum.validator.HttpRequestValidator;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -20,11 +31,12 @@ import java.util.logging.Logger;
  * <p>Класс предоставляет шаблонную реализацию метода {@link #handle(HttpExchange)},
  * который выполняет следующие шаги:</p>
  * <ol>
- *   <li>Чтение тела запроса с ограничением по размеру.</li>
- *   <li>Валидацию размера и содержимого тела запроса.</li>
- *   <li>Десериализацию JSON в объект заданного типа.</li>
- *   <li>Вызов бизнес-логики через переданную функцию.</li>
- *   <li>Сериализацию результата в JSON и отправку клиенту.</li>
+ *   <li>Десериализацию JSON в объект заданного типа непосредственно из тела запроса
+ *   с ограничением по размеру: превышение лимита обнаруживается во время чтения.</li>
+ *   <li>Валидацию содержимого тела запроса.</li>
+ *   <li>Вызов бизнес-логики через переданную функцию. Функция может принимать
+ *   {@link RequestContext}, в который валидатор положил уже разобранные поля запроса.</li>
+ *   <li>Сериализацию результата в JSON и отправку клиенту через {@link JsonResponseWriter}.</li>
  * </ol>
  *
  * <p>Класс является параметризованным:</p>
@@ -33,46 +45,108 @@ import java.util.logging.Logger;
  *   <li>{@code O} — тип результата, возвращаемого бизнес-методом.</li>
  * </ul>
  *
+ * <p>Перед чтением тела определяется арендатор запроса ({@link TenantRegistry}): его предельный
+ * размер сообщения ограничивает тело, а сам арендатор передаётся бизнес-методу через
+ * {@link RequestContext} по ключу {@link TenantRegistry#TENANT}.</p>
+ *
+ * <p>Обработчики могут дополнительно поддерживать двоичный формат {@link HmacFrames},
+ * переопределив {@link #handleFrames(InputStream, FrameBuffer, Tenant)}; такие запросы минуют JSON.</p>
+ *
  * <p>Для работы требуется реализовать метод {@link #getLogger()}, чтобы обеспечить
- * логирование операций обработки запроса логгером конкретного класса.</p>
+ * логирование операций обработки запроса логгером конкретного класса. Начало и конец обработки
+ * пишутся на уровне {@code FINE}; по каждому запросу в рабочем режиме пишется только журнал доступа
+ * ({@link ru.yandex.practicum.accesslog.AccessLog}).</p>
  *
  * @param <R> тип входного объекта (DTO), получаемого из тела запроса
  * @param <O> тип результата, возвращаемого бизнес-методом
  */
 public abstract class HttpRequestHandler<R, O> implements HttpHandler {
+    private static final String FRAMES_MEDIA_TYPE = MediaType.APPLICATION_X_HMAC_FRAMES.getValue();
+
     private final HttpRequestValidator<R> validator;
     private final Class<R> clazz;
-    private final Function<R, O> serviceMethod;
+    private final BiFunction<R, RequestContext, O> serviceMethod;
+    private final TenantRegistry tenants;
 
     protected HttpRequestHandler(HttpRequestValidator<R> validator, Class<R> clazz, Function<R, O> serviceMethod) {
+        this(validator, clazz, (dto, context) -> serviceMethod.apply(dto));
+    }
+
+    protected HttpRequestHandler(HttpRequestValidator<R> validator, Class<R> clazz,
+                                 BiFunction<R, RequestContext, O> serviceMethod) {
         this.validator = validator;
         this.clazz = clazz;
         this.serviceMethod = serviceMethod;
+        this.tenants = AppContext.getBean(TenantRegistry.class);
     }
 
     @Override
     public void handle(HttpExchange exchange) {
         try {
-            getLogger().info("Started processing request for path: " + exchange.getRequestURI());
-            InputStream is = exchange.getRequestBody();
-            byte[] requestBody = is.readNBytes(AppContext.getMaxSizeBytes() + 1);
-            HttpRequestValidator.checkSize(requestBody, AppContext.getMaxSizeBytes());
+            if (getLogger().isLoggable(Level.FINE)) {
+                getLogger().fine("Started processing request for path: " + exchange.getRequestURI());
+            }
+            Tenant tenant = tenants.resolve(exchange);
+            if (FRAMES_MEDIA_TYPE.equals(exchange.getRequestHeaders().getFirst(AppConstants.CONTENT_TYPE))) {
+                handleFrames(exchange, tenant);
+                return;
+            }
+            LimitedInputStream is = new LimitedInputStream(exchange.getRequestBody(), getMaxSizeBytes(tenant));
+            R dto = JsonObjectMapper.fromJson(is, clazz);
+            if (is.getCount() == 0) {
+                throw new HttpBadRequestException("Request body is empty");
+            }
+            RequestContext context = new RequestContext();
+            context.put(TenantRegistry.TENANT, tenant);
+            validator.validateBody(dto, context);
 
-            R dto = JsonObjectMapper.fromJson(new String(requestBody, AppConstants.CHARSET), clazz);
-            validator.validateBody(dto);
-
-            String jsonResponse = JsonObjectMapper.toJson(serviceMethod.apply(dto));
-            byte[] bytesResponse = jsonResponse.getBytes(AppConstants.CHARSET);
-            exchange.sendResponseHeaders(200, bytesResponse.length);
-
-            OutputStream os = exchange.getResponseBody();
-            os.write(bytesResponse);
-            os.flush();
-            getLogger().info("Finished processing request for path: " + exchange.getRequestURI());
+            JsonResponseWriter.write(exchange, 200, serviceMethod.apply(dto, context));
+            logFinished(exchange);
         } catch (IOException e) {
             throw new InternalServerException("Exception during http exchange: " + e.getMessage());
         }
     }
 
+    /**
+     * Обрабатывает тело в двоичном формате {@link HmacFrames}. Ответ формируется целиком
+     * в памяти, чтобы ошибка в любом кадре приводила к ответу с кодом ошибки.
+     */
+    private void handleFrames(HttpExchange exchange, Tenant tenant) throws IOException {
+        LimitedInputStream is = new LimitedInputStream(exchange.getRequestBody(), AppContext.getMaxBatchSizeBytes());
+        FrameBuffer out = new FrameBuffer(256);
+        handleFrames(is, out, tenant);
+        if (is.getCount() == 0) {
+            throw new HttpBadRequestException("Request body is empty");
+        }
+        exchange.getResponseHeaders().set(AppConstants.CONTENT_TYPE, FRAMES_MEDIA_TYPE);
+        exchange.sendResponseHeaders(200, out.size());
+        OutputStream os = exchange.getResponseBody();
+        os.write(out.array(), 0, out.size());
+        os.flush();
+        logFinished(exchange);
+    }
+
+    private void logFinished(HttpExchange exchange) {
+        if (getLogger().isLoggable(Level.FINE)) {
+            getLogger().fine("Finished processing request for path: " + exchange.getRequestURI());
+        }
+    }
+
+    /**
+     * Обрабатывает кадры {@link HmacFrames} из тела запроса и записывает кадры ответа
+     * сервисом арендатора. Обработчики, поддерживающие двоичный формат, переопределяют этот метод.
+     */
+    protected void handleFrames(InputStream body, FrameBuffer out, Tenant tenant) throws IOException {
+        throw new HttpUnsupportedMediaTypeException("Endpoint does not support " + FRAMES_MEDIA_TYPE);
+    }
+
+    /**
+     * Максимальный допустимый размер тела запроса. По умолчанию это предельный размер сообщения
+     * арендатора ({@code maxMsgSizeBytes}); обработчики с собственным лимитом переопределяют метод.
+     */
+    protected int getMaxSizeBytes(Tenant tenant) {
+        return tenant.getMaxMsgSizeBytes();
+    }
+
     protected abstract Logger getLogger();
 }
@@ -0,0 +1,38 @@
+package ru.yandex.practicum.handler;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.mapper.JsonObjectMapper;
+import ru.yandex.practicum.mapper.JsonOutput;
+import ru.yandex.practicum.util.StripedPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Отправка JSON-ответов через переиспользуемые буферы.
+ *
+ * <p>Объект ответа сериализуется в {@link JsonOutput} из пула и записывается в поток ответа
+ * одним вызовом. Буферы, выросшие больше {@value #MAX_POOLED_CAPACITY} байт (например, для
+ * больших пакетных ответов), в пул не возвращаются, чтобы не удерживать память.</p>
+ */
+public class JsonResponseWriter {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+    private static final StripedPool<JsonOutput> BUFFERS = new StripedPool<>(() -> new JsonOutput(INITIAL_CAPACITY));
+
+    private JsonResponseWriter() {}
+
+    public static void write(HttpExchange exchange, int code, Object response) throws IOException {
+        JsonOutput out = BUFFERS.borrow();
+        out.reset();
+        JsonObjectMapper.writeJson(response, out);
+
+        exchange.sendResponseHeaders(code, out.size());
+        OutputStream os = exchange.getResponseBody();
+        os.write(out.array(), 0, out.size());
+        os.flush();
+        if (out.capacity() <= MAX_POOLED_CAPACITY) {
+            BUFFERS.release(out);
+        }
+    }
+}
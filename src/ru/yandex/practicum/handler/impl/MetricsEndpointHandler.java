@@ -0,0 +1,73 @@
+package ru.yandex.practicum.handler.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import ru.yandex.practicum.accesslog.AccessLog;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.limiter.AdmissionControl;
+import ru.yandex.practicum.limiter.ClientRateLimiter;
+import ru.yandex.practicum.metrics.HttpMetrics;
+import ru.yandex.practicum.metrics.PrometheusTextWriter;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+import ru.yandex.practicum.util.BoundedCache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Обработчик {@code GET /metrics}: выгружает метрики HTTP-эндпоинтов, их пределов параллельности и,
+ * если они включены, ограничения частоты запросов, кэша подписей и журнала доступа в текстовом
+ * формате Prometheus.
+ */
+public class MetricsEndpointHandler implements HttpHandler {
+    private final HttpMetrics httpMetrics;
+    private final HmacServiceImpl hmacService;
+    private final AccessLog accessLog;
+    private final AdmissionControl admissionControl;
+
+    public MetricsEndpointHandler() {
+        this.httpMetrics = AppContext.getBean(HttpMetrics.class);
+        this.hmacService = AppContext.getBean(HmacServiceImpl.class);
+        this.accessLog = AppContext.getBean(AccessLog.class);
+        this.admissionControl = AppContext.getBean(AdmissionControl.class);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        StringBuilder text = new StringBuilder(4096);
+        PrometheusTextWriter out = new PrometheusTextWriter(text);
+        httpMetrics.writeTo(out);
+        admissionControl.writeTo(out);
+        if (AppContext.getRateLimitPerSecond() > 0) {
+            AppContext.getBean(ClientRateLimiter.class).writeTo(out);
+        }
+        BoundedCache<?, String> cache = hmacService.getSignatureCache();
+        if (cache != null) {
+            writeSignatureCache(out, cache);
+        }
+        if (accessLog.isEnabled()) {
+            out.family("hmac_access_log_events_total", "counter", "Access log events by result.");
+            out.sample("hmac_access_log_events_total", accessLog.getWritten(), "result", "written");
+            out.sample("hmac_access_log_events_total", accessLog.getDropped(), "result", "dropped");
+        }
+
+        byte[] body = text.toString().getBytes(AppConstants.CHARSET);
+        exchange.getResponseHeaders().set(AppConstants.CONTENT_TYPE, PrometheusTextWriter.CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream os = exchange.getResponseBody();
+        os.write(body);
+        os.flush();
+    }
+
+    private static void writeSignatureCache(PrometheusTextWriter out, BoundedCache<?, String> cache) {
+        out.family("hmac_signature_cache_requests_total", "counter", "Signature cache lookups by result.");
+        out.sample("hmac_signature_cache_requests_total", cache.getHits(), "result", "hit");
+        out.sample("hmac_signature_cache_requests_total", cache.getMisses(), "result", "miss");
+        out.sample("hmac_signature_cache_requests_total", cache.getCoalesced(), "result", "coalesced");
+        out.family("hmac_signature_cache_evictions_total", "counter", "Signature cache evictions.");
+        out.sample("hmac_signature_cache_evictions_total", cache.getEvictions());
+        out.family("hmac_signature_cache_entries", "gauge", "Signature cache entries.");
+        out.sample("hmac_signature_cache_entries", cache.size());
+    }
+}
@@ -0,0 +1,36 @@
+package ru.yandex.practicum.handler.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.warmup.Readiness;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Обработчик {@code GET /ready}: {@code 200}, если прогрев завершён и сервер готов принимать трафик,
+ * иначе {@code 503}.
+ */
+public class ReadyEndpointHandler implements HttpHandler {
+    private static final byte[] READY = "ready\n".getBytes(AppConstants.CHARSET);
+    private static final byte[] NOT_READY = "warming up\n".getBytes(AppConstants.CHARSET);
+
+    private final Readiness readiness;
+
+    public ReadyEndpointHandler() {
+        this.readiness = AppContext.getBean(Readiness.class);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        boolean ready = readiness.isReady();
+        byte[] body = ready ? READY : NOT_READY;
+        exchange.getResponseHeaders().set(AppConstants.CONTENT_TYPE, "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(ready ? 200 : 503, body.length);
+        OutputStream os = exchange.getResponseBody();
+        os.write(body);
+        os.flush();
+    }
+}
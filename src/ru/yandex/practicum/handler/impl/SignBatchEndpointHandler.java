@@ -0,0 +1,29 @@
+package ru.yandex.practicum.handler.impl;
+
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.handler.HttpRequestHandler;
+import ru.yandex.practicum.schema.SignBatchResponseDto;
+import ru.yandex.practicum.tenant.Tenant;
+import ru.yandex.practicum.tenant.TenantRegistry;
+import ru.yandex.practicum.validator.impl.SignBatchEndpointValidator;
+
+import java.util.logging.Logger;
+
+public class SignBatchEndpointHandler extends HttpRequestHandler<String[], SignBatchResponseDto> {
+    private static final Logger log = Logger.getLogger(SignBatchEndpointHandler.class.getName());
+
+    public SignBatchEndpointHandler() {
+        super(AppContext.getBean(SignBatchEndpointValidator.class), String[].class,
+                (messages, context) -> context.get(TenantRegistry.TENANT).getHmacService().signBatch(messages));
+    }
+
+    @Override
+    protected int getMaxSizeBytes(Tenant tenant) {
+        return AppContext.getMaxBatchSizeBytes();
+    }
+
+    @Override
+    protected Logger getLogger() {
+        return log;
+    }
+}
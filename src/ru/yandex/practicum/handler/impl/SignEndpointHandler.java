@@ -2,11 +2,17 @@ package ru.yandex.practicum.handler.impl;
 
 import ru.yandex.practicum.context.app.AppContext;
 import ru.yandex.practicum.handler.HttpRequestHandler;
+import ru.yandex.practicum.protocol.FrameBuffer;
+import ru.yandex.practicum.protocol.HmacFrames;
 import ru.yandex.practicum.schema.SignRequestDto;
 import ru.yandex.practicum.schema.SignResponseDto;
-import ru.yandex.practicum.service.impl.HmacServiceImpl;
+import ru.yandex.practicum.service.HmacService;
+import ru.yandex.practicum.tenant.Tenant;
+import ru.yandex.practicum.tenant.TenantRegistry;
 import ru.yandex.practicum.validator.impl.SignEndpointValidator;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.logging.Logger;
 
 public class SignEndpointHandler extends HttpRequestHandler<SignRequestDto, SignResponseDto> {
@@ -14,7 +20,23 @@ public class SignEndpointHandler extends HttpRequestHandler<SignRequestDto, Sign
 
     public SignEndpointHandler() {
         super(AppContext.getBean(SignEndpointValidator.class), SignRequestDto.class,
-                AppContext.getBean(HmacServiceImpl.class)::sign);
+                (request, context) -> context.get(TenantRegistry.TENANT).getHmacService().sign(request));
+    }
+
+    @Override
+    protected void handleFrames(InputStream body, FrameBuffer out, Tenant tenant) throws IOException {
+        HmacService hmacService = tenant.getHmacService();
+        int maxSizeBytes = tenant.getMaxMsgSizeBytes();
+        byte[] message = new byte[256];
+        byte[] mac = new byte[hmacService.getMacLength()];
+        int count = 0;
+        int length;
+        while ((length = HmacFrames.readLength(body, maxSizeBytes)) != -1) {
+            HmacFrames.checkFrameCount(++count, AppContext.getMaxBatchItems());
+            message = HmacFrames.readPayload(body, message, length);
+            int macLength = hmacService.sign(message, 0, length, mac, 0);
+            out.writeFrame(mac, 0, macLength);
+        }
     }
 
     @Override
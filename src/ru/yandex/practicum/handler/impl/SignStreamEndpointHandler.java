@@ -0,0 +1,110 @@
+package ru.yandex.practicum.handler.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.crypto.TreeMac;
+import ru.yandex.practicum.exception.web.HttpBadRequestException;
+import ru.yandex.practicum.exception.web.HttpPayloadTooLarge;
+import ru.yandex.practicum.handler.HandlerWrapper;
+import ru.yandex.practicum.handler.JsonResponseWriter;
+import ru.yandex.practicum.schema.SignResponseDto;
+import ru.yandex.practicum.service.HmacService;
+import ru.yandex.practicum.tenant.TenantRegistry;
+import ru.yandex.practicum.util.LimitedInputStream;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Обработчик потоковой подписи произвольного двоичного тела запроса.
+ *
+ * <p>В отличие от {@link ru.yandex.practicum.handler.HttpRequestHandler}, тело не буферизуется и не
+ * разбирается как JSON: оно передаётся в HMAC по мере чтения, поэтому память на запрос постоянна.
+ * Тело может передаваться как с {@code Content-Length}, так и с {@code Transfer-Encoding: chunked}.
+ * Размер ограничен параметром {@code maxStreamSizeBytes} конфигурации. Подпись вычисляется
+ * ключом арендатора запроса ({@link TenantRegistry}).</p>
+ *
+ * <p>Параметр запроса {@code scheme=tmac1} выбирает древовидную подпись {@link TreeMac}: фрагменты
+ * тела подписываются параллельно, что ускоряет подпись многогигабайтных сообщений. Без параметра
+ * или с {@code scheme=hmac} вычисляется обычный HMAC тела.</p>
+ */
+public class SignStreamEndpointHandler implements HttpHandler {
+    private static final Logger log = Logger.getLogger(SignStreamEndpointHandler.class.getName());
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final String SCHEME_PARAM = "scheme=";
+    private static final String HMAC_SCHEME = "hmac";
+
+    private final TenantRegistry tenants;
+
+    public SignStreamEndpointHandler() {
+        this.tenants = AppContext.getBean(TenantRegistry.class);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Started processing request for path: " + exchange.getRequestURI());
+        }
+        HmacService hmacService = tenants.resolve(exchange).getHmacService();
+        boolean tree = isTreeScheme(exchange.getRequestURI().getRawQuery());
+        if (getContentLength(exchange) == 0) {
+            throw new HttpBadRequestException("Request body is empty");
+        }
+        LimitedInputStream body = openBody(exchange);
+        SignResponseDto response = tree ? hmacService.signTree(body) : hmacService.signStream(body);
+        if (body.getCount() == 0) {
+            throw new HttpBadRequestException("Request body is empty");
+        }
+        JsonResponseWriter.write(exchange, 200, response);
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Finished processing request for path: " + exchange.getRequestURI());
+        }
+    }
+
+    /**
+     * Проверяет заявленный размер тела и ограничивает чтение параметром {@code maxStreamSizeBytes}.
+     */
+    static LimitedInputStream openBody(HttpExchange exchange) {
+        long maxSizeBytes = AppContext.getMaxStreamSizeBytes();
+        if (getContentLength(exchange) > maxSizeBytes) {
+            throw new HttpPayloadTooLarge(String.format("Request body size exceeds max %d bytes", maxSizeBytes));
+        }
+        return new LimitedInputStream(exchange.getRequestBody(), maxSizeBytes);
+    }
+
+    /**
+     * @return заявленная длина тела; {@code -1}, если {@code Content-Length} не передан
+     * @throws HttpBadRequestException если значение {@code Content-Length} не является неотрицательным числом
+     */
+    private static long getContentLength(HttpExchange exchange) {
+        String contentLength = exchange.getRequestHeaders().getFirst(CONTENT_LENGTH);
+        if (contentLength == null) {
+            return -1;
+        }
+        long length = HandlerWrapper.parseContentLength(contentLength);
+        if (length < 0) {
+            throw new HttpBadRequestException("Invalid Content-Length: " + contentLength);
+        }
+        return length;
+    }
+
+    private static boolean isTreeScheme(String query) {
+        if (query == null) {
+            return false;
+        }
+        for (String param : query.split("&")) {
+            if (param.startsWith(SCHEME_PARAM)) {
+                String scheme = param.substring(SCHEME_PARAM.length());
+                if (TreeMac.SCHEME.equals(scheme)) {
+                    return true;
+                }
+                if (!HMAC_SCHEME.equals(scheme)) {
+                    throw new HttpBadRequestException("Unknown signature scheme: " + scheme);
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.handler.impl;
+
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.handler.HttpRequestHandler;
+import ru.yandex.practicum.schema.VerifyBatchResponseDto;
+import ru.yandex.practicum.schema.VerifyRequestDto;
+import ru.yandex.practicum.tenant.Tenant;
+import ru.yandex.practicum.tenant.TenantRegistry;
+import ru.yandex.practicum.validator.impl.VerifyBatchEndpointValidator;
+
+import java.util.logging.Logger;
+
+public class VerifyBatchEndpointHandler extends HttpRequestHandler<VerifyRequestDto[], VerifyBatchResponseDto> {
+    private static final Logger log = Logger.getLogger(VerifyBatchEndpointHandler.class.getName());
+
+    public VerifyBatchEndpointHandler() {
+        super(AppContext.getBean(VerifyBatchEndpointValidator.class), VerifyRequestDto[].class,
+                (requests, context) -> context.get(TenantRegistry.TENANT).getHmacService().verifyBatch(requests,
+                        context.get(VerifyBatchEndpointValidator.SIGNATURES),
+                        context.get(VerifyBatchEndpointValidator.ERRORS)));
+    }
+
+    @Override
+    protected int getMaxSizeBytes(Tenant tenant) {
+        return AppContext.getMaxBatchSizeBytes();
+    }
+
+    @Override
+    protected Logger getLogger() {
+        return log;
+    }
+}
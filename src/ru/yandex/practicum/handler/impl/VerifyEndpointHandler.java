@@ -1,12 +1,19 @@
 package ru.yandex.practicum.handler.impl;
 
 import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.exception.web.HttpBadRequestException;
 import ru.yandex.practicum.handler.HttpRequestHandler;
+import ru.yandex.practicum.protocol.FrameBuffer;
+import ru.yandex.practicum.protocol.HmacFrames;
 import ru.yandex.practicum.schema.VerifyRequestDto;
 import ru.yandex.practicum.schema.VerifyResponseDto;
-import ru.yandex.practicum.service.impl.HmacServiceImpl;
+import ru.yandex.practicum.service.HmacService;
+import ru.yandex.practicum.tenant.Tenant;
+import ru.yandex.practicum.tenant.TenantRegistry;
 import ru.yandex.practicum.validator.impl.VerifyEndpointValidator;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.logging.Logger;
 
 public class VerifyEndpointHandler extends HttpRequestHandler<VerifyRequestDto, VerifyResponseDto> {
@@ -14,7 +21,29 @@ public class VerifyEndpointHandler extends HttpRequestHandler<VerifyRequestDto,
 
     public VerifyEndpointHandler() {
         super(AppContext.getBean(VerifyEndpointValidator.class), VerifyRequestDto.class,
-                AppContext.getBean(HmacServiceImpl.class)::verify);
+                (request, context) -> context.get(TenantRegistry.TENANT).getHmacService()
+                        .verify(request, context.get(VerifyEndpointValidator.SIGNATURE)));
+    }
+
+    @Override
+    protected void handleFrames(InputStream body, FrameBuffer out, Tenant tenant) throws IOException {
+        HmacService hmacService = tenant.getHmacService();
+        int maxSizeBytes = tenant.getMaxMsgSizeBytes();
+        byte[] message = new byte[256];
+        byte[] mac = new byte[hmacService.getMacLength()];
+        int count = 0;
+        int length;
+        while ((length = HmacFrames.readLength(body, maxSizeBytes)) != -1) {
+            HmacFrames.checkFrameCount(++count, AppContext.getMaxBatchItems());
+            message = HmacFrames.readPayload(body, message, length);
+            int macLength = HmacFrames.readLength(body, maxSizeBytes);
+            if (macLength == -1) {
+                throw new HttpBadRequestException("signature frame is missing");
+            }
+            mac = HmacFrames.readPayload(body, mac, macLength);
+            boolean valid = hmacService.verify(message, 0, length, mac, 0, macLength);
+            out.writeByte(valid ? HmacFrames.VALID : HmacFrames.INVALID);
+        }
     }
 
     @Override
@@ -0,0 +1,55 @@
+package ru.yandex.practicum.handler.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.exception.web.HttpBadRequestException;
+import ru.yandex.practicum.handler.JsonResponseWriter;
+import ru.yandex.practicum.schema.VerifyResponseDto;
+import ru.yandex.practicum.service.HmacService;
+import ru.yandex.practicum.tenant.TenantRegistry;
+import ru.yandex.practicum.util.LimitedInputStream;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Обработчик потоковой проверки подписи произвольного двоичного тела запроса.
+ *
+ * <p>Тело читается так же, как в {@link SignStreamEndpointHandler}, а подпись передаётся заголовком
+ * {@value #SIGNATURE_HEADER}, идентификатор ключа — необязательным заголовком {@value #KEY_ID_HEADER}.
+ * Подпись с префиксом {@code tmac1.} проверяется по древовидной схеме
+ * {@link ru.yandex.practicum.crypto.TreeMac}, без префикса — как обычный HMAC тела.</p>
+ */
+public class VerifyStreamEndpointHandler implements HttpHandler {
+    public static final String SIGNATURE_HEADER = "X-Signature";
+    public static final String KEY_ID_HEADER = "X-Key-Id";
+    private static final Logger log = Logger.getLogger(VerifyStreamEndpointHandler.class.getName());
+
+    private final TenantRegistry tenants;
+
+    public VerifyStreamEndpointHandler() {
+        this.tenants = AppContext.getBean(TenantRegistry.class);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Started processing request for path: " + exchange.getRequestURI());
+        }
+        HmacService hmacService = tenants.resolve(exchange).getHmacService();
+        String signature = exchange.getRequestHeaders().getFirst(SIGNATURE_HEADER);
+        if (signature == null || signature.isEmpty()) {
+            throw new HttpBadRequestException("Header " + SIGNATURE_HEADER + " is required");
+        }
+        String kid = exchange.getRequestHeaders().getFirst(KEY_ID_HEADER);
+
+        LimitedInputStream body = SignStreamEndpointHandler.openBody(exchange);
+        VerifyResponseDto response = hmacService.verifyStream(body, signature, kid);
+        JsonResponseWriter.write(exchange, 200, response);
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("Finished processing request for path: " + exchange.getRequestURI());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.yandex.practicum.limiter;
+
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.metrics.PrometheusTextWriter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Реестр пределов параллельности HTTP-эндпоинтов.
+ *
+ * <p>У каждого эндпоинта с ограничением нагрузки свой {@link ConcurrencyLimiter}: время ответа
+ * {@code /sign} и пакетных запросов различается на порядки, и общий предел подстраивался бы
+ * под самые медленные из них. Пределы создаются при регистрации обработчиков
+ * ({@link ru.yandex.practicum.context.web.WebContext}) и выгружаются эндпоинтом
+ * {@code GET /metrics}.</p>
+ */
+public class AdmissionControl {
+    private final Map<String, ConcurrencyLimiter> limiters = new ConcurrentSkipListMap<>();
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyNanos;
+
+    public AdmissionControl() {
+        this(AppContext.isConcurrencyLimiter(), AppContext.getConcurrencyLimitInitial(),
+                AppContext.getConcurrencyLimitMin(), AppContext.getConcurrencyLimitMax(),
+                TimeUnit.MILLISECONDS.toNanos(AppContext.getConcurrencyLatencyMillis()));
+    }
+
+    public AdmissionControl(boolean enabled, int initialLimit, int minLimit, int maxLimit, long latencyNanos) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyNanos = latencyNanos;
+    }
+
+    /**
+     * @return предел эндпоинта с данным путём или {@code null}, если ограничение выключено
+     */
+    public ConcurrencyLimiter forEndpoint(String path) {
+        if (!enabled) {
+            return null;
+        }
+        return limiters.computeIfAbsent(path,
+                key -> new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyNanos));
+    }
+
+    public void writeTo(PrometheusTextWriter out) {
+        if (limiters.isEmpty()) {
+            return;
+        }
+        out.family("hmac_concurrency_limit", "gauge", "Adaptive concurrency limit.");
+        limiters.forEach((path, limiter) -> out.sample("hmac_concurrency_limit", limiter.getLimit(), "path", path));
+        out.family("hmac_concurrency_in_flight", "gauge", "Requests being processed.");
+        limiters.forEach((path, limiter) -> out.sample("hmac_concurrency_in_flight", limiter.getInFlight(),
+                "path", path));
+        out.family("hmac_concurrency_rejected_total", "counter", "Requests rejected with 503 by reason.");
+        limiters.forEach((path, limiter) -> {
+            out.sample("hmac_concurrency_rejected_total", limiter.getRejectedByLimit(), "path", path, "reason", "limit");
+            out.sample("hmac_concurrency_rejected_total", limiter.getRejectedByQueue(), "path", path, "reason", "queue");
+        });
+    }
+}
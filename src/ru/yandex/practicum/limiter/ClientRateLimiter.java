@@ -0,0 +1,173 @@
+package ru.yandex.practicum.limiter;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.metrics.PrometheusTextWriter;
+
+import java.net.InetSocketAddress;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничение частоты запросов каждого клиента корзиной токенов.
+ *
+ * <p>Клиент определяется значением заголовка {@code rateLimitKeyHeader} (например, ключа API),
+ * а без него — IP-адресом. Корзина хранится как одно число — теоретическое время прибытия
+ * следующего запроса (алгоритм GCRA, эквивалентный корзине токенов): каждый запрос сдвигает его
+ * на интервал {@code 1 / rateLimitPerSecond}, и запрос допускается, пока оно опережает текущее
+ * время не больше чем на {@code rateLimitBurst} интервалов.</p>
+ *
+ * <p>Корзины разложены по {@value #STRIPES} полосам по хешу клиента, у каждой полосы своя
+ * блокировка и своя таблица в порядке доступа, так что клиенты из разных полос не мешают друг
+ * другу. Корзина, время которой уже прошло, полна и неотличима от новой, поэтому такие записи
+ * удаляются из начала таблицы при каждом добавлении клиента без потери информации. Если полоса
+ * всё равно заполнена ({@code rateLimitMaxClients} на все полосы), удаляется самая давняя запись —
+ * её клиент получит полную корзину. Так память ограничена при любом числе различных клиентов.</p>
+ */
+public class ClientRateLimiter {
+    static final int STRIPES = 64;
+    private static final Object UNKNOWN_CLIENT = new Object();
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final String keyHeader;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public ClientRateLimiter() {
+        this(AppContext.getRateLimitPerSecond(), AppContext.getRateLimitBurst(),
+                AppContext.getRateLimitMaxClients(), AppContext.getRateLimitKeyHeader());
+    }
+
+    /**
+     * @param perSecond  допустимая частота запросов клиента
+     * @param burst      число запросов, которое клиент может отправить подряд после простоя
+     * @param maxClients предельное число хранимых корзин
+     * @param keyHeader  заголовок с идентификатором клиента или {@code null}, чтобы различать клиентов по IP
+     */
+    public ClientRateLimiter(double perSecond, int burst, int maxClients, String keyHeader) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+        this.toleranceNanos = (Math.max(1, burst) - 1) * intervalNanos;
+        this.keyHeader = keyHeader;
+        int stripeCapacity = Math.max(1, maxClients / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    /**
+     * Расходует токен клиента, отправившего запрос.
+     *
+     * @param now текущий момент ({@link System#nanoTime()})
+     * @return {@code 0}, если запрос допущен, иначе время в наносекундах, через которое клиент получит токен
+     */
+    public long tryAcquire(HttpExchange exchange, long now) {
+        return tryAcquire(clientKey(exchange), now);
+    }
+
+    long tryAcquire(Object client, long now) {
+        Stripe stripe = stripes[spread(client.hashCode()) & (STRIPES - 1)];
+        long wait;
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(client);
+            if (bucket == null) {
+                evicted.add(stripe.evictIdle(now));
+                bucket = new Bucket(now);
+                stripe.buckets.put(client, bucket);
+            }
+            long tat = Math.max(bucket.tat, now);
+            wait = tat - toleranceNanos - now;
+            if (wait <= 0) {
+                bucket.tat = tat + intervalNanos;
+                return 0;
+            }
+        }
+        rejected.increment();
+        return wait;
+    }
+
+    private Object clientKey(HttpExchange exchange) {
+        if (keyHeader != null) {
+            String key = exchange.getRequestHeaders().getFirst(keyHeader);
+            if (key != null) {
+                return key;
+            }
+        }
+        InetSocketAddress address = exchange.getRemoteAddress();
+        return address == null || address.getAddress() == null ? UNKNOWN_CLIENT : address.getAddress();
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    public void writeTo(PrometheusTextWriter out) {
+        out.family("hmac_rate_limit_rejected_total", "counter", "Requests rejected with 429 by per-client rate limit.");
+        out.sample("hmac_rate_limit_rejected_total", getRejected());
+        out.family("hmac_rate_limit_evictions_total", "counter", "Client buckets evicted before becoming idle.");
+        out.sample("hmac_rate_limit_evictions_total", getEvicted());
+        out.family("hmac_rate_limit_clients", "gauge", "Tracked client buckets.");
+        out.sample("hmac_rate_limit_clients", size());
+    }
+
+    private static final class Bucket {
+        private long tat;
+
+        private Bucket(long tat) {
+            this.tat = tat;
+        }
+    }
+
+    private static final class Stripe {
+        private final LinkedHashMap<Object, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Удаляет из начала таблицы полные корзины и, если места всё равно нет, самую давнюю.
+         *
+         * @return число удалённых неполных корзин
+         */
+        private int evictIdle(long now) {
+            Iterator<Map.Entry<Object, Bucket>> iterator = buckets.entrySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getValue().tat - now > 0) {
+                    break;
+                }
+                iterator.remove();
+            }
+            if (buckets.size() < capacity) {
+                return 0;
+            }
+            iterator = buckets.entrySet().iterator();
+            iterator.next();
+            iterator.remove();
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package ru.yandex.practicum.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Адаптивный предел числа одновременно обрабатываемых запросов эндпоинта (AIMD).
+ *
+ * <p>Запрос допускается, если число запросов в обработке меньше текущего предела, иначе он сразу
+ * отклоняется. Задержка каждого завершённого запроса — от постановки в очередь пула до конца
+ * обработки — сравнивается с целевой: если она выше, предел уменьшается умножением на
+ * {@value #BACKOFF_RATIO}, если нет и предел используется хотя бы наполовину — растёт на единицу.
+ * Уменьшение происходит не чаще одного раза за время ответа: медленные запросы, начатые до
+ * предыдущего уменьшения, отражают уже учтённую перегрузку и предел повторно не снижают.</p>
+ *
+ * <p>Запрос, который ждал в очереди пула дольше целевой задержки, отклоняется, не занимая места
+ * в пределе: ответ ему всё равно опоздает, а отказ освобождает очередь для следующих. Такой отказ
+ * тоже считается признаком перегрузки.</p>
+ *
+ * <p>Состояние обновляется без блокировок; при гонке обновлений предела одно из них теряется,
+ * что для адаптивной оценки несущественно.</p>
+ */
+public class ConcurrencyLimiter {
+    static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejectedByLimit = new LongAdder();
+    private final LongAdder rejectedByQueue = new LongAdder();
+    private volatile int limit;
+    private volatile long lastDecreaseNanos;
+
+    /**
+     * @param initialLimit начальный предел
+     * @param minLimit     нижняя граница предела
+     * @param maxLimit     верхняя граница предела
+     * @param latencyNanos целевая задержка запроса с учётом ожидания в очереди
+     */
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyNanos = latencyNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Пытается допустить запрос к обработке. Допущенный запрос обязательно завершается
+     * вызовом {@link #release(long, long)}.
+     *
+     * @param queuedNanos момент постановки запроса в очередь пула ({@link System#nanoTime()})
+     * @param now         текущий момент
+     * @return {@code true}, если запрос допущен
+     */
+    public boolean tryAcquire(long queuedNanos, long now) {
+        if (now - queuedNanos > latencyNanos) {
+            rejectedByQueue.increment();
+            decrease(queuedNanos, now);
+            return false;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejectedByLimit.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Завершает допущенный запрос и корректирует предел по его задержке.
+     *
+     * @param queuedNanos момент постановки запроса в очередь пула
+     * @param now         момент завершения обработки
+     */
+    public void release(long queuedNanos, long now) {
+        int current = inFlight.getAndDecrement();
+        if (now - queuedNanos > latencyNanos) {
+            decrease(queuedNanos, now);
+            return;
+        }
+        int currentLimit = limit;
+        if (current * 2 >= currentLimit && currentLimit < maxLimit) {
+            limit = currentLimit + 1;
+        }
+    }
+
+    private void decrease(long queuedNanos, long now) {
+        if (queuedNanos - lastDecreaseNanos < 0) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedByLimit() {
+        return rejectedByLimit.sum();
+    }
+
+    public long getRejectedByQueue() {
+        return rejectedByQueue.sum();
+    }
+}
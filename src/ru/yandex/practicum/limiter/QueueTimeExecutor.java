@@ -0,0 +1,60 @@
+package ru.yandex.practicum.limiter;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Обёртка над пулом обработчиков HTTP-сервера, запоминающая момент постановки задачи в очередь.
+ *
+ * <p>Сервер передаёт пулу задачу обмена, не связанную с ним снаружи, поэтому момент постановки
+ * передаётся обработчику через поле потока: на время выполнения задачи оно доступно
+ * {@link #getQueuedNanos(long)}. Так {@link ConcurrencyLimiter} учитывает ожидание в очереди,
+ * которое иначе остаётся невидимым для обработчика.</p>
+ *
+ * <p>Одна задача может обработать несколько запросов подряд (например, конвейеризованные запросы
+ * соединения {@code NIO}-сервера). В очереди пула ждал только первый из них, поэтому перед каждым
+ * следующим задача вызывает {@link #resetQueuedNanos()}.</p>
+ */
+public class QueueTimeExecutor implements Executor {
+    private static final ThreadLocal<long[]> QUEUED_NANOS = ThreadLocal.withInitial(() -> new long[]{-1});
+
+    private final Executor executor;
+
+    public QueueTimeExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long queuedNanos = System.nanoTime();
+        executor.execute(() -> {
+            long[] holder = QUEUED_NANOS.get();
+            holder[0] = queuedNanos;
+            try {
+                task.run();
+            } finally {
+                holder[0] = -1;
+            }
+        });
+    }
+
+    /**
+     * @param now момент, возвращаемый вне задачи этого пула (например, в потоке селектора {@code NIO})
+     * @return момент постановки выполняемой задачи в очередь или {@code now}
+     */
+    public static long getQueuedNanos(long now) {
+        long queuedNanos = QUEUED_NANOS.get()[0];
+        return queuedNanos == -1 ? now : queuedNanos;
+    }
+
+    /**
+     * Отмечает, что выполняемая задача переходит к запросу, не ждавшему в очереди пула: до конца
+     * задачи {@link #getQueuedNanos(long)} возвращает переданный ему момент.
+     */
+    public static void resetQueuedNanos() {
+        QUEUED_NANOS.get()[0] = -1;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+}
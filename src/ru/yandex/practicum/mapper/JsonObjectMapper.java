@@ -1,8 +1,18 @@
 package ru.yandex.practicum.mapper;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
+import ru.yandex.practicum.constant.AppConstants;
 import ru.yandex.practicum.exception.web.DeserializationException;
+import ru.yandex.practicum.mapper.impl.SignResponseSerializer;
+import ru.yandex.practicum.mapper.impl.VerifyResponseSerializer;
+import ru.yandex.practicum.schema.SignResponseDto;
+import ru.yandex.practicum.schema.VerifyResponseDto;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Map;
 
 /**
  * Утилитарный класс для преобразования объектов в формат JSON и обратно.
@@ -11,6 +21,10 @@ public class JsonObjectMapper {
     private JsonObjectMapper() {}
 
     private static final Gson GSON = new Gson();
+    private static final Map<Class<?>, ResponseSerializer<?>> SERIALIZERS = Map.of(
+            SignResponseDto.class, new SignResponseSerializer(),
+            VerifyResponseDto.class, new VerifyResponseSerializer()
+    );
 
     public static <T> T fromJson(String json, Class<T> clazz) {
         if (json == null) {
@@ -23,6 +37,23 @@ public class JsonObjectMapper {
         }
     }
 
+    /**
+     * Десериализует объект непосредственно из потока в кодировке {@link AppConstants#CHARSET},
+     * без промежуточного копирования тела в массив байтов и строку.
+     *
+     * <p>Исключения, выброшенные самим потоком во время чтения (например, при превышении
+     * ограничения размера), пробрасываются без изменений.</p>
+     *
+     * @return десериализованный объект или {@code null}, если поток пуст
+     */
+    public static <T> T fromJson(InputStream json, Class<T> clazz) {
+        try {
+            return GSON.fromJson(new InputStreamReader(json, AppConstants.CHARSET), clazz);
+        } catch (JsonSyntaxException | JsonIOException e) {
+            throw new DeserializationException("Error while parsing json: " + e.getMessage());
+        }
+    }
+
     public static String toJson(Object object) {
         if (object == null) {
             return null;
@@ -30,4 +61,22 @@ public class JsonObjectMapper {
             return GSON.toJson(object);
         }
     }
+
+    /**
+     * Сериализует объект в JSON и дописывает байты UTF-8 в {@code out}.
+     *
+     * <p>Для типов ответов с фиксированной структурой используются специализированные
+     * {@link ResponseSerializer}, которые пишут байты напрямую, минуя рефлексию Gson и
+     * промежуточную строку. Для остальных типов используется Gson. Результат совпадает
+     * с {@link #toJson(Object)}.</p>
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeJson(Object object, JsonOutput out) {
+        ResponseSerializer<Object> serializer = (ResponseSerializer<Object>) SERIALIZERS.get(object.getClass());
+        if (serializer != null) {
+            serializer.write(object, out);
+        } else {
+            out.writeRaw(GSON.toJson(object).getBytes(AppConstants.CHARSET));
+        }
+    }
 }
\ No newline at end of file
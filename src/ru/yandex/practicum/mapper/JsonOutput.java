@@ -0,0 +1,152 @@
+package ru.yandex.practicum.mapper;
+
+import java.util.Arrays;
+
+/**
+ * Переиспользуемый буфер для записи JSON сразу в байты UTF-8.
+ *
+ * <p>Строки экранируются так же, как это делает {@link com.google.gson.Gson} с настройками
+ * по умолчанию (включая HTML-безопасное экранирование {@code < > & = '}), поэтому результат
+ * побайтно совпадает с {@link JsonObjectMapper#toJson(Object)}.</p>
+ *
+ * <p>Класс не потокобезопасен.</p>
+ */
+public class JsonOutput {
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final boolean[] NEEDS_ESCAPE = new boolean[0x80];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            NEEDS_ESCAPE[c] = true;
+        }
+        for (char c : "\"\\<>&='".toCharArray()) {
+            NEEDS_ESCAPE[c] = true;
+        }
+    }
+
+    private byte[] buffer;
+    private int size;
+
+    public JsonOutput(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public byte[] array() {
+        return buffer;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Записывает байты как есть. Предназначен для заранее подготовленных фрагментов JSON.
+     */
+    public void writeRaw(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    public void writeRaw(byte b) {
+        ensureCapacity(1);
+        buffer[size++] = b;
+    }
+
+    /**
+     * Записывает строку в кавычках с экранированием и кодированием в UTF-8.
+     */
+    public void writeString(String value) {
+        int length = value.length();
+        ensureCapacity(length + 2);
+        buffer[size++] = '"';
+        int i = 0;
+        while (i < length) {
+            char c = value.charAt(i);
+            if (c >= 0x80 || NEEDS_ESCAPE[c]) {
+                break;
+            }
+            buffer[size++] = (byte) c;
+            i++;
+        }
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                writeAsciiChar(c);
+            } else if (c < 0x800) {
+                ensureCapacity(2);
+                buffer[size++] = (byte) (0xc0 | (c >> 6));
+                buffer[size++] = (byte) (0x80 | (c & 0x3f));
+            } else if (c == 0x2028 || c == 0x2029) {
+                writeUnicodeEscape(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensureCapacity(4);
+                buffer[size++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[size++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                writeRaw((byte) '?');
+            } else {
+                ensureCapacity(3);
+                buffer[size++] = (byte) (0xe0 | (c >> 12));
+                buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[size++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        writeRaw((byte) '"');
+    }
+
+    private void writeAsciiChar(char c) {
+        switch (c) {
+            case '"' -> writeEscape('"');
+            case '\\' -> writeEscape('\\');
+            case '\t' -> writeEscape('t');
+            case '\b' -> writeEscape('b');
+            case '\n' -> writeEscape('n');
+            case '\r' -> writeEscape('r');
+            case '\f' -> writeEscape('f');
+            case '<', '>', '&', '=', '\'' -> writeUnicodeEscape(c);
+            default -> {
+                if (c < 0x20) {
+                    writeUnicodeEscape(c);
+                } else {
+                    ensureCapacity(1);
+                    buffer[size++] = (byte) c;
+                }
+            }
+        }
+    }
+
+    private void writeEscape(char c) {
+        ensureCapacity(2);
+        buffer[size++] = '\\';
+        buffer[size++] = (byte) c;
+    }
+
+    private void writeUnicodeEscape(char c) {
+        ensureCapacity(6);
+        buffer[size++] = '\\';
+        buffer[size++] = 'u';
+        buffer[size++] = HEX[(c >> 12) & 0xf];
+        buffer[size++] = HEX[(c >> 8) & 0xf];
+        buffer[size++] = HEX[(c >> 4) & 0xf];
+        buffer[size++] = HEX[c & 0xf];
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.yandex.practicum.mapper;
+
+/**
+ * Сериализатор объекта ответа непосредственно в байты JSON.
+ *
+ * @param <T> тип сериализуемого объекта
+ */
+public interface ResponseSerializer<T> {
+    void write(T value, JsonOutput out);
+}
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.mapper.impl;
+
+import ru.yandex.practicum.mapper.JsonOutput;
+import ru.yandex.practicum.mapper.ResponseSerializer;
+import ru.yandex.practicum.schema.SignResponseDto;
+
+public class SignResponseSerializer implements ResponseSerializer<SignResponseDto> {
+    private static final byte[] SIGNATURE = "\"signature\":".getBytes();
+    private static final byte[] KID = "\"kid\":".getBytes();
+
+    @Override
+    public void write(SignResponseDto value, JsonOutput out) {
+        out.writeRaw((byte) '{');
+        if (value.getSignature() != null) {
+            out.writeRaw(SIGNATURE);
+            out.writeString(value.getSignature());
+        }
+        if (value.getKid() != null) {
+            if (value.getSignature() != null) {
+                out.writeRaw((byte) ',');
+            }
+            out.writeRaw(KID);
+            out.writeString(value.getKid());
+        }
+        out.writeRaw((byte) '}');
+    }
+}
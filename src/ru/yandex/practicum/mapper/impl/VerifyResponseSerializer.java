@@ -0,0 +1,21 @@
+package ru.yandex.practicum.mapper.impl;
+
+import ru.yandex.practicum.mapper.JsonOutput;
+import ru.yandex.practicum.mapper.ResponseSerializer;
+import ru.yandex.practicum.schema.VerifyResponseDto;
+
+public class VerifyResponseSerializer implements ResponseSerializer<VerifyResponseDto> {
+    private static final byte[] PREFIX = "{\"ok\":".getBytes();
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes();
+
+    @Override
+    public void write(VerifyResponseDto value, JsonOutput out) {
+        if (value.getOk() == null) {
+            out.writeRaw(EMPTY_OBJECT);
+            return;
+        }
+        out.writeRaw(PREFIX);
+        out.writeString(value.getOk());
+        out.writeRaw((byte) '}');
+    }
+}
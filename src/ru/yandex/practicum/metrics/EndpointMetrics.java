@@ -0,0 +1,80 @@
+package ru.yandex.practicum.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики одного HTTP-эндпоинта: число ответов по кодам состояния, распределение времени
+ * обработки и размера тела запроса.
+ *
+ * <p>Счётчик для кода состояния создаётся при первом ответе с этим кодом; дальше запись
+ * сводится к обращению к массиву и инкременту {@link LongAdder}.</p>
+ */
+public class EndpointMetrics {
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+
+    private final String path;
+    private final AtomicReferenceArray<LongAdder> responses = new AtomicReferenceArray<>(MAX_STATUS - MIN_STATUS + 1);
+    private final Histogram latency;
+    private final Histogram requestSize;
+
+    EndpointMetrics(String path, long[] latencyBoundsNanos, long[] sizeBoundsBytes) {
+        this.path = path;
+        this.latency = new Histogram(latencyBoundsNanos);
+        this.requestSize = new Histogram(sizeBoundsBytes);
+    }
+
+    /**
+     * Учитывает обработанный запрос.
+     *
+     * @param status       код состояния ответа, от 100 до 599
+     * @param requestBytes размер тела запроса или {@code -1}, если он неизвестен
+     * @param nanos        время обработки в наносекундах
+     */
+    public void record(int status, long requestBytes, long nanos) {
+        if (status < MIN_STATUS || status > MAX_STATUS) {
+            throw new IllegalArgumentException("Invalid http status: " + status);
+        }
+        int index = status - MIN_STATUS;
+        LongAdder counter = responses.get(index);
+        if (counter == null) {
+            responses.compareAndSet(index, null, new LongAdder());
+            counter = responses.get(index);
+        }
+        counter.increment();
+        latency.record(nanos);
+        if (requestBytes >= 0) {
+            requestSize.record(requestBytes);
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return число ответов с данным кодом состояния
+     */
+    public long getResponseCount(int status) {
+        LongAdder counter = status < MIN_STATUS || status > MAX_STATUS ? null : responses.get(status - MIN_STATUS);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    Histogram getLatency() {
+        return latency;
+    }
+
+    Histogram getRequestSize() {
+        return requestSize;
+    }
+
+    void writeResponses(PrometheusTextWriter out, String name) {
+        for (int i = 0; i < responses.length(); i++) {
+            LongAdder counter = responses.get(i);
+            if (counter != null) {
+                out.sample(name, counter.sum(), "path", path, "code", Integer.toString(MIN_STATUS + i));
+            }
+        }
+    }
+}
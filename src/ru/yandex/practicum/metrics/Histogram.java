@@ -0,0 +1,62 @@
+package ru.yandex.practicum.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма с фиксированными границами корзин.
+ *
+ * <p>Каждая корзина и сумма значений — отдельный {@link LongAdder}, поэтому запись не берёт
+ * блокировок и не конкурирует за одну ячейку памяти. Снимок, читаемый при выгрузке метрик,
+ * не атомарен: значения, записанные во время чтения, могут попасть в одни корзины и не попасть
+ * в другие, что для мониторинга допустимо.</p>
+ */
+public class Histogram {
+    private final long[] bounds;
+    private final LongAdder[] buckets;
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * @param bounds верхние границы корзин по возрастанию включительно; корзина {@code +Inf} добавляется сама
+     */
+    public Histogram(long... bounds) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException("Histogram bounds must be strictly increasing");
+            }
+        }
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        int index = Arrays.binarySearch(bounds, value);
+        buckets[index >= 0 ? index : -index - 1].increment();
+        sum.add(value);
+    }
+
+    public long[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * @return накопленные счётчики: элемент {@code i} — число значений, не превышающих {@code bounds[i]};
+     * последний элемент — общее число значений
+     */
+    public long[] getCumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            counts[i] = total;
+        }
+        return counts;
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+}
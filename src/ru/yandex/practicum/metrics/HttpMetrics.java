@@ -0,0 +1,57 @@
+package ru.yandex.practicum.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Реестр метрик HTTP-эндпоинтов.
+ *
+ * <p>Метрики эндпоинта создаются при регистрации его обработчика
+ * ({@link ru.yandex.practicum.context.web.WebContext}) и пополняются
+ * {@link ru.yandex.practicum.handler.HandlerWrapper} после каждого запроса.
+ * Выгружаются эндпоинтом {@code GET /metrics} в текстовом формате Prometheus.</p>
+ */
+public class HttpMetrics {
+    private static final long[] LATENCY_BOUNDS_NANOS = {
+            TimeUnit.MICROSECONDS.toNanos(100), TimeUnit.MICROSECONDS.toNanos(250),
+            TimeUnit.MICROSECONDS.toNanos(500), TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MICROSECONDS.toNanos(2500), TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(25),
+            TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(250), TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(2500),
+            TimeUnit.SECONDS.toNanos(5), TimeUnit.SECONDS.toNanos(10)
+    };
+    private static final long[] SIZE_BOUNDS_BYTES = {
+            64, 256, 1024, 4 * 1024, 16 * 1024, 64 * 1024, 256 * 1024,
+            1024 * 1024, 4 * 1024 * 1024, 16 * 1024 * 1024, 64 * 1024 * 1024,
+            256 * 1024 * 1024, 1024 * 1024 * 1024
+    };
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentSkipListMap<>();
+
+    /**
+     * @return метрики эндпоинта с данным путём; создаются при первом обращении
+     */
+    public EndpointMetrics forEndpoint(String path) {
+        return endpoints.computeIfAbsent(path,
+                key -> new EndpointMetrics(key, LATENCY_BOUNDS_NANOS, SIZE_BOUNDS_BYTES));
+    }
+
+    public void writeTo(PrometheusTextWriter out) {
+        out.family("hmac_http_requests_total", "counter", "Processed HTTP requests by path and status code.");
+        for (EndpointMetrics metrics : endpoints.values()) {
+            metrics.writeResponses(out, "hmac_http_requests_total");
+        }
+        out.family("hmac_http_request_duration_seconds", "histogram", "HTTP request processing time.");
+        for (EndpointMetrics metrics : endpoints.values()) {
+            out.histogram("hmac_http_request_duration_seconds", metrics.getLatency(), 1e-9,
+                    "path", metrics.getPath());
+        }
+        out.family("hmac_http_request_size_bytes", "histogram", "HTTP request body size.");
+        for (EndpointMetrics metrics : endpoints.values()) {
+            out.histogram("hmac_http_request_size_bytes", metrics.getRequestSize(), 1, "path", metrics.getPath());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.yandex.practicum.metrics;
+
+import java.math.BigDecimal;
+
+/**
+ * Формирование метрик в текстовом формате Prometheus (версия 0.0.4).
+ *
+ * <p>Метки передаются парами «имя, значение»; значения экранируются по правилам формата.</p>
+ */
+public class PrometheusTextWriter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder out;
+
+    public PrometheusTextWriter(StringBuilder out) {
+        this.out = out;
+    }
+
+    /**
+     * Пишет строки {@code # HELP} и {@code # TYPE}, открывающие семейство метрик.
+     *
+     * @param type {@code counter}, {@code gauge} или {@code histogram}
+     */
+    public void family(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    public void sample(String name, long value, String... labels) {
+        appendName(name, labels);
+        out.append(' ').append(value).append('\n');
+    }
+
+    public void sample(String name, double value, String... labels) {
+        appendName(name, labels);
+        out.append(' ').append(formatDouble(value)).append('\n');
+    }
+
+    /**
+     * Пишет корзины, сумму и число значений гистограммы.
+     *
+     * @param scale множитель перевода записанных значений в единицы метрики
+     *              (например, {@code 1e-9} для наносекунд в секундах)
+     */
+    public void histogram(String name, Histogram histogram, double scale, String... labels) {
+        long[] bounds = histogram.getBounds();
+        long[] counts = histogram.getCumulativeCounts();
+        String[] bucketLabels = new String[labels.length + 2];
+        System.arraycopy(labels, 0, bucketLabels, 0, labels.length);
+        bucketLabels[labels.length] = "le";
+        for (int i = 0; i < counts.length; i++) {
+            bucketLabels[labels.length + 1] = i < bounds.length ? formatDouble(bounds[i] * scale) : "+Inf";
+            sample(name + "_bucket", counts[i], bucketLabels);
+        }
+        sample(name + "_sum", histogram.getSum() * scale, labels);
+        sample(name + "_count", counts[counts.length - 1], labels);
+    }
+
+    private void appendName(String name, String[] labels) {
+        out.append(name);
+        if (labels.length == 0) {
+            return;
+        }
+        out.append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(labels[i]).append("=\"");
+            appendEscaped(labels[i + 1]);
+            out.append('"');
+        }
+        out.append('}');
+    }
+
+    private void appendEscaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static String formatDouble(double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+}
@@ -1,7 +1,13 @@
 package ru.yandex.practicum.model;
 
+import ru.yandex.practicum.handler.impl.MetricsEndpointHandler;
+import ru.yandex.practicum.handler.impl.ReadyEndpointHandler;
+import ru.yandex.practicum.handler.impl.SignBatchEndpointHandler;
 import ru.yandex.practicum.handler.impl.SignEndpointHandler;
+import ru.yandex.practicum.handler.impl.SignStreamEndpointHandler;
+import ru.yandex.practicum.handler.impl.VerifyBatchEndpointHandler;
 import ru.yandex.practicum.handler.impl.VerifyEndpointHandler;
+import ru.yandex.practicum.handler.impl.VerifyStreamEndpointHandler;
 
 import java.util.List;
 import java.util.Set;
@@ -12,7 +18,13 @@ import java.util.stream.Collectors;
  *
  * <p>Каждый элемент перечисления представляет собой конфигурацию конкретного HTTP-пути,
  * включая допустимые методы, поддерживаемые типы содержимого (Content-Type),
- * и соответствующий обработчик запросов.</p>
+ * и соответствующий обработчик запросов. Пустой список типов содержимого означает, что
+ * эндпоинт не принимает тело и заголовок Content-Type не проверяется. Признак {@code loadShedding}
+ * включает для эндпоинта адаптивный предел параллельности
+ * ({@link ru.yandex.practicum.limiter.ConcurrencyLimiter}); он выключен для служебных эндпоинтов,
+ * которые должны отвечать и под нагрузкой, и для потоковых подписи и проверки, время которых
+ * определяется размером тела. Признак {@code rateLimited} подчиняет эндпоинт ограничению частоты запросов клиента
+ * ({@link ru.yandex.practicum.limiter.ClientRateLimiter}).</p>
  *
  * <p>Используется классом {@link ru.yandex.practicum.context.web.WebContext} для регистрации
  * обработчиков в HTTP-сервере, а также {@link ru.yandex.practicum.handler.HandlerWrapper}
@@ -22,25 +34,81 @@ public enum ApiSettings {
     SIGN_ENDPOINT(
             "/sign",
             List.of(HttpMethod.POST),
-            List.of(MediaType.APPLICATION_JSON),
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_X_HMAC_FRAMES),
+            true,
+            true,
             SignEndpointHandler.class
     ),
     VERIFY_ENDPOINT(
             "/verify",
             List.of(HttpMethod.POST),
-            List.of(MediaType.APPLICATION_JSON),
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_X_HMAC_FRAMES),
+            true,
+            true,
             VerifyEndpointHandler.class
+    ),
+    SIGN_BATCH_ENDPOINT(
+            "/sign/batch",
+            List.of(HttpMethod.POST),
+            List.of(MediaType.APPLICATION_JSON),
+            true,
+            true,
+            SignBatchEndpointHandler.class
+    ),
+    VERIFY_BATCH_ENDPOINT(
+            "/verify/batch",
+            List.of(HttpMethod.POST),
+            List.of(MediaType.APPLICATION_JSON),
+            true,
+            true,
+            VerifyBatchEndpointHandler.class
+    ),
+    SIGN_STREAM_ENDPOINT(
+            "/sign/stream",
+            List.of(HttpMethod.POST),
+            List.of(MediaType.APPLICATION_OCTET_STREAM),
+            false,
+            true,
+            SignStreamEndpointHandler.class
+    ),
+    VERIFY_STREAM_ENDPOINT(
+            "/verify/stream",
+            List.of(HttpMethod.POST),
+            List.of(MediaType.APPLICATION_OCTET_STREAM),
+            false,
+            true,
+            VerifyStreamEndpointHandler.class
+    ),
+    METRICS_ENDPOINT(
+            "/metrics",
+            List.of(HttpMethod.GET),
+            List.of(),
+            false,
+            false,
+            MetricsEndpointHandler.class
+    ),
+    READY_ENDPOINT(
+            "/ready",
+            List.of(HttpMethod.GET),
+            List.of(),
+            false,
+            false,
+            ReadyEndpointHandler.class
     );
 
     private final String path;
     private final Set<String> supportedMethods;
     private final Set<String> supportedMediaTypes;
+    private final boolean loadShedding;
+    private final boolean rateLimited;
     private final Class<?> handlerClass;
 
     ApiSettings(
             String path,
             List<HttpMethod> supportedMethods,
             List<MediaType> supportedMediaTypes,
+            boolean loadShedding,
+            boolean rateLimited,
             Class<?> handlerClass
     ) {
         this.path = path;
@@ -50,6 +118,8 @@ public enum ApiSettings {
         this.supportedMediaTypes = supportedMediaTypes.stream()
                 .map(MediaType::getValue)
                 .collect(Collectors.toUnmodifiableSet());
+        this.loadShedding = loadShedding;
+        this.rateLimited = rateLimited;
         this.handlerClass = handlerClass;
     }
 
@@ -65,6 +135,14 @@ public enum ApiSettings {
         return supportedMediaTypes;
     }
 
+    public boolean isLoadShedding() {
+        return loadShedding;
+    }
+
+    public boolean isRateLimited() {
+        return rateLimited;
+    }
+
     public Class<?> getHandlerClass() {
         return handlerClass;
     }
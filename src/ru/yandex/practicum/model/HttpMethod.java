@@ -1,5 +1,6 @@
 package ru.yandex.practicum.model;
 
 public enum HttpMethod {
+    GET,
     POST
 }
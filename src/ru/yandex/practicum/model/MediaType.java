@@ -1,7 +1,9 @@
 package ru.yandex.practicum.model;
 
 public enum MediaType {
-    APPLICATION_JSON("application/json");
+    APPLICATION_JSON("application/json"),
+    APPLICATION_OCTET_STREAM("application/octet-stream"),
+    APPLICATION_X_HMAC_FRAMES("application/x-hmac-frames");
 
     private final String value;
 
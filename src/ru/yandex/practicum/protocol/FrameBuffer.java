@@ -0,0 +1,46 @@
+package ru.yandex.practicum.protocol;
+
+import java.util.Arrays;
+
+/**
+ * Растущий буфер для формирования ответа в формате {@link HmacFrames}.
+ *
+ * <p>Класс не потокобезопасен.</p>
+ */
+public class FrameBuffer {
+    private byte[] buffer;
+    private int size;
+
+    public FrameBuffer(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public byte[] array() {
+        return buffer;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void writeByte(byte b) {
+        ensureCapacity(1);
+        buffer[size++] = b;
+    }
+
+    public void writeFrame(byte[] payload, int offset, int length) {
+        ensureCapacity(HmacFrames.LENGTH_FIELD_SIZE + length);
+        buffer[size++] = (byte) (length >>> 24);
+        buffer[size++] = (byte) (length >>> 16);
+        buffer[size++] = (byte) (length >>> 8);
+        buffer[size++] = (byte) length;
+        System.arraycopy(payload, offset, buffer, size, length);
+        size += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.yandex.practicum.protocol;
+
+import ru.yandex.practicum.exception.web.HttpBadRequestException;
+import ru.yandex.practicum.exception.web.HttpPayloadTooLarge;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Двоичный формат {@code application/x-hmac-frames}.
+ *
+ * <p>Тело состоит из кадров: длина полезной нагрузки (4 байта, big-endian) и сама нагрузка.
+ * Сообщения и подписи передаются как есть, без JSON и Base64:</p>
+ * <ul>
+ *   <li>{@code /sign}: запрос — по кадру на сообщение; ответ — по кадру с HMAC на каждое сообщение;</li>
+ *   <li>{@code /verify}: запрос — пары кадров «сообщение, HMAC»; ответ — по одному байту на пару,
+ *   {@value #VALID} для корректной подписи и {@value #INVALID} для некорректной.</li>
+ * </ul>
+ */
+public class HmacFrames {
+    public static final int LENGTH_FIELD_SIZE = 4;
+    public static final byte VALID = 1;
+    public static final byte INVALID = 0;
+
+    private HmacFrames() {}
+
+    /**
+     * Читает заголовок очередного кадра.
+     *
+     * @return длина полезной нагрузки или {@code -1}, если поток закончился ровно на границе кадра
+     * @throws HttpBadRequestException если поток оборвался внутри заголовка
+     * @throws HttpPayloadTooLarge     если длина кадра превышает {@code maxLength}
+     */
+    public static int readLength(InputStream in, int maxLength) throws IOException {
+        int b0 = in.read();
+        if (b0 == -1) {
+            return -1;
+        }
+        int b1 = in.read();
+        int b2 = in.read();
+        int b3 = in.read();
+        if ((b1 | b2 | b3) < 0) {
+            throw new HttpBadRequestException("Truncated frame header");
+        }
+        int length = (b0 << 24) | (b1 << 16) | (b2 << 8) | b3;
+        if (length < 0 || length > maxLength) {
+            throw new HttpPayloadTooLarge(String.format("Frame size exceeds max %d bytes", maxLength));
+        }
+        return length;
+    }
+
+    /**
+     * Читает полезную нагрузку кадра целиком в начало буфера.
+     *
+     * @param buffer буфер для нагрузки; если он меньше {@code length}, создаётся новый
+     * @return буфер, содержащий нагрузку
+     * @throws HttpBadRequestException если поток оборвался внутри кадра
+     */
+    public static byte[] readPayload(InputStream in, byte[] buffer, int length) throws IOException {
+        byte[] target = buffer.length >= length ? buffer : new byte[length];
+        if (in.readNBytes(target, 0, length) < length) {
+            throw new HttpBadRequestException("Truncated frame");
+        }
+        return target;
+    }
+
+    public static void checkFrameCount(int count, int maxCount) {
+        if (count > maxCount) {
+            throw new HttpBadRequestException(String.format("batch size exceeds max %d items", maxCount));
+        }
+    }
+}
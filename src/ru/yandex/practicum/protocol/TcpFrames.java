@@ -0,0 +1,33 @@
+package ru.yandex.practicum.protocol;
+
+/**
+ * Протокол TCP-слушателя подписи.
+ *
+ * <p>Соединение постоянное, запросы и ответы передаются кадрами «длина (4 байта, big-endian) + тело»;
+ * длина не включает собственный заголовок. Клиент может отправлять запросы, не дожидаясь ответов
+ * (конвейеризация), — ответы приходят строго в порядке запросов.</p>
+ *
+ * <p>Тело запроса начинается с байта операции:</p>
+ * <ul>
+ *   <li>{@link #OP_SIGN}: далее сообщение; ответ — HMAC в сыром виде;</li>
+ *   <li>{@link #OP_VERIFY}: далее длина сообщения (4 байта), сообщение и HMAC до конца кадра;
+ *   ответ — один байт, {@link HmacFrames#VALID} или {@link HmacFrames#INVALID}.</li>
+ * </ul>
+ *
+ * <p>Тело ответа начинается с байта статуса. При {@link #STATUS_OK} далее идёт результат операции,
+ * при остальных статусах — текст ошибки в UTF-8. После {@link #STATUS_FRAME_TOO_LARGE} сервер
+ * закрывает соединение, так как не читает тело такого кадра.</p>
+ */
+public class TcpFrames {
+    public static final int HEADER_SIZE = HmacFrames.LENGTH_FIELD_SIZE;
+
+    public static final byte OP_SIGN = 1;
+    public static final byte OP_VERIFY = 2;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_BAD_REQUEST = 1;
+    public static final byte STATUS_PAYLOAD_TOO_LARGE = 2;
+    public static final byte STATUS_FRAME_TOO_LARGE = 3;
+
+    private TcpFrames() {}
+}
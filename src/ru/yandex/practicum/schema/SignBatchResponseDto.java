@@ -0,0 +1,34 @@
+package ru.yandex.practicum.schema;
+
+public class SignBatchResponseDto {
+    private String[] signatures;
+    private String kid;
+
+    public SignBatchResponseDto() {
+    }
+
+    public SignBatchResponseDto(String[] signatures) {
+        this.signatures = signatures;
+    }
+
+    public SignBatchResponseDto(String[] signatures, String kid) {
+        this.signatures = signatures;
+        this.kid = kid;
+    }
+
+    public String[] getSignatures() {
+        return signatures;
+    }
+
+    public void setSignatures(String[] signatures) {
+        this.signatures = signatures;
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+}
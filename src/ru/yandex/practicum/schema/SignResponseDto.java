@@ -2,6 +2,7 @@ package ru.yandex.practicum.schema;
 
 public class SignResponseDto {
     private String signature;
+    private String kid;
 
     public SignResponseDto() {
     }
@@ -10,6 +11,11 @@ public class SignResponseDto {
         this.signature = signature;
     }
 
+    public SignResponseDto(String signature, String kid) {
+        this.signature = signature;
+        this.kid = kid;
+    }
+
     public String getSignature() {
         return signature;
     }
@@ -17,4 +23,12 @@ public class SignResponseDto {
     public void setSignature(String signature) {
         this.signature = signature;
     }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
 }
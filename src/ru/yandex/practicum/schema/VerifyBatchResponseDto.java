@@ -0,0 +1,30 @@
+package ru.yandex.practicum.schema;
+
+public class VerifyBatchResponseDto {
+    private boolean[] results;
+    private String[] errors;
+
+    public VerifyBatchResponseDto() {
+    }
+
+    public VerifyBatchResponseDto(boolean[] results, String[] errors) {
+        this.results = results;
+        this.errors = errors;
+    }
+
+    public boolean[] getResults() {
+        return results;
+    }
+
+    public void setResults(boolean[] results) {
+        this.results = results;
+    }
+
+    public String[] getErrors() {
+        return errors;
+    }
+
+    public void setErrors(String[] errors) {
+        this.errors = errors;
+    }
+}
@@ -3,6 +3,7 @@ package ru.yandex.practicum.schema;
 public class VerifyRequestDto {
     String msg;
     String signature;
+    String kid;
 
     public String getMsg() {
         return msg;
@@ -19,4 +20,12 @@ public class VerifyRequestDto {
     public void setSignature(String signature) {
         this.signature = signature;
     }
-}
\ No newline at end of file
+
+    public String getKid() {
+        return kid;
+    }
+
+    public void setKid(String kid) {
+        this.kid = kid;
+    }
+}
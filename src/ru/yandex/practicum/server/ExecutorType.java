@@ -0,0 +1,55 @@
+package ru.yandex.practicum.server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Модели исполнения обработчиков HTTP-запросов, выбираемые параметром {@code executorType} конфигурации.
+ *
+ * <p>Пул без свободных потоков и места в очереди отклоняет запрос, и сервер закрывает соединение.
+ * Выполнять отклонённую задачу в вызывающем потоке нельзя: для {@code NIO} это поток селектора,
+ * и его блокировка остановит все соединения селектора.</p>
+ */
+public enum ExecutorType {
+    /**
+     * Новый виртуальный поток на каждый запрос; размер пула и очереди не ограничены.
+     */
+    VIRTUAL((threads, queueCapacity) -> Executors.newVirtualThreadPerTaskExecutor()),
+    /**
+     * Фиксированное число потоков платформы и ограниченная очередь ожидающих запросов.
+     */
+    FIXED((threads, queueCapacity) -> {
+        AtomicInteger ids = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> new Thread(task, "server-http-" + ids.incrementAndGet()));
+    }),
+    /**
+     * {@link java.util.concurrent.ForkJoinPool} с заданным параллелизмом и неограниченной очередью.
+     */
+    WORK_STEALING((threads, queueCapacity) -> Executors.newWorkStealingPool(threads));
+
+    private final ExecutorFactory factory;
+
+    ExecutorType(ExecutorFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Создаёт пул для обработчиков запросов.
+     *
+     * @param threads       число потоков; не используется для {@link #VIRTUAL}
+     * @param queueCapacity размер очереди; используется только для {@link #FIXED}
+     */
+    public ExecutorService create(int threads, int queueCapacity) {
+        return factory.create(threads, queueCapacity);
+    }
+
+    @FunctionalInterface
+    private interface ExecutorFactory {
+        ExecutorService create(int threads, int queueCapacity);
+    }
+}
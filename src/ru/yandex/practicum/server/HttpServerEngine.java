@@ -0,0 +1,57 @@
+package ru.yandex.practicum.server;
+
+import com.sun.net.httpserver.HttpServer;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.server.impl.NioHttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Доступные реализации HTTP-сервера, выбираемые параметром {@code httpServerEngine} конфигурации.
+ *
+ * <p>Обе реализации предоставляют API {@link HttpServer}, поэтому маршруты и обработчики
+ * регистрируются одинаково.</p>
+ */
+public enum HttpServerEngine {
+    /**
+     * Встроенный сервер JDK из пакета {@code com.sun.net.httpserver}.
+     *
+     * <p>Сервер JDK по умолчанию не включает {@code TCP_NODELAY}, и ответы, записанные несколькими
+     * сегментами, ждут подтверждения клиента (алгоритм Нейгла вместе с отложенным ACK) десятки
+     * миллисекунд на запрос. Поэтому, если свойство {@value #NODELAY_PROPERTY} не задано явно,
+     * оно включается перед созданием сервера. Сервер читает свойство один раз за время работы JVM.</p>
+     */
+    JDK(HttpServerEngine::createJdkServer),
+    /**
+     * {@link NioHttpServer}: несколько потоков селекторов, keep-alive, конвейеризация запросов
+     * и буферы на соединение. Число селекторов задаётся {@code httpSelectorThreads},
+     * исполнение обработчиков в потоке селектора — {@code httpInlineHandlers}.
+     */
+    NIO((address, backlog) -> NioHttpServer.create(address, backlog,
+            AppContext.getHttpSelectorThreads(), AppContext.isHttpInlineHandlers()));
+
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final ServerFactory factory;
+
+    HttpServerEngine(ServerFactory factory) {
+        this.factory = factory;
+    }
+
+    public HttpServer create(InetSocketAddress address, int backlog) throws IOException {
+        return factory.create(address, backlog);
+    }
+
+    private static HttpServer createJdkServer(InetSocketAddress address, int backlog) throws IOException {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        return HttpServer.create(address, backlog);
+    }
+
+    @FunctionalInterface
+    private interface ServerFactory {
+        HttpServer create(InetSocketAddress address, int backlog) throws IOException;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.yandex.practicum.server.impl;
+
+import ru.yandex.practicum.exception.web.HttpBadRequestException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Тело запроса с {@code Transfer-Encoding: chunked}. Расширения фрагментов и трейлеры пропускаются.
+ */
+class ChunkedInputStream extends RequestBodyInputStream {
+    private static final int MAX_LINE_LENGTH = 1024;
+
+    private final StringBuilder line = new StringBuilder();
+    private long chunkRemaining;
+    private boolean firstChunk = true;
+    private boolean finished;
+
+    ChunkedInputStream(NioHttpConnection connection, boolean expectContinue) {
+        super(connection, expectContinue);
+    }
+
+    @Override
+    protected int readBody(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            return -1;
+        }
+        if (chunkRemaining == 0) {
+            if (!firstChunk && !readLine().isEmpty()) {
+                throw new HttpBadRequestException("Malformed chunked body");
+            }
+            firstChunk = false;
+            chunkRemaining = parseChunkSize(readLine());
+            if (chunkRemaining == 0) {
+                while (!readLine().isEmpty()) {
+                    // трейлеры не используются
+                }
+                finished = true;
+                return -1;
+            }
+        }
+        ByteBuffer in = connection.input();
+        while (!in.hasRemaining()) {
+            fillOrFail();
+            in = connection.input();
+        }
+        int n = (int) Math.min(Math.min(len, chunkRemaining), in.remaining());
+        in.get(b, off, n);
+        chunkRemaining -= n;
+        return n;
+    }
+
+    @Override
+    boolean discardBuffered() {
+        return finished;
+    }
+
+    private String readLine() throws IOException {
+        line.setLength(0);
+        while (true) {
+            ByteBuffer in = connection.input();
+            while (in.hasRemaining()) {
+                byte b = in.get();
+                if (b == '\n') {
+                    int length = line.length();
+                    if (length > 0 && line.charAt(length - 1) == '\r') {
+                        line.setLength(length - 1);
+                    }
+                    return line.toString();
+                }
+                if (line.length() >= MAX_LINE_LENGTH) {
+                    throw new HttpBadRequestException("Chunk header is too long");
+                }
+                line.append((char) (b & 0xff));
+            }
+            fillOrFail();
+        }
+    }
+
+    private static long parseChunkSize(String header) {
+        int extension = header.indexOf(';');
+        String size = (extension == -1 ? header : header.substring(0, extension)).trim();
+        try {
+            long chunkSize = Long.parseLong(size, 16);
+            if (chunkSize < 0) {
+                throw new HttpBadRequestException("Invalid chunk size: " + size);
+            }
+            return chunkSize;
+        } catch (NumberFormatException e) {
+            throw new HttpBadRequestException("Invalid chunk size: " + size);
+        }
+    }
+}
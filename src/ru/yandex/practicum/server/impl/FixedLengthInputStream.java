@@ -0,0 +1,60 @@
+package ru.yandex.practicum.server.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Тело запроса с известной длиной ({@code Content-Length}).
+ *
+ * <p>Сначала отдаются байты, уже прочитанные в буфер соединения. Когда буфер пуст, а запрошен
+ * крупный фрагмент, данные читаются из сокета сразу в массив вызывающей стороны.</p>
+ */
+class FixedLengthInputStream extends RequestBodyInputStream {
+    private static final int DIRECT_READ_THRESHOLD = 8 * 1024;
+
+    private long remaining;
+
+    FixedLengthInputStream(NioHttpConnection connection, long length, boolean expectContinue) {
+        super(connection, expectContinue && length > 0);
+        this.remaining = length;
+    }
+
+    @Override
+    protected int readBody(byte[] b, int off, int len) throws IOException {
+        if (remaining == 0) {
+            return -1;
+        }
+        int n;
+        ByteBuffer in = connection.input();
+        if (in.hasRemaining()) {
+            n = (int) Math.min(Math.min(len, remaining), in.remaining());
+            in.get(b, off, n);
+        } else if (len >= DIRECT_READ_THRESHOLD) {
+            n = connection.readDirect(b, off, (int) Math.min(len, remaining));
+            if (n == -1) {
+                throw new IOException("Unexpected end of request body");
+            }
+        } else {
+            fillOrFail();
+            return readBody(b, off, len);
+        }
+        remaining -= n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(remaining, connection.input().remaining());
+    }
+
+    @Override
+    boolean discardBuffered() {
+        ByteBuffer in = connection.input();
+        if (remaining > in.remaining()) {
+            return false;
+        }
+        in.position(in.position() + (int) remaining);
+        remaining = 0;
+        return true;
+    }
+}
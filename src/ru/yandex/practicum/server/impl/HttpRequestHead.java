@@ -0,0 +1,186 @@
+package ru.yandex.practicum.server.impl;
+
+import com.sun.net.httpserver.Headers;
+import ru.yandex.practicum.exception.web.HttpBadRequestException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Стартовая строка и заголовки HTTP/1.1-запроса, разобранные из входного буфера соединения.
+ */
+class HttpRequestHead {
+    private final String method;
+    private final String target;
+    private final String protocol;
+    private final Headers headers;
+    private final long contentLength;
+    private final boolean chunked;
+    private final boolean keepAlive;
+    private final boolean expectContinue;
+
+    private HttpRequestHead(String method, String target, String protocol, Headers headers) {
+        this.method = method;
+        this.target = target;
+        this.protocol = protocol;
+        this.headers = headers;
+        this.chunked = parseChunked(headers.getFirst("Transfer-Encoding"));
+        this.contentLength = parseContentLength(headers.getFirst("Content-Length"), chunked);
+        String connection = headers.getFirst("Connection");
+        this.keepAlive = "HTTP/1.1".equals(protocol) && !"close".equalsIgnoreCase(connection);
+        this.expectContinue = "100-continue".equalsIgnoreCase(headers.getFirst("Expect"));
+    }
+
+    /**
+     * Разбирает заголовок запроса, если он целиком находится в буфере.
+     *
+     * @param in буфер в режиме чтения; при успехе позиция сдвигается за пустую строку после заголовков
+     * @return заголовок запроса или {@code null}, если он прочитан не полностью
+     * @throws HttpBadRequestException если заголовок некорректен
+     */
+    static HttpRequestHead parse(ByteBuffer in) {
+        byte[] bytes = in.array();
+        int start = in.arrayOffset() + in.position();
+        int limit = in.arrayOffset() + in.limit();
+        int end = findHeadEnd(bytes, start, limit);
+        if (end == -1) {
+            return null;
+        }
+
+        int lineEnd = lineEnd(bytes, start, end);
+        String[] requestLine = ascii(bytes, start, lineEnd).split(" ");
+        if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+            throw new HttpBadRequestException("Malformed request line");
+        }
+        Headers headers = new Headers();
+        int pos = skipLineBreak(bytes, lineEnd);
+        while (pos < end) {
+            lineEnd = lineEnd(bytes, pos, end);
+            int colon = indexOf(bytes, pos, lineEnd, (byte) ':');
+            if (colon <= pos) {
+                throw new HttpBadRequestException("Malformed header line");
+            }
+            headers.add(ascii(bytes, pos, colon), ascii(bytes, colon + 1, lineEnd).trim());
+            pos = skipLineBreak(bytes, lineEnd);
+        }
+        in.position(skipLineBreak(bytes, end) - in.arrayOffset());
+        return new HttpRequestHead(requestLine[0], requestLine[1], requestLine[2], headers);
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    String getTarget() {
+        return target;
+    }
+
+    String getPath() {
+        int query = target.indexOf('?');
+        return query == -1 ? target : target.substring(0, query);
+    }
+
+    String getProtocol() {
+        return protocol;
+    }
+
+    Headers getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return длина тела из {@code Content-Length}; {@code 0}, если заголовка нет; {@code -1} для chunked
+     */
+    long getContentLength() {
+        return contentLength;
+    }
+
+    boolean isChunked() {
+        return chunked;
+    }
+
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    boolean isExpectContinue() {
+        return expectContinue;
+    }
+
+    /**
+     * Ищет пустую строку, завершающую заголовки.
+     *
+     * @return индекс начала завершающего перевода строки или {@code -1}
+     */
+    private static int findHeadEnd(byte[] bytes, int start, int limit) {
+        for (int i = start; i < limit; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            if (i + 1 < limit && bytes[i + 1] == '\n') {
+                return i + 1;
+            }
+            if (i + 2 < limit && bytes[i + 1] == '\r' && bytes[i + 2] == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int lineEnd(byte[] bytes, int from, int limit) {
+        int lf = indexOf(bytes, from, limit, (byte) '\n');
+        int end = lf == -1 ? limit : lf;
+        return end > from && bytes[end - 1] == '\r' ? end - 1 : end;
+    }
+
+    private static int skipLineBreak(byte[] bytes, int pos) {
+        if (bytes[pos] == '\r') {
+            pos++;
+        }
+        return pos + 1;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int limit, byte value) {
+        for (int i = from; i < limit; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String ascii(byte[] bytes, int from, int to) {
+        return new String(bytes, from, to - from, StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean parseChunked(String transferEncoding) {
+        if (transferEncoding == null) {
+            return false;
+        }
+        if (!"chunked".equalsIgnoreCase(transferEncoding.trim())) {
+            throw new HttpBadRequestException("Unsupported Transfer-Encoding: " + transferEncoding);
+        }
+        return true;
+    }
+
+    private static long parseContentLength(String contentLength, boolean chunked) {
+        if (chunked) {
+            if (contentLength != null) {
+                throw new HttpBadRequestException("Both Content-Length and Transfer-Encoding are present");
+            }
+            return -1;
+        }
+        if (contentLength == null) {
+            return 0;
+        }
+        try {
+            long length = Long.parseLong(contentLength.trim());
+            if (length < 0) {
+                throw new HttpBadRequestException("Invalid Content-Length: " + contentLength);
+            }
+            return length;
+        } catch (NumberFormatException e) {
+            throw new HttpBadRequestException("Invalid Content-Length: " + contentLength);
+        }
+    }
+}
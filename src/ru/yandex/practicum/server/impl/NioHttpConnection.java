@@ -0,0 +1,369 @@
+package ru.yandex.practicum.server.impl;
+
+import ru.yandex.practicum.exception.web.HttpRequestException;
+import ru.yandex.practicum.limiter.QueueTimeExecutor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Соединение {@link NioHttpServer}: буферы, разбор запросов и передача владения между потоками.
+ *
+ * <p>Пока соединение ждёт очередной запрос, им владеет поток селектора: он дочитывает
+ * данные и разбирает заголовок. Разобранный запрос вместе с соединением передаётся
+ * обработчику — в пул потоков или, для запросов с уже прочитанным телом при включённом
+ * {@code httpInlineHandlers}, прямо в потоке селектора. Обработчик читает тело и пишет ответ
+ * через те же буферы, а когда данных или места в сокете нет, паркуется до сигнала селектора.
+ * Закончив, он сразу берёт следующий запрос из буфера, если клиент прислал их подряд
+ * (конвейеризация), или возвращает соединение селектору.</p>
+ *
+ * <p>Входной и выходной буферы живут всё время соединения. Ответ копится в выходном буфере
+ * и отправляется при его заполнении или закрытии обмена, поэтому короткий ответ вместе
+ * с заголовками уходит одной записью.</p>
+ */
+class NioHttpConnection {
+    private static final Logger log = Logger.getLogger(NioHttpConnection.class.getName());
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_HEAD_SIZE = 64 * 1024;
+    private static final int OUTPUT_HIGH_WATER_MARK = 256 * 1024;
+    private static final long IO_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final NioHttpServer server;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final Thread selectorThread;
+    private final InetSocketAddress remoteAddress;
+    private ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER_SIZE).flip();
+    private ByteBuffer out = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private volatile boolean busy;
+    private volatile Thread waiter;
+    private volatile boolean closed;
+    private boolean closeAfterFlush;
+
+    NioHttpConnection(NioHttpServer server, SocketChannel channel, SelectionKey key, Thread selectorThread) {
+        this.server = server;
+        this.channel = channel;
+        this.key = key;
+        this.selectorThread = selectorThread;
+        this.remoteAddress = remoteAddress(channel);
+    }
+
+    /**
+     * Вызывается потоком селектора, когда сокет готов к операциям из текущего набора интересов.
+     */
+    void onSelected() throws IOException {
+        if (busy) {
+            key.interestOps(0);
+            Thread thread = waiter;
+            waiter = null;
+            LockSupport.unpark(thread);
+            return;
+        }
+        if (key.isWritable()) {
+            if (!flushNonBlocking()) {
+                return;
+            }
+            if (closeAfterFlush) {
+                close();
+                return;
+            }
+        } else if (key.isReadable() && readNonBlocking() == -1) {
+            close();
+            return;
+        }
+        startNext();
+    }
+
+    /**
+     * Начинает обработку следующего запроса из буфера или ждёт данных, если он прочитан не полностью.
+     * Вызывается потоком, владеющим соединением.
+     */
+    private void startNext() throws IOException {
+        NioHttpExchange exchange = nextExchange();
+        if (exchange == null) {
+            return;
+        }
+        if (isInline(exchange)) {
+            serve(exchange);
+            return;
+        }
+        try {
+            server.getWorkerExecutor().execute(() -> serve(exchange));
+        } catch (RejectedExecutionException e) {
+            log.warning("Worker executor rejected request, closing connection");
+            close();
+        }
+    }
+
+    private void serve(NioHttpExchange exchange) {
+        NioHttpExchange current = exchange;
+        try {
+            while (current != null) {
+                server.handle(current);
+                if (closed || !current.isKeepAlive()) {
+                    closeGracefully();
+                    return;
+                }
+                current = nextExchange();
+                QueueTimeExecutor.resetQueuedNanos();
+                if (current != null && Thread.currentThread() == selectorThread && !isInline(current)) {
+                    NioHttpExchange next = current;
+                    server.getWorkerExecutor().execute(() -> serve(next));
+                    return;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.FINE, "Http connection closed", e);
+            close();
+        }
+    }
+
+    /**
+     * Разбирает следующий запрос из буфера. Если запроса в буфере нет целиком, соединение
+     * возвращается селектору.
+     *
+     * @return обмен для следующего запроса или {@code null}
+     */
+    private NioHttpExchange nextExchange() throws IOException {
+        busy = true;
+        if (out.position() >= OUTPUT_HIGH_WATER_MARK && !flushNonBlocking()) {
+            release(SelectionKey.OP_WRITE);
+            return null;
+        }
+        HttpRequestHead head;
+        try {
+            head = HttpRequestHead.parse(in);
+        } catch (HttpRequestException e) {
+            rejectHead(e.getCode(), e.getMessage());
+            return null;
+        }
+        if (head != null) {
+            key.interestOps(0);
+            return new NioHttpExchange(this, head);
+        }
+        if (in.position() == 0 && in.limit() == in.capacity()) {
+            if (in.capacity() >= MAX_HEAD_SIZE) {
+                rejectHead(431, "Request header fields too large");
+                return null;
+            }
+            in = grow(in.compact(), in.capacity() * 2).flip();
+        }
+        release(out.position() > 0 ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        return null;
+    }
+
+    private boolean isInline(NioHttpExchange exchange) {
+        return server.isInlineHandlers() && exchange.isBodyBuffered();
+    }
+
+    private void release(int interestOps) {
+        busy = false;
+        key.interestOps(interestOps);
+        if (Thread.currentThread() != selectorThread) {
+            key.selector().wakeup();
+        }
+    }
+
+    private void rejectHead(int code, String message) throws IOException {
+        NioHttpExchange.writeError(this, code, message);
+        closeGracefully();
+    }
+
+    /**
+     * Закрывает соединение после отправки накопленного ответа. Поток селектора не ждёт сокет,
+     * а оставляет отправку остатка и закрытие селектору.
+     */
+    private void closeGracefully() throws IOException {
+        if (Thread.currentThread() != selectorThread) {
+            flushBlocking();
+            close();
+        } else if (flushNonBlocking()) {
+            close();
+        } else {
+            closeAfterFlush = true;
+            release(SelectionKey.OP_WRITE);
+        }
+    }
+
+    ByteBuffer input() {
+        return in;
+    }
+
+    /**
+     * Дочитывает данные во входной буфер, при необходимости ожидая их поступления.
+     *
+     * @return число прочитанных байт или {@code -1}, если клиент закрыл соединение
+     */
+    int fill() throws IOException {
+        while (true) {
+            int n = readNonBlocking();
+            if (n != 0) {
+                return n;
+            }
+            await(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Читает данные напрямую в массив вызывающей стороны, минуя входной буфер. Используется только
+     * когда буфер пуст, а длина запрошенного фрагмента не выходит за границы тела текущего запроса.
+     */
+    int readDirect(byte[] b, int off, int len) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(b, off, len);
+        while (true) {
+            int n = channel.read(target);
+            if (n != 0) {
+                return n;
+            }
+            await(SelectionKey.OP_READ);
+        }
+    }
+
+    private int readNonBlocking() throws IOException {
+        in.compact();
+        try {
+            return channel.read(in);
+        } finally {
+            in.flip();
+        }
+    }
+
+    void sendContinue() throws IOException {
+        write(CONTINUE, 0, CONTINUE.length);
+        flushBlocking();
+    }
+
+    void write(int b) throws IOException {
+        if (!out.hasRemaining()) {
+            makeRoom(1);
+        }
+        out.put((byte) b);
+    }
+
+    void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (!out.hasRemaining()) {
+                makeRoom(len);
+            }
+            int n = Math.min(len, out.remaining());
+            out.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    void writeAscii(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            write(text.charAt(i));
+        }
+    }
+
+    /**
+     * Отправляет накопленный ответ. В потоке селектора не ждёт освобождения сокета:
+     * остаток будет отправлен селектором после завершения обмена.
+     */
+    void flush() throws IOException {
+        if (Thread.currentThread() == selectorThread) {
+            flushNonBlocking();
+        } else {
+            flushBlocking();
+        }
+    }
+
+    private void makeRoom(int needed) throws IOException {
+        flush();
+        if (!out.hasRemaining()) {
+            out = grow(out, out.capacity() + Math.max(needed, INITIAL_BUFFER_SIZE));
+        }
+    }
+
+    private void flushBlocking() throws IOException {
+        while (!flushNonBlocking()) {
+            await(SelectionKey.OP_WRITE);
+        }
+    }
+
+    private boolean flushNonBlocking() throws IOException {
+        if (out.position() == 0) {
+            return true;
+        }
+        out.flip();
+        try {
+            channel.write(out);
+            return !out.hasRemaining();
+        } finally {
+            out.compact();
+        }
+    }
+
+    /**
+     * Паркует владеющий соединением поток, пока селектор не сообщит о готовности сокета.
+     */
+    private void await(int interestOps) throws IOException {
+        if (Thread.currentThread() == selectorThread) {
+            throw new IllegalStateException("Selector thread cannot wait for socket readiness");
+        }
+        waiter = Thread.currentThread();
+        key.interestOps(interestOps);
+        key.selector().wakeup();
+        long deadline = System.nanoTime() + IO_TIMEOUT_NANOS;
+        while (waiter != null) {
+            if (closed) {
+                throw new IOException("Connection closed");
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new SocketTimeoutException("Http connection timed out");
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // соединение уже разорвано
+        }
+        Thread thread = waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    /**
+     * @return адрес клиента, запомненный при создании соединения, чтобы он был доступен и после закрытия
+     */
+    InetSocketAddress remoteAddress() {
+        return remoteAddress;
+    }
+
+    private static InetSocketAddress remoteAddress(SocketChannel channel) {
+        try {
+            return (InetSocketAddress) channel.getRemoteAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        return ByteBuffer.allocate(capacity).put(buffer.flip());
+    }
+}
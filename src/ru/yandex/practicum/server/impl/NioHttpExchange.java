@@ -0,0 +1,278 @@
+package ru.yandex.practicum.server.impl;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Обмен запрос-ответ {@link NioHttpServer}.
+ *
+ * <p>Семантика совпадает с обменом встроенного сервера: {@link #sendResponseHeaders(int, long)}
+ * с положительной длиной задаёт тело фиксированного размера, с нулевой — тело с
+ * {@code Transfer-Encoding: chunked}, с {@code -1} — ответ без тела. Заголовок ответа
+ * {@code Connection: close}, заданный обработчиком, закрывает соединение после обмена. Тело запроса
+ * и ответа читается и пишется через буферы соединения.</p>
+ */
+class NioHttpExchange extends HttpExchange {
+    private static final Logger log = Logger.getLogger(NioHttpExchange.class.getName());
+
+    private final NioHttpConnection connection;
+    private final HttpRequestHead head;
+    private final Headers responseHeaders = new Headers();
+    private final RequestBodyInputStream requestBody;
+    private final ResponseOutputStream responseBody;
+    private InputStream filteredRequestBody;
+    private OutputStream filteredResponseBody;
+    private NioHttpContext context;
+    private Map<String, Object> attributes;
+    private URI requestUri;
+    private int responseCode = -1;
+    private boolean keepAlive;
+    private boolean closed;
+
+    NioHttpExchange(NioHttpConnection connection, HttpRequestHead head) {
+        this.connection = connection;
+        this.head = head;
+        this.keepAlive = head.isKeepAlive();
+        this.requestBody = head.isChunked()
+                ? new ChunkedInputStream(connection, head.isExpectContinue())
+                : new FixedLengthInputStream(connection, head.getContentLength(), head.isExpectContinue());
+        this.responseBody = new ResponseOutputStream(connection);
+    }
+
+    /**
+     * @return {@code true}, если тело запроса уже целиком прочитано в буфер соединения
+     */
+    boolean isBodyBuffered() {
+        return !head.isChunked() && !head.isExpectContinue()
+                && connection.input().remaining() >= head.getContentLength();
+    }
+
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    String getRequestPath() {
+        return head.getPath();
+    }
+
+    void setContext(NioHttpContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public Headers getRequestHeaders() {
+        return head.getHeaders();
+    }
+
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        if (requestUri == null) {
+            requestUri = URI.create(head.getTarget());
+        }
+        return requestUri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return head.getMethod();
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return context;
+    }
+
+    /**
+     * Завершает ответ и отбрасывает непрочитанный остаток тела запроса, если он уже в буфере.
+     * Если остаток ещё не получен или ответ не был начат, соединение после обмена закрывается.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (responseCode == -1) {
+            keepAlive = false;
+            return;
+        }
+        try {
+            responseBody.finish();
+            if (!requestBody.discardBuffered()) {
+                keepAlive = false;
+            }
+            connection.flush();
+        } catch (IOException e) {
+            log.log(Level.FINE, "Failed to complete http exchange", e);
+            keepAlive = false;
+        }
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return filteredRequestBody != null ? filteredRequestBody : requestBody;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return filteredResponseBody != null ? filteredResponseBody : responseBody;
+    }
+
+    @Override
+    public void sendResponseHeaders(int code, long responseLength) throws IOException {
+        if (responseCode != -1) {
+            throw new IOException("headers already sent");
+        }
+        responseCode = code;
+        if ("close".equalsIgnoreCase(responseHeaders.getFirst("Connection"))) {
+            keepAlive = false;
+        }
+        boolean noBody = responseLength == -1 || code == 204 || code == 304 || "HEAD".equals(head.getMethod());
+
+        writeStatusLine(connection, code);
+        for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            String name = header.getKey();
+            if ("Content-length".equals(name) || "Transfer-encoding".equals(name) || "Connection".equals(name)) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                writeHeader(connection, name, value);
+            }
+        }
+        if (noBody) {
+            if (code != 204 && code != 304) {
+                writeHeader(connection, "Content-Length", "0");
+            }
+            responseBody.start(-1);
+        } else if (responseLength > 0) {
+            writeHeader(connection, "Content-Length", Long.toString(responseLength));
+            responseBody.start(responseLength);
+        } else {
+            writeHeader(connection, "Transfer-Encoding", "chunked");
+            responseBody.start(0);
+        }
+        if (!keepAlive) {
+            writeHeader(connection, "Connection", "close");
+        }
+        connection.writeAscii("\r\n");
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return connection.remoteAddress();
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        try {
+            return (InetSocketAddress) connection.channel().getLocalAddress();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String getProtocol() {
+        return head.getProtocol();
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes == null ? null : attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (attributes == null) {
+            attributes = new HashMap<>();
+        }
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void setStreams(InputStream i, OutputStream o) {
+        if (i != null) {
+            filteredRequestBody = i;
+        }
+        if (o != null) {
+            filteredResponseBody = o;
+        }
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+
+    /**
+     * Записывает в соединение полный ответ с текстом ошибки и заголовком {@code Connection: close}.
+     */
+    static void writeError(NioHttpConnection connection, int code, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        writeStatusLine(connection, code);
+        writeHeader(connection, "Content-Length", Integer.toString(body.length));
+        writeHeader(connection, "Connection", "close");
+        connection.writeAscii("\r\n");
+        connection.write(body, 0, body.length);
+    }
+
+    private static void writeStatusLine(NioHttpConnection connection, int code) throws IOException {
+        connection.writeAscii("HTTP/1.1 ");
+        connection.writeAscii(Integer.toString(code));
+        connection.write(' ');
+        connection.writeAscii(reasonPhrase(code));
+        connection.writeAscii("\r\n");
+    }
+
+    private static void writeHeader(NioHttpConnection connection, String name, String value) throws IOException {
+        connection.writeAscii(name);
+        connection.writeAscii(": ");
+        connection.writeAscii(value);
+        connection.writeAscii("\r\n");
+    }
+
+    private static String reasonPhrase(int code) {
+        return switch (code) {
+            case 200 -> "OK";
+            case 204 -> "No Content";
+            case 400 -> "Bad Request";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 413 -> "Payload Too Large";
+            case 415 -> "Unsupported Media Type";
+            case 429 -> "Too Many Requests";
+            case 431 -> "Request Header Fields Too Large";
+            case 500 -> "Internal Server Error";
+            case 503 -> "Service Unavailable";
+            default -> "";
+        };
+    }
+}
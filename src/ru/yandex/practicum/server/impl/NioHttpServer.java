@@ -0,0 +1,339 @@
+package ru.yandex.practicum.server.impl;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * HTTP/1.1-сервер на неблокирующих сокетах, совместимый с API {@link HttpServer}.
+ *
+ * <p>Контексты, обработчики и фильтры регистрируются так же, как во встроенном сервере, поэтому
+ * {@link ru.yandex.practicum.context.web.WebContext} и обработчики приложения работают с обоими
+ * серверами без изменений. В отличие от встроенного сервера, соединения обслуживаются
+ * несколькими потоками селекторов, поддерживаются keep-alive и конвейеризация запросов,
+ * а буферы создаются на соединение, а не на обмен (см. {@link NioHttpConnection}).</p>
+ *
+ * <p>Модель исполнения обработчиков:</p>
+ * <ul>
+ *   <li>обработчики выполняются в пуле, заданном {@link #setExecutor(Executor)}; если пул
+ *   не задан, используется внутренний пул с созданием потоков по требованию;</li>
+ *   <li>если включено исполнение в потоке селектора, запросы, тело которых уже целиком
+ *   прочитано, обрабатываются без передачи в пул. Это выгодно для коротких запросов и быстрых
+ *   обработчиков, но медленный обработчик задерживает все соединения своего селектора.</li>
+ * </ul>
+ */
+public class NioHttpServer extends HttpServer {
+    private static final Logger log = Logger.getLogger(NioHttpServer.class.getName());
+    private static final byte[] NOT_FOUND = "No context found for request".getBytes(StandardCharsets.UTF_8);
+
+    private final int selectorThreads;
+    private final boolean inlineHandlers;
+    private final List<NioHttpContext> contexts = new CopyOnWriteArrayList<>();
+    private ServerSocketChannel serverChannel;
+    private SelectorLoop[] loops;
+    private Executor executor;
+    private ExecutorService defaultExecutor;
+    private volatile boolean running;
+
+    public NioHttpServer(int selectorThreads, boolean inlineHandlers) {
+        this.selectorThreads = selectorThreads;
+        this.inlineHandlers = inlineHandlers;
+    }
+
+    public static NioHttpServer create(InetSocketAddress address, int backlog, int selectorThreads,
+                                       boolean inlineHandlers) throws IOException {
+        NioHttpServer server = new NioHttpServer(selectorThreads, inlineHandlers);
+        if (address != null) {
+            server.bind(address, backlog);
+        }
+        return server;
+    }
+
+    @Override
+    public void bind(InetSocketAddress addr, int backlog) throws IOException {
+        if (serverChannel != null) {
+            throw new BindException("HttpServer already bound");
+        }
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.bind(addr, backlog);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        serverChannel = channel;
+    }
+
+    @Override
+    public void start() {
+        if (serverChannel == null || running) {
+            throw new IllegalStateException("server in wrong state");
+        }
+        if (executor == null) {
+            AtomicInteger ids = new AtomicInteger();
+            defaultExecutor = Executors.newCachedThreadPool(task -> new Thread(task, "http-worker-" + ids.incrementAndGet()));
+        }
+        loops = new SelectorLoop[selectorThreads];
+        try {
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new SelectorLoop(Selector.open());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open selector", e);
+        }
+        running = true;
+        for (int i = 0; i < loops.length; i++) {
+            loops[i].thread = new Thread(loops[i], "http-selector-" + i);
+            loops[i].thread.start();
+        }
+        new Thread(this::acceptLoop, "http-acceptor").start();
+    }
+
+    @Override
+    public void setExecutor(Executor executor) {
+        if (running) {
+            throw new IllegalStateException("server already started");
+        }
+        this.executor = executor;
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Прекращает приём соединений и закрывает открытые соединения; обмены в процессе прерываются.
+     * {@code delay} ограничивает ожидание остановки потоков селекторов в секундах.
+     */
+    @Override
+    public void stop(int delay) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("negative delay parameter");
+        }
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to close http listener", e);
+        }
+        if (loops != null) {
+            for (SelectorLoop loop : loops) {
+                loop.selector.wakeup();
+            }
+            long deadline = System.currentTimeMillis() + delay * 1000L;
+            for (SelectorLoop loop : loops) {
+                try {
+                    loop.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (defaultExecutor != null) {
+            defaultExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public HttpContext createContext(String path, HttpHandler handler) {
+        if (path == null || !path.startsWith("/")) {
+            throw new IllegalArgumentException("Illegal value for path or protocol");
+        }
+        synchronized (contexts) {
+            if (contexts.stream().anyMatch(context -> context.getPath().equals(path))) {
+                throw new IllegalArgumentException("cannot add context to list");
+            }
+            NioHttpContext context = new NioHttpContext(path, handler, this);
+            contexts.add(context);
+            return context;
+        }
+    }
+
+    @Override
+    public HttpContext createContext(String path) {
+        return createContext(path, null);
+    }
+
+    @Override
+    public void removeContext(String path) {
+        NioHttpContext context = contexts.stream()
+                .filter(c -> c.getPath().equals(path))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("cannot remove element from list"));
+        contexts.remove(context);
+    }
+
+    @Override
+    public void removeContext(HttpContext context) {
+        if (!contexts.remove(context)) {
+            throw new IllegalArgumentException("cannot remove element from list");
+        }
+    }
+
+    @Override
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new IllegalStateException("Http listener is closed", e);
+        }
+    }
+
+    boolean isInlineHandlers() {
+        return inlineHandlers;
+    }
+
+    Executor getWorkerExecutor() {
+        return executor != null ? executor : defaultExecutor;
+    }
+
+    /**
+     * Выполняет обмен: находит контекст с самым длинным совпадающим префиксом пути и пропускает
+     * запрос через его фильтры и обработчик. Обмен закрывается в любом случае.
+     */
+    void handle(NioHttpExchange exchange) {
+        try {
+            NioHttpContext context = findContext(exchange.getRequestPath());
+            if (context == null || context.getHandler() == null) {
+                exchange.sendResponseHeaders(404, NOT_FOUND.length);
+                exchange.getResponseBody().write(NOT_FOUND);
+                return;
+            }
+            exchange.setContext(context);
+            new Filter.Chain(context.getFilters(), context.getHandler()).doFilter(exchange);
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.WARNING, "Unhandled exception in http handler", e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private NioHttpContext findContext(String path) {
+        NioHttpContext found = null;
+        for (NioHttpContext context : contexts) {
+            String contextPath = context.getPath();
+            if (path.startsWith(contextPath) && (found == null || contextPath.length() > found.getPath().length())) {
+                found = context;
+            }
+        }
+        return found;
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                loops[next].register(channel);
+                next = (next + 1) % loops.length;
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Failed to accept http connection", e);
+            }
+        }
+    }
+
+    private class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        private Thread thread;
+
+        private SelectorLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        private void register(SocketChannel channel) {
+            pending.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerPending();
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        handle(key);
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                log.log(Level.WARNING, "Http selector loop failed", e);
+            } finally {
+                closeAll();
+            }
+        }
+
+        private void registerPending() throws IOException {
+            SocketChannel channel;
+            while ((channel = pending.poll()) != null) {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new NioHttpConnection(NioHttpServer.this, channel, key, thread));
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            NioHttpConnection connection = (NioHttpConnection) key.attachment();
+            if (!key.isValid()) {
+                return;
+            }
+            try {
+                connection.onSelected();
+            } catch (IOException e) {
+                log.fine("Http connection closed: " + e.getMessage());
+                connection.close();
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "Failed to process http connection", e);
+                connection.close();
+            }
+        }
+
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                ((NioHttpConnection) key.attachment()).close();
+            }
+            SocketChannel channel;
+            while ((channel = pending.poll()) != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // сервер уже останавливается
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Failed to close http selector", e);
+            }
+        }
+    }
+}
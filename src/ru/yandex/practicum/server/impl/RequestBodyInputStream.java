@@ -0,0 +1,53 @@
+package ru.yandex.practicum.server.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Тело запроса {@link NioHttpServer}, читаемое из буфера соединения.
+ *
+ * <p>Если клиент прислал {@code Expect: 100-continue}, промежуточный ответ {@code 100 Continue}
+ * отправляется при первом чтении, то есть только если обработчик действительно читает тело.</p>
+ */
+abstract class RequestBodyInputStream extends InputStream {
+    protected final NioHttpConnection connection;
+    private boolean expectContinue;
+
+    protected RequestBodyInputStream(NioHttpConnection connection, boolean expectContinue) {
+        this.connection = connection;
+        this.expectContinue = expectContinue;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (expectContinue) {
+            expectContinue = false;
+            connection.sendContinue();
+        }
+        return readBody(b, off, len);
+    }
+
+    protected abstract int readBody(byte[] b, int off, int len) throws IOException;
+
+    /**
+     * Пропускает непрочитанный остаток тела, если он уже целиком находится в буфере соединения.
+     *
+     * @return {@code false}, если остаток ещё не получен и следующий запрос не может быть прочитан
+     */
+    abstract boolean discardBuffered();
+
+    protected void fillOrFail() throws IOException {
+        if (connection.fill() == -1) {
+            throw new IOException("Unexpected end of request body");
+        }
+    }
+}
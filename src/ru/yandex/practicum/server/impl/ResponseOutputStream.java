@@ -0,0 +1,99 @@
+package ru.yandex.practicum.server.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Тело ответа {@link NioHttpServer}, записываемое в выходной буфер соединения.
+ *
+ * <p>Поток можно получить до {@link NioHttpExchange#sendResponseHeaders(int, long)}, но писать
+ * в него можно только после отправки заголовков. В режиме chunked каждый вызов
+ * {@link #write(byte[], int, int)} становится отдельным фрагментом.</p>
+ */
+class ResponseOutputStream extends OutputStream {
+    private static final int NOT_STARTED = 0;
+    private static final int NO_BODY = 1;
+    private static final int FIXED_LENGTH = 2;
+    private static final int CHUNKED = 3;
+
+    private final NioHttpConnection connection;
+    private int mode = NOT_STARTED;
+    private long remaining;
+    private boolean finished;
+
+    ResponseOutputStream(NioHttpConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @param length длина тела; {@code 0} для chunked, {@code -1} для ответа без тела
+     */
+    void start(long length) {
+        if (length < 0) {
+            mode = NO_BODY;
+        } else if (length == 0) {
+            mode = CHUNKED;
+        } else {
+            mode = FIXED_LENGTH;
+            remaining = length;
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("stream is closed");
+        }
+        switch (mode) {
+            case NOT_STARTED -> throw new IOException("response headers not sent yet");
+            case NO_BODY -> throw new IOException("response has no body");
+            case FIXED_LENGTH -> {
+                if (len > remaining) {
+                    throw new IOException("too many bytes to write to stream");
+                }
+                connection.write(b, off, len);
+                remaining -= len;
+            }
+            default -> {
+                if (len > 0) {
+                    connection.writeAscii(Integer.toHexString(len));
+                    connection.writeAscii("\r\n");
+                    connection.write(b, off, len);
+                    connection.writeAscii("\r\n");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (mode != NOT_STARTED && !finished) {
+            connection.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    /**
+     * Завершает тело ответа без отправки буфера; отправку выполняет обмен при закрытии.
+     */
+    void finish() throws IOException {
+        if (finished || mode == NOT_STARTED) {
+            return;
+        }
+        finished = true;
+        if (mode == CHUNKED) {
+            connection.writeAscii("0\r\n\r\n");
+        } else if (mode == FIXED_LENGTH && remaining > 0) {
+            throw new IOException("insufficient bytes written to stream");
+        }
+    }
+}
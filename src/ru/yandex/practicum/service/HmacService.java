@@ -1,14 +1,40 @@
 package ru.yandex.practicum.service;
 
+import ru.yandex.practicum.crypto.Keyring;
+import ru.yandex.practicum.schema.SignBatchResponseDto;
 import ru.yandex.practicum.schema.SignRequestDto;
 import ru.yandex.practicum.schema.SignResponseDto;
+import ru.yandex.practicum.schema.VerifyBatchResponseDto;
 import ru.yandex.practicum.schema.VerifyRequestDto;
 import ru.yandex.practicum.schema.VerifyResponseDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 public interface HmacService {
     SignResponseDto sign(SignRequestDto signRequestDto);
 
     VerifyResponseDto verify(VerifyRequestDto verifyRequestDto);
 
-    void init(String secret, String algorithm);
+    VerifyResponseDto verify(VerifyRequestDto verifyRequestDto, byte[] signature);
+
+    SignBatchResponseDto signBatch(String[] messages);
+
+    int getMacLength();
+
+    int sign(byte[] message, int offset, int length, byte[] out, int outOffset);
+
+    boolean verify(byte[] message, int offset, int length, byte[] mac, int macOffset, int macLength);
+
+    SignResponseDto signStream(InputStream message) throws IOException;
+
+    SignResponseDto signTree(InputStream message) throws IOException;
+
+    VerifyResponseDto verifyStream(InputStream message, String signature, String kid) throws IOException;
+
+    VerifyBatchResponseDto verifyBatch(VerifyRequestDto[] requests, byte[][] signatures, String[] errors);
+
+    void init(String keyId, String secret, String algorithm);
+
+    Keyring getKeyring();
 }
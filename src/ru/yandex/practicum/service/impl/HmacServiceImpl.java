@@ -4,18 +4,29 @@ import ru.yandex.practicum.codec.Codec;
 import ru.yandex.practicum.codec.impl.Base64Codec;
 import ru.yandex.practicum.constant.AppConstants;
 import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.crypto.Keyring;
+import ru.yandex.practicum.crypto.MacEngine;
+import ru.yandex.practicum.crypto.MacEngineType;
+import ru.yandex.practicum.crypto.MacSession;
+import ru.yandex.practicum.crypto.TreeMac;
 import ru.yandex.practicum.exception.app.InternalServerException;
+import ru.yandex.practicum.schema.SignBatchResponseDto;
 import ru.yandex.practicum.schema.SignRequestDto;
 import ru.yandex.practicum.schema.SignResponseDto;
+import ru.yandex.practicum.schema.VerifyBatchResponseDto;
 import ru.yandex.practicum.schema.VerifyRequestDto;
 import ru.yandex.practicum.schema.VerifyResponseDto;
 import ru.yandex.practicum.service.HmacService;
+import ru.yandex.practicum.util.BoundedCache;
+import ru.yandex.practicum.util.StripedPool;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.security.InvalidKeyException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * Реализация сервиса для создания и проверки HMAC-подписей.
@@ -29,73 +40,395 @@ import java.security.NoSuchAlgorithmException;
  *
  * <p>Для кодирования/декодирования данных используется {@link Codec}, получаемый из
  * контекста приложения ({@link AppContext}).</p>
+ *
+ * <p>Ключи хранятся в {@link Keyring}: секрет декодируется и движок {@link MacEngine}, выбранный
+ * параметром {@code hmacEngine} конфигурации, строится один раз при добавлении ключа. Подписи
+ * вычисляются активным ключом и возвращаются вместе с его идентификатором ({@code kid}),
+ * а проверка выбирает ключ по {@code kid} запроса; без {@code kid} используется активный ключ.
+ * Двоичные форматы не передают {@code kid} и всегда используют активный ключ.</p>
+ *
+ * <p>При заданном {@code signatureCacheSize} подписи {@link #sign(SignRequestDto)} кэшируются
+ * в {@link BoundedCache} по SHA-256 сообщения и ключу, которым они вычислены. Одновременные
+ * запросы одного сообщения вычисляют HMAC один раз. Кэш очищается при любом изменении набора ключей,
+ * а запись, вычисленная заменённым ключом, не совпадёт по ключу кэша с новой.</p>
  */
 public class HmacServiceImpl implements HmacService {
-    private byte[] secret;
-    private String algorithm;
-    private boolean isInitialized;
+    private static final int PARALLEL_BATCH_THRESHOLD = 256;
+    private static final int STREAM_CHUNK_SIZE = 16 * 1024;
+    private static final StripedPool<byte[]> STREAM_CHUNKS = new StripedPool<>(() -> new byte[STREAM_CHUNK_SIZE]);
+    private static final StripedPool<MessageDigest> DIGESTS = new StripedPool<>(HmacServiceImpl::newSha256);
+    private static final int MAX_MAC_LENGTH = 64;
+    private static final StripedPool<byte[]> SIGNATURE_BUFFERS =
+            new StripedPool<>(() -> new byte[MAX_MAC_LENGTH + (MAX_MAC_LENGTH + 2) / 3 * 4]);
+    private static final TreeMac TREE_MAC = new TreeMac(ForkJoinPool.commonPool());
+
+    private volatile Keyring keyring;
     private final Codec codec;
+    private final MacEngineType engineType;
+    private final BoundedCache<SignatureKey, String> signatureCache;
 
     public HmacServiceImpl() {
+        this(AppContext.getSignatureCacheSize(), AppContext.getSignatureCacheTtlMillis());
+    }
+
+    /**
+     * @param signatureCacheSize      размер кэша подписей; {@code 0} выключает кэш
+     * @param signatureCacheTtlMillis время жизни подписи в кэше
+     */
+    public HmacServiceImpl(int signatureCacheSize, long signatureCacheTtlMillis) {
         this.codec = AppContext.getBean(Base64Codec.class);
+        this.engineType = AppContext.getHmacEngine();
+        this.signatureCache = signatureCacheSize > 0
+                ? new BoundedCache<>(signatureCacheSize, signatureCacheTtlMillis)
+                : null;
     }
 
     /**
      * Генерирует подпись для переданного сообщения.
      *
-     * <p>Использует внутренний метод {@link #calculateSignature(String)} для вычисления HMAC.
-     * Возвращает объект {@link SignResponseDto}, содержащий подпись в виде строки.</p>
+     * <p>Использует внутренний метод {@link #calculateSignature(MacEngine, byte[])} для вычисления HMAC
+     * активным ключом. Возвращает объект {@link SignResponseDto}, содержащий подпись в виде строки
+     * и идентификатор ключа.</p>
      *
      * @param signRequestDto объект с полем {@code msg}, содержащим сообщение для подписи
-     * @return объект {@link SignResponseDto}, содержащий вычисленную подпись
+     * @return объект {@link SignResponseDto}, содержащий вычисленную подпись и идентификатор ключа
      */
     @Override
     public SignResponseDto sign(SignRequestDto signRequestDto) {
-        return new SignResponseDto(calculateSignature(signRequestDto.getMsg()));
+        Keyring.Key key = requireKeyring().getActive();
+        byte[] message = signRequestDto.getMsg().getBytes(AppConstants.CHARSET);
+        String signature = signatureCache == null
+                ? calculateSignature(key.getEngine(), message)
+                : signatureCache.get(new SignatureKey(key, digest(message)),
+                        cacheKey -> calculateSignature(key.getEngine(), message));
+        return new SignResponseDto(signature, key.getId());
     }
 
     /**
      * Проверяет, соответствует ли переданная подпись сообщению.
      *
-     * <p>Вычисляет HMAC для переданного сообщения и сравнивает его с предоставленной подписью
-     * с помощью безопасного сравнения, чтобы избежать атак по времени.</p>
+     * <p>Подпись декодируется из Base64; некорректная подпись считается несовпадающей.
+     * Если подпись уже декодирована валидатором, используйте {@link #verify(VerifyRequestDto, byte[])}.</p>
      *
      * @param verifyRequestDto объект, содержащий сообщение и ожидаемую подпись
      * @return объект {@link VerifyResponseDto} с результатом проверки в виде строки "true" или "false"
      */
     @Override
     public VerifyResponseDto verify(VerifyRequestDto verifyRequestDto) {
-        String signature = calculateSignature(verifyRequestDto.getMsg());
-        return new VerifyResponseDto(
-                Boolean.toString(MessageDigest.isEqual(signature.getBytes(), verifyRequestDto.getSignature().getBytes()))
-        );
+        byte[] signature;
+        try {
+            signature = codec.decode(verifyRequestDto.getSignature().getBytes(AppConstants.CHARSET));
+        } catch (IllegalArgumentException e) {
+            return new VerifyResponseDto(Boolean.toString(false));
+        }
+        return verify(verifyRequestDto, signature);
+    }
+
+    /**
+     * Проверяет, соответствует ли декодированная подпись сообщению.
+     *
+     * <p>Ключ выбирается по {@code kid} запроса, а без него берётся активный; для неизвестного
+     * или отозванного ключа результат {@code false}.
+     * Вычисляет HMAC для переданного сообщения и сравнивает его с подписью в сыром виде,
+     * как {@link #verify(byte[], int, int, byte[], int, int)}: сначала длины, затем байты
+     * за постоянное время.</p>
+     *
+     * @param verifyRequestDto объект, содержащий сообщение
+     * @param signature        декодированная подпись
+     * @return объект {@link VerifyResponseDto} с результатом проверки в виде строки "true" или "false"
+     */
+    @Override
+    public VerifyResponseDto verify(VerifyRequestDto verifyRequestDto, byte[] signature) {
+        return new VerifyResponseDto(Boolean.toString(isValidSignature(verifyRequestDto, signature)));
+    }
+
+    /**
+     * Генерирует подписи для набора сообщений в том же порядке.
+     *
+     * <p>Небольшие пакеты обрабатываются в вызывающем потоке, пакеты от
+     * {@value #PARALLEL_BATCH_THRESHOLD} сообщений — параллельно в общем {@link java.util.concurrent.ForkJoinPool}.</p>
+     *
+     * @param messages сообщения для подписи
+     * @return объект {@link SignBatchResponseDto} с подписями в порядке сообщений и идентификатором ключа
+     */
+    @Override
+    public SignBatchResponseDto signBatch(String[] messages) {
+        Keyring.Key key = requireKeyring().getActive();
+        MacEngine macEngine = key.getEngine();
+        String[] signatures = new String[messages.length];
+        if (messages.length >= PARALLEL_BATCH_THRESHOLD) {
+            Arrays.parallelSetAll(signatures, i -> calculateSignature(macEngine, messages[i]));
+        } else {
+            Arrays.setAll(signatures, i -> calculateSignature(macEngine, messages[i]));
+        }
+        return new SignBatchResponseDto(signatures, key.getId());
+    }
+
+    @Override
+    public int getMacLength() {
+        return requireKeyring().getActive().getEngine().getMacLength();
+    }
+
+    /**
+     * Вычисляет HMAC для фрагмента массива активным ключом без кодирования в Base64.
+     *
+     * @return длина записанного HMAC
+     */
+    @Override
+    public int sign(byte[] message, int offset, int length, byte[] out, int outOffset) {
+        return requireKeyring().getActive().getEngine().doFinal(message, offset, length, out, outOffset);
+    }
+
+    /**
+     * Проверяет HMAC фрагмента массива, переданный в сыром виде, активным ключом.
+     *
+     * <p>Сначала сравниваются длины, затем байты — за время, не зависящее от позиции
+     * первого различия.</p>
+     */
+    @Override
+    public boolean verify(byte[] message, int offset, int length, byte[] mac, int macOffset, int macLength) {
+        return verify(requireKeyring().getActive().getEngine(), message, offset, length, mac, macOffset, macLength);
+    }
+
+    private static boolean verify(MacEngine macEngine, byte[] message, int offset, int length,
+                                  byte[] mac, int macOffset, int macLength) {
+        if (macLength != macEngine.getMacLength()) {
+            return false;
+        }
+        byte[] expected = new byte[macLength];
+        macEngine.doFinal(message, offset, length, expected, 0);
+        int diff = 0;
+        for (int i = 0; i < macLength; i++) {
+            diff |= expected[i] ^ mac[macOffset + i];
+        }
+        return diff == 0;
+    }
+
+    /**
+     * Генерирует подпись для сообщения, читаемого из потока.
+     *
+     * <p>Поток читается фрагментами по {@value #STREAM_CHUNK_SIZE} байт, каждый из которых сразу
+     * передаётся в {@link MacSession}, поэтому расход памяти не зависит от размера сообщения.
+     * Ограничение размера — ответственность вызывающей стороны.</p>
+     *
+     * @param message поток с сообщением; не закрывается
+     * @return объект {@link SignResponseDto}, содержащий вычисленную подпись
+     * @throws IOException при ошибке чтения потока
+     */
+    @Override
+    public SignResponseDto signStream(InputStream message) throws IOException {
+        Keyring.Key key = requireKeyring().getActive();
+        MacEngine macEngine = key.getEngine();
+        MacSession session = streamSession(macEngine, message);
+        if (macEngine.getMacLength() > MAX_MAC_LENGTH) {
+            byte[] sig = new byte[macEngine.getMacLength()];
+            session.doFinal(sig, 0);
+            return new SignResponseDto(new String(codec.encode(sig), AppConstants.CHARSET), key.getId());
+        }
+        byte[] buffer = SIGNATURE_BUFFERS.borrow();
+        String signature = encodeSignature(buffer, session.doFinal(buffer, 0));
+        SIGNATURE_BUFFERS.release(buffer);
+        return new SignResponseDto(signature, key.getId());
+    }
+
+    /**
+     * Генерирует древовидную подпись {@link TreeMac} для сообщения, читаемого из потока.
+     *
+     * <p>Фрагменты по {@value TreeMac#CHUNK_SIZE} байт подписываются параллельно в общем
+     * {@link ForkJoinPool}, поэтому на многоядерной машине большие сообщения подписываются
+     * быстрее, чем {@link #signStream(InputStream)}. Подпись возвращается с префиксом
+     * {@value TreeMac#PREFIX}.</p>
+     *
+     * @param message поток с сообщением; не закрывается
+     * @return объект {@link SignResponseDto}, содержащий подпись и идентификатор ключа
+     * @throws IOException при ошибке чтения потока
+     */
+    @Override
+    public SignResponseDto signTree(InputStream message) throws IOException {
+        Keyring.Key key = requireKeyring().getActive();
+        byte[] root = TREE_MAC.sign(key.getEngine(), message);
+        return new SignResponseDto(TreeMac.PREFIX + new String(codec.encode(root), AppConstants.CHARSET), key.getId());
+    }
+
+    /**
+     * Проверяет подпись сообщения, читаемого из потока.
+     *
+     * <p>Подпись с префиксом {@value TreeMac#PREFIX} проверяется по схеме {@link TreeMac},
+     * без префикса — как обычный HMAC {@link #signStream(InputStream)}. Ключ выбирается по
+     * {@code kid}, а без него берётся активный. Для неизвестного ключа или некорректной подписи
+     * результат {@code false}, и поток не читается.</p>
+     *
+     * @param message   поток с сообщением; не закрывается
+     * @param signature подпись в Base64, возможно с префиксом схемы
+     * @param kid       идентификатор ключа или {@code null}
+     * @return объект {@link VerifyResponseDto} с результатом проверки
+     * @throws IOException при ошибке чтения потока
+     */
+    @Override
+    public VerifyResponseDto verifyStream(InputStream message, String signature, String kid) throws IOException {
+        Keyring keys = requireKeyring();
+        Keyring.Key key = kid == null ? keys.getActive() : keys.get(kid);
+        boolean tree = signature.startsWith(TreeMac.PREFIX);
+        byte[] text = signature.substring(tree ? TreeMac.PREFIX.length() : 0).getBytes(AppConstants.CHARSET);
+        if (key == null || !codec.isValid(text, 0, text.length)) {
+            return new VerifyResponseDto(Boolean.toString(false));
+        }
+        byte[] expected = codec.decode(text);
+        MacEngine macEngine = key.getEngine();
+        byte[] actual;
+        if (tree) {
+            actual = TREE_MAC.sign(macEngine, message);
+        } else {
+            actual = new byte[macEngine.getMacLength()];
+            streamSession(macEngine, message).doFinal(actual, 0);
+        }
+        return new VerifyResponseDto(Boolean.toString(MessageDigest.isEqual(expected, actual)));
+    }
+
+    private static MacSession streamSession(MacEngine macEngine, InputStream message) throws IOException {
+        MacSession session = macEngine.newSession();
+        byte[] chunk = STREAM_CHUNKS.borrow();
+        int n;
+        while ((n = message.read(chunk)) != -1) {
+            session.update(chunk, 0, n);
+        }
+        STREAM_CHUNKS.release(chunk);
+        return session;
+    }
+
+    /**
+     * Проверяет набор пар сообщение-подпись и возвращает результат для каждой пары.
+     *
+     * <p>Элементы, для которых в {@code errors} уже указана ошибка валидации, не проверяются
+     * и получают результат {@code false}. Каждая подпись сравнивается за постоянное время,
+     * как и в {@link #verify(VerifyRequestDto, byte[])}. Пакеты от {@value #PARALLEL_BATCH_THRESHOLD}
+     * элементов проверяются параллельно в общем {@link java.util.concurrent.ForkJoinPool}.</p>
+     *
+     * @param requests   пары сообщение-подпись
+     * @param signatures декодированные подписи по индексам элементов
+     * @param errors     ошибки валидации по индексам элементов; {@code null} для корректных элементов
+     * @return объект {@link VerifyBatchResponseDto} с результатами и ошибками в порядке элементов
+     */
+    @Override
+    public VerifyBatchResponseDto verifyBatch(VerifyRequestDto[] requests, byte[][] signatures, String[] errors) {
+        boolean[] results = new boolean[requests.length];
+        IntStream indexes = IntStream.range(0, requests.length);
+        if (requests.length >= PARALLEL_BATCH_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> results[i] = errors[i] == null
+                && isValidSignature(requests[i], signatures[i]));
+        return new VerifyBatchResponseDto(results, errors);
     }
 
+    /**
+     * Создаёт набор ключей с единственным ключом {@code keyId}. Дальнейшие изменения набора
+     * выполняются через {@link #getKeyring()}.
+     */
     @Override
-    public void init(String secret, String algorithm) {
-        if (isInitialized) {
+    public void init(String keyId, String secret, String algorithm) {
+        if (keyring != null) {
             throw new InternalServerException("HmacService is already initialized");
         }
-        this.secret = secret.getBytes(AppConstants.CHARSET);
-        this.algorithm = AppConstants.HMAC + algorithm;
-        isInitialized = true;
+        Keyring newKeyring = new Keyring(engineType, AppConstants.HMAC + algorithm);
+        newKeyring.put(keyId, codec.decode(secret.getBytes(AppConstants.CHARSET)));
+        if (signatureCache != null) {
+            newKeyring.addListener(signatureCache::clear);
+        }
+        keyring = newKeyring;
     }
 
-    private String calculateSignature(String message) {
-        if (!isInitialized) {
-            throw new InternalServerException("HmacService is not initialized");
+    /**
+     * @return кэш подписей или {@code null}, если он выключен
+     */
+    public BoundedCache<?, String> getSignatureCache() {
+        return signatureCache;
+    }
+
+    @Override
+    public Keyring getKeyring() {
+        return requireKeyring();
+    }
+
+    private boolean isValidSignature(VerifyRequestDto verifyRequestDto, byte[] signature) {
+        Keyring keys = requireKeyring();
+        Keyring.Key key = verifyRequestDto.getKid() == null ? keys.getActive() : keys.get(verifyRequestDto.getKid());
+        if (key == null) {
+            return false;
         }
-        try {
-            byte[] key = codec.decode(this.secret);
-            Mac mac = Mac.getInstance(this.algorithm);
-            mac.init(new SecretKeySpec(key, this.algorithm));
-            byte[] sig = mac.doFinal(message.getBytes());
-            return new String(codec.encode(sig), AppConstants.CHARSET);
+        byte[] bytes = verifyRequestDto.getMsg().getBytes(AppConstants.CHARSET);
+        return verify(key.getEngine(), bytes, 0, bytes.length, signature, 0, signature.length);
+    }
+
+    private String calculateSignature(MacEngine macEngine, String message) {
+        return calculateSignature(macEngine, message.getBytes(AppConstants.CHARSET));
+    }
+
+    /**
+     * Вычисляет HMAC и кодирует его в Base64 в буфере из пула: MAC и его текст пишутся в один
+     * переиспользуемый массив, и на подпись создаётся только итоговая строка.
+     */
+    private String calculateSignature(MacEngine macEngine, byte[] message) {
+        if (macEngine.getMacLength() > MAX_MAC_LENGTH) {
+            return new String(codec.encode(macEngine.doFinal(message)), AppConstants.CHARSET);
+        }
+        byte[] buffer = SIGNATURE_BUFFERS.borrow();
+        String signature = encodeSignature(buffer, macEngine.doFinal(message, 0, message.length, buffer, 0));
+        SIGNATURE_BUFFERS.release(buffer);
+        return signature;
+    }
+
+    private String encodeSignature(byte[] buffer, int macLength) {
+        int length = codec.encode(buffer, 0, macLength, buffer, MAX_MAC_LENGTH);
+        return new String(buffer, MAX_MAC_LENGTH, length, AppConstants.CHARSET);
+    }
+
+    private static byte[] digest(byte[] message) {
+        MessageDigest digest = DIGESTS.borrow();
+        byte[] result = digest.digest(message);
+        DIGESTS.release(digest);
+        return result;
+    }
 
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
-            throw new InternalServerException("HMAC algorithm not found: " + e.getMessage());
-        } catch (InvalidKeyException e) {
-            throw new InternalServerException("Invalid key: " + e.getMessage());
+            throw new InternalServerException("SHA-256 is not available: " + e.getMessage());
+        }
+    }
+
+    private Keyring requireKeyring() {
+        Keyring keys = keyring;
+        if (keys == null) {
+            throw new InternalServerException("HmacService is not initialized");
+        }
+        return keys;
+    }
+
+    /**
+     * Ключ кэша подписей: SHA-256 сообщения и ключ набора. Ключ набора сравнивается по ссылке,
+     * поэтому после замены секрета под тем же {@code kid} старые записи не находятся.
+     */
+    private static final class SignatureKey {
+        private final Keyring.Key key;
+        private final byte[] digest;
+        private final int hash;
+
+        private SignatureKey(Keyring.Key key, byte[] digest) {
+            this.key = key;
+            this.digest = digest;
+            this.hash = (digest[0] & 0xFF) << 24 | (digest[1] & 0xFF) << 16 | (digest[2] & 0xFF) << 8 | (digest[3] & 0xFF);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SignatureKey other && key == other.key && Arrays.equals(digest, other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
         }
     }
 }
@@ -0,0 +1,205 @@
+package ru.yandex.practicum.tcp;
+
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.protocol.HmacFrames;
+import ru.yandex.practicum.protocol.TcpFrames;
+import ru.yandex.practicum.service.HmacService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Состояние одного клиентского соединения {@link TcpFrameServer}.
+ *
+ * <p>Входной и выходной буферы создаются один раз на соединение и растут только под кадр,
+ * который в них не помещается. Все полностью прочитанные кадры обрабатываются подряд,
+ * а ответы на них копятся в выходном буфере и отправляются одной записью, поэтому
+ * конвейеризованные запросы обходятся одним системным вызовом на чтение и одним на запись.</p>
+ *
+ * <p>Если клиент не успевает читать ответы и в выходном буфере набирается больше
+ * {@value #OUTPUT_HIGH_WATER_MARK} байт, соединение перестаёт читать новые запросы,
+ * пока буфер не будет отправлен.</p>
+ *
+ * <p>Класс не потокобезопасен: соединением владеет один поток селектора.</p>
+ */
+class TcpConnection {
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    private static final int OUTPUT_HIGH_WATER_MARK = 256 * 1024;
+    private static final int VERIFY_PREFIX_SIZE = 1 + Integer.BYTES;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final HmacService hmacService;
+    private final int maxMessageSize;
+    private final int maxFrameSize;
+    private ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private ByteBuffer out = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private int requiredInput;
+    private boolean closeAfterFlush;
+
+    TcpConnection(SocketChannel channel, SelectionKey key, HmacService hmacService, int maxMessageSize) {
+        this.channel = channel;
+        this.key = key;
+        this.hmacService = hmacService;
+        this.maxMessageSize = maxMessageSize;
+        this.maxFrameSize = VERIFY_PREFIX_SIZE + maxMessageSize + hmacService.getMacLength();
+    }
+
+    void onReadable() throws IOException {
+        if (channel.read(in) == -1) {
+            close();
+            return;
+        }
+        drive();
+    }
+
+    void onWritable() throws IOException {
+        if (flush()) {
+            drive();
+        }
+    }
+
+    void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // соединение уже разорвано
+        }
+    }
+
+    private void drive() throws IOException {
+        boolean more;
+        do {
+            more = process();
+        } while (flush() && more);
+    }
+
+    /**
+     * Обрабатывает все полностью прочитанные кадры.
+     *
+     * @return {@code true}, если обработка остановлена из-за заполнения выходного буфера
+     */
+    private boolean process() {
+        boolean paused = false;
+        in.flip();
+        while (!closeAfterFlush && in.remaining() >= TcpFrames.HEADER_SIZE) {
+            if (out.position() >= OUTPUT_HIGH_WATER_MARK) {
+                paused = true;
+                break;
+            }
+            int length = in.getInt(in.position());
+            if (length < 0 || length > maxFrameSize) {
+                writeError(TcpFrames.STATUS_FRAME_TOO_LARGE,
+                        String.format("Frame size exceeds max %d bytes", maxFrameSize));
+                closeAfterFlush = true;
+                break;
+            }
+            if (in.remaining() < TcpFrames.HEADER_SIZE + length) {
+                requiredInput = TcpFrames.HEADER_SIZE + length;
+                break;
+            }
+            handleFrame(in.array(), in.arrayOffset() + in.position() + TcpFrames.HEADER_SIZE, length);
+            in.position(in.position() + TcpFrames.HEADER_SIZE + length);
+        }
+        in.compact();
+        if (requiredInput > in.capacity()) {
+            in = grow(in, requiredInput);
+        }
+        requiredInput = 0;
+        return paused;
+    }
+
+    private void handleFrame(byte[] frame, int offset, int length) {
+        if (length == 0) {
+            writeError(TcpFrames.STATUS_BAD_REQUEST, "Frame is empty");
+            return;
+        }
+        switch (frame[offset]) {
+            case TcpFrames.OP_SIGN -> sign(frame, offset + 1, length - 1);
+            case TcpFrames.OP_VERIFY -> verify(frame, offset + 1, length - 1);
+            default -> writeError(TcpFrames.STATUS_BAD_REQUEST, "Unknown operation: " + frame[offset]);
+        }
+    }
+
+    private void sign(byte[] frame, int offset, int length) {
+        if (length > maxMessageSize) {
+            writeMessageTooLarge();
+            return;
+        }
+        int macLength = hmacService.getMacLength();
+        ensureOutput(TcpFrames.HEADER_SIZE + 1 + macLength);
+        out.putInt(1 + macLength).put(TcpFrames.STATUS_OK);
+        int written = hmacService.sign(frame, offset, length, out.array(), out.arrayOffset() + out.position());
+        out.position(out.position() + written);
+    }
+
+    private void verify(byte[] frame, int offset, int length) {
+        if (length < Integer.BYTES) {
+            writeError(TcpFrames.STATUS_BAD_REQUEST, "Truncated frame");
+            return;
+        }
+        int messageLength = ByteBuffer.wrap(frame, offset, Integer.BYTES).getInt();
+        if (messageLength < 0 || messageLength > length - Integer.BYTES) {
+            writeError(TcpFrames.STATUS_BAD_REQUEST, "Truncated frame");
+            return;
+        }
+        if (messageLength > maxMessageSize) {
+            writeMessageTooLarge();
+            return;
+        }
+        int messageOffset = offset + Integer.BYTES;
+        int macOffset = messageOffset + messageLength;
+        boolean valid = hmacService.verify(frame, messageOffset, messageLength,
+                frame, macOffset, offset + length - macOffset);
+        ensureOutput(TcpFrames.HEADER_SIZE + 2);
+        out.putInt(2).put(TcpFrames.STATUS_OK).put(valid ? HmacFrames.VALID : HmacFrames.INVALID);
+    }
+
+    private void writeMessageTooLarge() {
+        writeError(TcpFrames.STATUS_PAYLOAD_TOO_LARGE,
+                String.format("Message size exceeds max %d bytes", maxMessageSize));
+    }
+
+    private void writeError(byte status, String message) {
+        byte[] text = message.getBytes(AppConstants.CHARSET);
+        ensureOutput(TcpFrames.HEADER_SIZE + 1 + text.length);
+        out.putInt(1 + text.length).put(status).put(text);
+    }
+
+    /**
+     * Отправляет накопленные ответы, сколько примет сокет.
+     *
+     * @return {@code true}, если выходной буфер отправлен целиком
+     */
+    private boolean flush() throws IOException {
+        boolean drained = true;
+        if (out.position() > 0) {
+            out.flip();
+            channel.write(out);
+            drained = !out.hasRemaining();
+            out.compact();
+        }
+        if (!drained) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else if (closeAfterFlush) {
+            close();
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+        return drained && key.isValid();
+    }
+
+    private void ensureOutput(int extra) {
+        if (out.remaining() < extra) {
+            out = grow(out, out.position() + extra);
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int minCapacity) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, minCapacity));
+        return grown.put(buffer.flip());
+    }
+}
@@ -0,0 +1,194 @@
+package ru.yandex.practicum.tcp;
+
+import ru.yandex.practicum.protocol.TcpFrames;
+import ru.yandex.practicum.service.HmacService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * TCP-слушатель, принимающий запросы подписи и проверки в двоичном протоколе {@link TcpFrames}.
+ *
+ * <p>Работает рядом с HTTP-сервером и использует тот же {@link HmacService}, но обходится без
+ * разбора HTTP-заголовков и объектов на каждый обмен. Соединения постоянные; поток приёма
+ * распределяет их по кругу между потоками селекторов, каждый из которых обслуживает свои
+ * соединения в неблокирующем режиме. HMAC коротких сообщений дешевле передачи задачи
+ * в другой поток, поэтому кадры обрабатываются прямо в потоке селектора.</p>
+ */
+public class TcpFrameServer {
+    private static final Logger log = Logger.getLogger(TcpFrameServer.class.getName());
+
+    private final ServerSocketChannel serverChannel;
+    private final SelectorLoop[] loops;
+    private final Thread acceptor;
+    private volatile boolean running;
+
+    private TcpFrameServer(ServerSocketChannel serverChannel, int selectorThreads, HmacService hmacService,
+                           int maxMessageSize) throws IOException {
+        this.serverChannel = serverChannel;
+        this.loops = new SelectorLoop[selectorThreads];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new SelectorLoop(Selector.open(), hmacService, maxMessageSize);
+        }
+        this.acceptor = new Thread(this::acceptLoop, "tcp-acceptor");
+    }
+
+    /**
+     * Создаёт слушатель и привязывает его к адресу. Соединения принимаются после {@link #start()}.
+     *
+     * @param address         адрес для прослушивания; порт {@code 0} означает любой свободный
+     * @param selectorThreads число потоков селекторов
+     * @param hmacService     проинициализированный сервис подписи
+     * @param maxMessageSize  максимальный размер сообщения в байтах
+     */
+    public static TcpFrameServer create(InetSocketAddress address, int selectorThreads, HmacService hmacService,
+                                        int maxMessageSize) throws IOException {
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address);
+            return new TcpFrameServer(serverChannel, selectorThreads, hmacService, maxMessageSize);
+        } catch (IOException e) {
+            serverChannel.close();
+            throw e;
+        }
+    }
+
+    public void start() {
+        running = true;
+        for (int i = 0; i < loops.length; i++) {
+            new Thread(loops[i], "tcp-selector-" + i).start();
+        }
+        acceptor.start();
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to close tcp listener", e);
+        }
+        for (SelectorLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+    }
+
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new IllegalStateException("Tcp listener is closed", e);
+        }
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                loops[next].register(channel);
+                next = (next + 1) % loops.length;
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Failed to accept tcp connection", e);
+            }
+        }
+    }
+
+    private class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final HmacService hmacService;
+        private final int maxMessageSize;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+
+        private SelectorLoop(Selector selector, HmacService hmacService, int maxMessageSize) {
+            this.selector = selector;
+            this.hmacService = hmacService;
+            this.maxMessageSize = maxMessageSize;
+        }
+
+        private void register(SocketChannel channel) {
+            pending.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    registerPending();
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        handle(key);
+                    }
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                log.log(Level.WARNING, "Tcp selector loop failed", e);
+            } finally {
+                closeAll();
+            }
+        }
+
+        private void registerPending() throws IOException {
+            SocketChannel channel;
+            while ((channel = pending.poll()) != null) {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new TcpConnection(channel, key, hmacService, maxMessageSize));
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            TcpConnection connection = (TcpConnection) key.attachment();
+            if (!key.isValid()) {
+                return;
+            }
+            try {
+                if (key.isReadable()) {
+                    connection.onReadable();
+                } else if (key.isWritable()) {
+                    connection.onWritable();
+                }
+            } catch (IOException e) {
+                log.fine("Tcp connection closed: " + e.getMessage());
+                connection.close();
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "Failed to process tcp frame", e);
+                connection.close();
+            }
+        }
+
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                ((TcpConnection) key.attachment()).close();
+            }
+            SocketChannel channel;
+            while ((channel = pending.poll()) != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // слушатель уже останавливается
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Failed to close tcp selector", e);
+            }
+        }
+    }
+}
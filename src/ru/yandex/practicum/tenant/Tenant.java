@@ -0,0 +1,33 @@
+package ru.yandex.practicum.tenant;
+
+import ru.yandex.practicum.service.HmacService;
+
+/**
+ * Арендатор: собственный сервис подписи с набором ключей и предельный размер сообщения.
+ */
+public final class Tenant {
+    private final String id;
+    private final HmacService hmacService;
+    private final int maxMsgSizeBytes;
+
+    public Tenant(String id, HmacService hmacService, int maxMsgSizeBytes) {
+        this.id = id;
+        this.hmacService = hmacService;
+        this.maxMsgSizeBytes = maxMsgSizeBytes;
+    }
+
+    /**
+     * @return идентификатор арендатора или {@code null} для арендатора по умолчанию
+     */
+    public String getId() {
+        return id;
+    }
+
+    public HmacService getHmacService() {
+        return hmacService;
+    }
+
+    public int getMaxMsgSizeBytes() {
+        return maxMsgSizeBytes;
+    }
+}
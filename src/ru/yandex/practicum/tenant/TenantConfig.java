@@ -0,0 +1,59 @@
+package ru.yandex.practicum.tenant;
+
+/**
+ * Параметры арендатора из раздела {@code tenants} конфигурации.
+ *
+ * <p>Незаданные алгоритм и размер сообщения берутся из общих параметров конфигурации.</p>
+ *
+ * <p>Здесь бы подошел record, но GSON 2.8.7 не умеет работать с ним.</p>
+ */
+public class TenantConfig {
+    private String hmacAlg;
+    private String secret;
+    private String keyId = "default";
+    private String keysFile;
+    private int maxMsgSizeBytes;
+
+    public String getHmacAlg() {
+        return hmacAlg;
+    }
+
+    public void setHmacAlg(String hmacAlg) {
+        this.hmacAlg = hmacAlg;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(String keyId) {
+        this.keyId = keyId;
+    }
+
+    public String getKeysFile() {
+        return keysFile;
+    }
+
+    public void setKeysFile(String keysFile) {
+        this.keysFile = keysFile;
+    }
+
+    /**
+     * @return предельный размер сообщения; {@code 0} означает общий {@code maxMsgSizeBytes}
+     */
+    public int getMaxMsgSizeBytes() {
+        return maxMsgSizeBytes;
+    }
+
+    public void setMaxMsgSizeBytes(int maxMsgSizeBytes) {
+        this.maxMsgSizeBytes = maxMsgSizeBytes;
+    }
+}
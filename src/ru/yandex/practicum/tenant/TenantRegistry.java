@@ -0,0 +1,97 @@
+package ru.yandex.practicum.tenant;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.context.web.RequestContext;
+import ru.yandex.practicum.exception.web.HttpBadRequestException;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Реестр арендаторов, между которыми делится один экземпляр сервиса.
+ *
+ * <p>Арендатор запроса определяется заголовком {@code tenantHeader} (по умолчанию
+ * {@value #DEFAULT_HEADER}); запрос без заголовка обслуживается арендатором по умолчанию — общими
+ * параметрами конфигурации. У каждого арендатора из раздела {@code tenants} свой
+ * {@link HmacServiceImpl} с собственным набором ключей, алгоритмом и кэшем подписей, а также
+ * предельный размер сообщения. Сервисы и их движки HMAC создаются при запуске, поэтому определение
+ * арендатора на пути запроса — один поиск в неизменяемой хеш-таблице по значению заголовка.</p>
+ */
+public class TenantRegistry {
+    public static final String DEFAULT_HEADER = "X-Tenant-Id";
+    public static final RequestContext.Key<Tenant> TENANT = RequestContext.Key.of("tenant", Tenant.class);
+    private static final Logger log = Logger.getLogger(TenantRegistry.class.getName());
+
+    private final Tenant defaultTenant;
+    private final Map<String, Tenant> tenants;
+    private final String header;
+
+    public TenantRegistry() {
+        this(new Tenant(null, AppContext.getBean(HmacServiceImpl.class), AppContext.getMaxSizeBytes()),
+                createTenants(AppContext.getTenants()), AppContext.getTenantHeader());
+    }
+
+    /**
+     * @param defaultTenant арендатор запросов без заголовка
+     * @param tenants       арендаторы по идентификаторам
+     * @param header        заголовок с идентификатором арендатора
+     */
+    public TenantRegistry(Tenant defaultTenant, Map<String, Tenant> tenants, String header) {
+        this.defaultTenant = defaultTenant;
+        this.tenants = Map.copyOf(tenants);
+        this.header = header;
+    }
+
+    /**
+     * @return арендатор запроса
+     * @throws HttpBadRequestException если арендатор с указанным в заголовке идентификатором не настроен
+     */
+    public Tenant resolve(HttpExchange exchange) {
+        if (tenants.isEmpty()) {
+            return defaultTenant;
+        }
+        return resolve(exchange.getRequestHeaders().getFirst(header));
+    }
+
+    /**
+     * @param tenantId идентификатор арендатора или {@code null} для арендатора по умолчанию
+     */
+    public Tenant resolve(String tenantId) {
+        if (tenantId == null) {
+            return defaultTenant;
+        }
+        Tenant tenant = tenants.get(tenantId);
+        if (tenant == null) {
+            throw new HttpBadRequestException("Unknown tenant");
+        }
+        return tenant;
+    }
+
+    public Tenant getDefaultTenant() {
+        return defaultTenant;
+    }
+
+    public Set<String> getTenantIds() {
+        return tenants.keySet();
+    }
+
+    private static Map<String, Tenant> createTenants(Map<String, TenantConfig> configs) {
+        Map<String, Tenant> tenants = new HashMap<>();
+        for (Map.Entry<String, TenantConfig> entry : configs.entrySet()) {
+            TenantConfig config = entry.getValue();
+            HmacServiceImpl hmacService = new HmacServiceImpl();
+            AppContext.initHmacService(hmacService, config.getKeyId(), config.getSecret(),
+                    config.getHmacAlg() != null ? config.getHmacAlg() : AppContext.getHmacAlg(), config.getKeysFile());
+            int maxMsgSizeBytes = config.getMaxMsgSizeBytes() > 0 ? config.getMaxMsgSizeBytes() : AppContext.getMaxSizeBytes();
+            tenants.put(entry.getKey(), new Tenant(entry.getKey(), hmacService, maxMsgSizeBytes));
+        }
+        if (!tenants.isEmpty()) {
+            log.info("Configured tenants: " + tenants.keySet());
+        }
+        return tenants;
+    }
+}
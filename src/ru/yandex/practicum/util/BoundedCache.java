@@ -0,0 +1,173 @@
+package ru.yandex.practicum.util;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Потокобезопасный кэш с ограничением размера и времени жизни записей и объединением
+ * одновременных запросов одного ключа (single-flight).
+ *
+ * <p>Если значения для ключа ещё нет, его вычисляет первый запросивший поток, а остальные потоки
+ * с тем же ключом дожидаются результата, не повторяя вычисление. Ошибка вычисления, включая
+ * {@link Error}, передаётся всем ожидающим и не кэшируется.</p>
+ *
+ * <p>При превышении размера вытесняются самые старые записи (FIFO). Для повторов и рассылки одного
+ * и того же сообщения это почти не уступает LRU, зато не требует изменять общую структуру
+ * при каждом попадании. Просроченные записи удаляются при обращении к ним и при добавлении новых.</p>
+ *
+ * <p>Счётчики попаданий, промахов, объединённых запросов и вытеснений основаны на {@link LongAdder}
+ * и не создают общей точки записи между потоками.</p>
+ *
+ * @param <K> тип ключа; должен корректно реализовывать {@code equals} и {@code hashCode}
+ * @param <V> тип значения
+ */
+public class BoundedCache<K, V> {
+    private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize   максимальное число записей
+     * @param ttlMillis время жизни записи в миллисекундах
+     */
+    public BoundedCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("maxSize and ttlMillis must be greater than zero");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Возвращает значение из кэша или вычисляет его функцией {@code loader}.
+     *
+     * @throws RuntimeException исключение, выброшенное {@code loader}
+     * @throws Error            ошибка, выброшенная {@code loader}
+     */
+    public V get(K key, Function<K, V> loader) {
+        while (true) {
+            Entry<K, V> entry = entries.get(key);
+            if (entry == null) {
+                Entry<K, V> created = new Entry<>(key);
+                entry = entries.putIfAbsent(key, created);
+                if (entry == null) {
+                    misses.increment();
+                    return load(created, loader);
+                }
+            }
+            if (!entry.future.isDone()) {
+                coalesced.increment();
+                return await(entry);
+            }
+            if (System.nanoTime() - entry.expiresAt < 0) {
+                hits.increment();
+                return entry.future.getNow(null);
+            }
+            entries.remove(key, entry);
+        }
+    }
+
+    /**
+     * Удаляет все записи. Вычисления, начатые до очистки, завершаются, но их результат не сохраняется.
+     */
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return число запросов, дождавшихся значения, которое вычислял другой поток
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private V load(Entry<K, V> entry, Function<K, V> loader) {
+        V value;
+        try {
+            value = loader.apply(entry.key);
+        } catch (Throwable e) {
+            // и Error: иначе запись с незавершённым future навсегда заблокирует ожидающих этого ключа
+            entries.remove(entry.key, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+        entry.expiresAt = System.nanoTime() + ttlNanos;
+        entry.future.complete(value);
+        if (entries.get(entry.key) == entry) {
+            insertionOrder.add(entry);
+            evict();
+        }
+        return value;
+    }
+
+    /**
+     * Снимает записи с головы очереди, пока кэш переполнен, а также просроченные и уже удалённые
+     * из таблицы записи. Все записи живут одинаковое время, поэтому голова очереди истекает первой.
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        Entry<K, V> eldest;
+        while ((eldest = insertionOrder.peek()) != null) {
+            boolean current = entries.get(eldest.key) == eldest;
+            if (current && now - eldest.expiresAt < 0 && entries.size() <= maxSize) {
+                return;
+            }
+            if (insertionOrder.remove(eldest) && current && entries.remove(eldest.key, eldest)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static <V> V await(Entry<?, V> entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile long expiresAt;
+
+        private Entry(K key) {
+            this.key = key;
+        }
+    }
+}
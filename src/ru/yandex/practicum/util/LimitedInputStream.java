@@ -0,0 +1,65 @@
+package ru.yandex.practicum.util;
+
+import ru.yandex.practicum.exception.web.HttpPayloadTooLarge;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Поток, ограничивающий число прочитанных байт.
+ *
+ * <p>Как только из исходного потока прочитано больше {@code maxSize} байт, чтение
+ * прерывается исключением {@link HttpPayloadTooLarge}, поэтому слишком большое тело
+ * запроса отклоняется без чтения его оставшейся части.</p>
+ */
+public class LimitedInputStream extends FilterInputStream {
+    private final long maxSize;
+    private long count;
+
+    public LimitedInputStream(InputStream in, long maxSize) {
+        super(in);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, (int) Math.min(len, maxSize - count + 1));
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(Math.min(n, maxSize - count + 1));
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private void count(long n) {
+        count += n;
+        if (count > maxSize) {
+            throw new HttpPayloadTooLarge(String.format("Request body size exceeds max %d bytes", maxSize));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.yandex.practicum.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Неблокирующий пул переиспользуемых объектов, разбитый на полосы (stripes).
+ *
+ * <p>Пул хранит объекты в массиве слотов фиксированного размера. Поток выбирает
+ * стартовый слот по хэшу своего идентификатора и проверяет несколько соседних слотов,
+ * поэтому конкурирующие потоки в большинстве случаев работают с разными ячейками массива.
+ * Если свободного объекта нет, новый создаётся фабрикой; если при возврате все
+ * проверенные слоты заняты, объект просто отбрасывается.</p>
+ *
+ * <p>В отличие от {@link ThreadLocal}, пул не привязывает объекты к потоку, поэтому
+ * одинаково подходит и для платформенных, и для виртуальных потоков: число живых
+ * объектов ограничено размером пула, а не числом потоков.</p>
+ *
+ * @param <T> тип объектов в пуле
+ */
+public class StripedPool<T> {
+    private static final int PROBES = 4;
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final Supplier<T> factory;
+
+    public StripedPool(Supplier<T> factory) {
+        this(factory, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public StripedPool(Supplier<T> factory, int minSize) {
+        int size = Integer.highestOneBit(Math.max(PROBES, minSize) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.factory = factory;
+    }
+
+    /**
+     * Забирает объект из пула либо создаёт новый, если подходящих свободных слотов нет.
+     *
+     * @return объект, которым вызывающий поток владеет монопольно до вызова {@link #release(Object)}
+     */
+    public T borrow() {
+        int start = probe();
+        for (int i = 0; i < PROBES; i++) {
+            int index = (start + i) & mask;
+            T value = slots.get(index);
+            if (value != null && slots.compareAndSet(index, value, null)) {
+                return value;
+            }
+        }
+        return factory.get();
+    }
+
+    /**
+     * Возвращает объект в пул. Объект должен находиться в исходном состоянии.
+     *
+     * @param value возвращаемый объект
+     */
+    public void release(T value) {
+        int start = probe();
+        for (int i = 0; i < PROBES; i++) {
+            if (slots.compareAndSet((start + i) & mask, null, value)) {
+                return;
+            }
+        }
+    }
+
+    private int probe() {
+        long id = Thread.currentThread().threadId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -1,7 +1,7 @@
 package ru.yandex.practicum.validator;
 
 import com.sun.net.httpserver.Headers;
-import ru.yandex.practicum.exception.web.HttpPayloadTooLarge;
+import ru.yandex.practicum.context.web.RequestContext;
 import ru.yandex.practicum.model.ApiSettings;
 import ru.yandex.practicum.exception.web.HttpBadRequestException;
 import ru.yandex.practicum.exception.web.HttpMethodNotSupportedException;
@@ -12,19 +12,31 @@ import static ru.yandex.practicum.constant.AppConstants.CONTENT_TYPE;
 /**
  * Интерфейс валидатора HTTP-запросов.
  *
- * <p>Предоставляет методы для проверки корректности тела запроса, HTTP-метода,
- * типа содержимого (Content-Type) и размера тела. Валидация выполняется на основе
+ * <p>Предоставляет методы для проверки корректности тела запроса, HTTP-метода
+ * и типа содержимого (Content-Type). Размер тела ограничивается при чтении
+ * ({@link ru.yandex.practicum.util.LimitedInputStream}). Валидация выполняется на основе
  * конфигурации API, заданной в {@link ApiSettings}.</p>
  *
  * <p>Интерфейс содержит статические методы для проверки общих аспектов запроса
  * и дефолтный метод {@link #validateBody(Object)}, предназначенный для кастомной
- * валидации содержимого тела (например, обязательных полей).</p>
+ * валидации содержимого тела (например, обязательных полей). Валидатор, которому для проверки
+ * приходится разбирать поля (например, декодировать Base64), переопределяет
+ * {@link #validateBody(Object, RequestContext)} и кладёт результат разбора в {@link RequestContext},
+ * чтобы бизнес-логика не разбирала их повторно.</p>
  *
  * @param <T> тип объекта, представляющего тело запроса (DTO)
  */
 public interface HttpRequestValidator<T> {
     default void validateBody(T body) {}
 
+    /**
+     * Проверяет тело запроса и сохраняет разобранные при проверке значения в контексте запроса.
+     * По умолчанию вызывает {@link #validateBody(Object)}.
+     */
+    default void validateBody(T body, RequestContext context) {
+        validateBody(body);
+    }
+
     static void checkIsSupportedMethod(ApiSettings config, String method) {
         if (!config.getSupportedMethods().contains(method)) {
             throw new HttpMethodNotSupportedException(
@@ -34,6 +46,9 @@ public interface HttpRequestValidator<T> {
     }
 
     static void checkIsSupportedMediaType(ApiSettings config, Headers headers) {
+        if (config.getSupportedMediaTypes().isEmpty()) {
+            return;
+        }
         if (!headers.containsKey(CONTENT_TYPE)) {
             throw new HttpBadRequestException(String.format("Required header %s is missing", CONTENT_TYPE));
         }
@@ -43,15 +58,4 @@ public interface HttpRequestValidator<T> {
             );
         }
     }
-
-    static void checkSize(byte[] body, int maxSize) {
-        if (body.length == 0) {
-            throw new HttpBadRequestException("Request body is empty");
-        }
-        if (body.length > maxSize) {
-            throw new HttpPayloadTooLarge(
-                    String.format("Request body size exceeds max %d bytes", maxSize)
-            );
-        }
-    }
 }
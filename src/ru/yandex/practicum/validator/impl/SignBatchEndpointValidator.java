@@ -0,0 +1,24 @@
+package ru.yandex.practicum.validator.impl;
+
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.exception.web.HttpBadRequestException;
+import ru.yandex.practicum.validator.HttpRequestValidator;
+
+public class SignBatchEndpointValidator implements HttpRequestValidator<String[]> {
+    @Override
+    public void validateBody(String[] body) {
+        if (body == null || body.length == 0) {
+            throw new HttpBadRequestException("messages array cannot be empty");
+        }
+        if (body.length > AppContext.getMaxBatchItems()) {
+            throw new HttpBadRequestException(
+                    String.format("batch size exceeds max %d items", AppContext.getMaxBatchItems())
+            );
+        }
+        for (int i = 0; i < body.length; i++) {
+            if (body[i] == null || body[i].isBlank()) {
+                throw new HttpBadRequestException(String.format("msg at index %d cannot be empty", i));
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.validator.impl;
+
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.context.web.RequestContext;
+import ru.yandex.practicum.exception.web.HttpBadRequestException;
+import ru.yandex.practicum.schema.VerifyRequestDto;
+import ru.yandex.practicum.validator.HttpRequestValidator;
+
+/**
+ * Валидатор пакета целиком. Элементы пакета проверяются по отдельности
+ * {@link VerifyEndpointValidator}, и их ошибки возвращаются в ответе, не прерывая запрос.
+ *
+ * <p>Декодированные подписи и ошибки элементов сохраняются в {@link RequestContext}
+ * по ключам {@link #SIGNATURES} и {@link #ERRORS}; элементы с ошибкой имеют подпись {@code null}.</p>
+ */
+public class VerifyBatchEndpointValidator implements HttpRequestValidator<VerifyRequestDto[]> {
+    public static final RequestContext.Key<byte[][]> SIGNATURES = RequestContext.Key.of("signatures", byte[][].class);
+    public static final RequestContext.Key<String[]> ERRORS = RequestContext.Key.of("errors", String[].class);
+
+    private final VerifyEndpointValidator itemValidator;
+
+    public VerifyBatchEndpointValidator() {
+        this.itemValidator = AppContext.getBean(VerifyEndpointValidator.class);
+    }
+
+    @Override
+    public void validateBody(VerifyRequestDto[] body) {
+        if (body == null || body.length == 0) {
+            throw new HttpBadRequestException("verification array cannot be empty");
+        }
+        if (body.length > AppContext.getMaxBatchItems()) {
+            throw new HttpBadRequestException(
+                    String.format("batch size exceeds max %d items", AppContext.getMaxBatchItems())
+            );
+        }
+    }
+
+    @Override
+    public void validateBody(VerifyRequestDto[] body, RequestContext context) {
+        validateBody(body);
+        byte[][] signatures = new byte[body.length][];
+        String[] errors = new String[body.length];
+        for (int i = 0; i < body.length; i++) {
+            if (body[i] == null) {
+                errors[i] = "item cannot be null";
+                continue;
+            }
+            try {
+                signatures[i] = itemValidator.decodeSignature(body[i]);
+            } catch (HttpBadRequestException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+        context.put(SIGNATURES, signatures);
+        context.put(ERRORS, errors);
+    }
+}
@@ -1,18 +1,49 @@
 package ru.yandex.practicum.validator.impl;
 
 import ru.yandex.practicum.codec.Codec;
+import ru.yandex.practicum.codec.impl.Base64Codec;
 import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.context.web.RequestContext;
 import ru.yandex.practicum.exception.web.HttpBadRequestException;
 import ru.yandex.practicum.schema.VerifyRequestDto;
 import ru.yandex.practicum.validator.HttpRequestValidator;
 
+/**
+ * Валидатор запроса проверки подписи. Подпись декодируется один раз, и её байты
+ * передаются дальше через {@link RequestContext} по ключу {@link #SIGNATURE}.
+ */
 public class VerifyEndpointValidator implements HttpRequestValidator<VerifyRequestDto> {
+    public static final RequestContext.Key<byte[]> SIGNATURE = RequestContext.Key.of("signature", byte[].class);
+
+    private final Codec codec;
+
+    public VerifyEndpointValidator() {
+        this.codec = AppContext.getBean(Base64Codec.class);
+    }
+
     @Override
     public void validateBody(VerifyRequestDto body) {
+        decodeSignature(body);
+    }
+
+    @Override
+    public void validateBody(VerifyRequestDto body, RequestContext context) {
+        context.put(SIGNATURE, decodeSignature(body));
+    }
+
+    /**
+     * Проверяет запрос и возвращает декодированную подпись.
+     *
+     * @throws HttpBadRequestException если поля отсутствуют или подпись не является корректным Base64
+     */
+    public byte[] decodeSignature(VerifyRequestDto body) {
         if (body.getMsg() == null || body.getSignature() == null) {
             throw new HttpBadRequestException("msg or signature field is missing or null");
         }
-        if (!Codec.isValidBase64(body.getSignature().getBytes(AppConstants.CHARSET))) {
+        try {
+            return codec.decode(body.getSignature().getBytes(AppConstants.CHARSET));
+        } catch (IllegalArgumentException e) {
             throw new HttpBadRequestException("signature is not a valid base64 encoded string");
         }
     }
@@ -0,0 +1,19 @@
+package ru.yandex.practicum.warmup;
+
+/**
+ * Готовность сервера принимать трафик, которую сообщает {@code GET /ready}.
+ *
+ * <p>Сервер становится готовым после прогрева {@link Warmup}, а до этого балансировщик
+ * не должен направлять на него запросы.</p>
+ */
+public class Readiness {
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+}
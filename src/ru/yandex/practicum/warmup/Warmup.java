@@ -0,0 +1,277 @@
+package ru.yandex.practicum.warmup;
+
+import com.sun.net.httpserver.HttpExchange;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.model.MediaType;
+import ru.yandex.practicum.protocol.FrameBuffer;
+import ru.yandex.practicum.protocol.HmacFrames;
+import ru.yandex.practicum.schema.SignRequestDto;
+import ru.yandex.practicum.service.HmacService;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Прогрев JIT перед приёмом трафика.
+ *
+ * <p>Сразу после запуска запросы выполняются интерпретатором, Gson строит адаптеры рефлексией,
+ * а бины создаются при первом обращении, поэтому первые секунды трафика дают всплеск задержек.
+ * Прогрев отправляет на loopback-адрес запущенного сервера синтетические запросы ко всем
+ * эндпоинтам подписи и проверки — JSON и {@code application/x-hmac-frames}, пакетные, потоковые
+ * и с ошибкой валидации — так что через JIT проходит та же цепочка, что и у настоящих запросов:
+ * разбор HTTP, {@link ru.yandex.practicum.handler.HandlerWrapper}, валидаторы, сервис и сериализация.</p>
+ *
+ * <p>Основной выигрыш дают первые тысячи запросов, после которых горячие методы скомпилированы C1,
+ * а циклы HMAC и разбора — уже C2; оставшиеся из {@code warmupRequests} доводят до C2 остальную
+ * цепочку. Прогрев прерывается по истечении {@code warmupMaxMillis}, чтобы медленная машина
+ * не задерживала запуск: срок ограничивает и ожидание ответов, а запросы, не завершившиеся к нему,
+ * отменяются.
+ * Сообщения уникальны, поэтому включённый кэш подписей не подменяет собой вычисление HMAC.</p>
+ *
+ * <p>Запросы прогрева — обычные запросы с адреса {@code 127.0.0.1}: они учитываются в метриках
+ * и журнале доступа. Ограничение частоты запросов клиентов их не касается: иначе при
+ * {@code rateLimitPerSecond > 0} прогрев почти целиком получал бы {@code 429} и компилировал путь
+ * отказа вместо подписи. Запрос прогрева распознаётся по заголовку {@value #TOKEN_HEADER}
+ * со случайным секретом процесса, который передаётся только по loopback.</p>
+ */
+public class Warmup {
+    private static final Logger log = Logger.getLogger(Warmup.class.getName());
+    private static final int[] MESSAGE_SIZES = {16, 256, 1024};
+    private static final int BATCH_ITEMS = 4;
+    private static final int STREAM_SIZE = 16 * 1024;
+    private static final int REQUEST_KINDS = 8;
+    public static final String TOKEN_HEADER = "X-Warmup-Token";
+    private static final String TOKEN = newToken();
+    private static final byte[] TOKEN_BYTES = TOKEN.getBytes(AppConstants.CHARSET);
+
+    private final int requests;
+    private final long maxMillis;
+    private final int concurrency;
+    private final HmacService hmacService;
+    private final int maxMessageSize;
+
+    public Warmup() {
+        this(AppContext.getWarmupRequests(), AppContext.getWarmupMaxMillis(), AppContext.getExecutorThreads());
+    }
+
+    /**
+     * @param requests    число запросов; {@code 0} выключает прогрев
+     * @param maxMillis   предельная длительность прогрева
+     * @param concurrency число одновременно выполняемых запросов
+     */
+    public Warmup(int requests, long maxMillis, int concurrency) {
+        this.requests = requests;
+        this.maxMillis = maxMillis;
+        this.concurrency = Math.max(1, concurrency);
+        this.hmacService = AppContext.getBean(HmacServiceImpl.class);
+        this.maxMessageSize = AppContext.getMaxSizeBytes();
+    }
+
+    /**
+     * Выполняет прогрев сервера, слушающего порт {@code port} на loopback-интерфейсе.
+     *
+     * @return число отправленных запросов
+     */
+    public int run(int port) throws InterruptedException {
+        if (requests == 0) {
+            return 0;
+        }
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean jitTimeSupported = jit != null && jit.isCompilationTimeMonitoringSupported();
+        long jitBefore = jitTimeSupported ? jit.getTotalCompilationTime() : 0;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        URI base = URI.create("http://localhost:" + port);
+        LongAdder unexpected = new LongAdder();
+        Semaphore permits = new Semaphore(concurrency);
+
+        int sent = 0;
+        Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+        boolean completed = false;
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        try {
+            for (; sent < requests; sent++) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !permits.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    permits.release();
+                    break;
+                }
+                int expectedStatus = sent % REQUEST_KINDS == REQUEST_KINDS - 1 ? 400 : 200;
+                HttpRequest request = request(base, sent).timeout(Duration.ofNanos(remaining)).build();
+                CompletableFuture<HttpResponse<Void>> response =
+                        client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+                inFlight.add(response);
+                response.whenComplete((result, error) -> {
+                    inFlight.remove(response);
+                    // 503 и 429 — отказы ограничений нагрузки, например пока предел ниже параллельности прогрева
+                    if (error != null && !(error instanceof CancellationException)
+                            || error == null && result.statusCode() != expectedStatus
+                            && result.statusCode() != 503 && result.statusCode() != 429) {
+                        unexpected.increment();
+                    }
+                    permits.release();
+                });
+            }
+            completed = permits.tryAcquire(concurrency, Math.max(0, deadline - System.nanoTime()),
+                    TimeUnit.NANOSECONDS);
+        } finally {
+            if (completed) {
+                client.close();
+            } else {
+                // не ждём зависших запросов: прогрев не должен задерживать готовность дольше warmupMaxMillis
+                int abandoned = inFlight.size();
+                inFlight.forEach(future -> future.cancel(true));
+                client.shutdownNow();
+                log.warning(String.format("Warmup stopped after %d ms with %d requests in flight",
+                        maxMillis, abandoned));
+            }
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info(String.format("Warmup finished: %d requests in %d ms, JIT compilation time %s",
+                sent, elapsedMillis,
+                jitTimeSupported ? (jit.getTotalCompilationTime() - jitBefore) + " ms" : "unknown"));
+        if (unexpected.sum() > 0) {
+            log.warning(String.format("Warmup: %d of %d requests failed or returned unexpected status",
+                    unexpected.sum(), sent));
+        }
+        return sent;
+    }
+
+    /**
+     * @return {@code true}, если запрос отправлен прогревом этого процесса
+     */
+    public static boolean isWarmupRequest(HttpExchange exchange) {
+        String token = exchange.getRequestHeaders().getFirst(TOKEN_HEADER);
+        InetSocketAddress address = exchange.getRemoteAddress();
+        return token != null && address != null && address.getAddress() != null
+                && address.getAddress().isLoopbackAddress()
+                && MessageDigest.isEqual(token.getBytes(AppConstants.CHARSET), TOKEN_BYTES);
+    }
+
+    private HttpRequest.Builder request(URI base, int index) {
+        String message = message(index);
+        return switch (index % REQUEST_KINDS) {
+            case 0 -> post(base, "/sign", MediaType.APPLICATION_JSON, json("{\"msg\":\"" + message + "\"}"));
+            case 1 -> post(base, "/verify", MediaType.APPLICATION_JSON, json(verifyJson(message)));
+            case 2 -> post(base, "/sign", MediaType.APPLICATION_X_HMAC_FRAMES, signFrames(message));
+            case 3 -> post(base, "/verify", MediaType.APPLICATION_X_HMAC_FRAMES, verifyFrames(message));
+            case 4 -> post(base, "/sign/batch", MediaType.APPLICATION_JSON, json(signBatchJson(message)));
+            case 5 -> post(base, "/verify/batch", MediaType.APPLICATION_JSON, json(verifyBatchJson(message)));
+            case 6 -> post(base, "/sign/stream", MediaType.APPLICATION_OCTET_STREAM, streamBody(message));
+            default -> post(base, "/verify", MediaType.APPLICATION_JSON,
+                    json("{\"msg\":\"" + message + "\",\"signature\":\"@@@\"}"));
+        };
+    }
+
+    private String message(int index) {
+        int size = MESSAGE_SIZES[(index / REQUEST_KINDS) % MESSAGE_SIZES.length];
+        StringBuilder message = new StringBuilder(size).append("warmup-").append(index).append('-');
+        while (message.length() < size) {
+            message.append('x');
+        }
+        // в пакетах к сообщению дописывается номер элемента
+        message.setLength(Math.min(message.length(), maxMessageSize - 1));
+        return message.toString();
+    }
+
+    private String signature(String message) {
+        SignRequestDto signRequestDto = new SignRequestDto();
+        signRequestDto.setMsg(message);
+        return hmacService.sign(signRequestDto).getSignature();
+    }
+
+    private String verifyJson(String message) {
+        return "{\"msg\":\"" + message + "\",\"signature\":\"" + signature(message) + "\"}";
+    }
+
+    private static String signBatchJson(String message) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < BATCH_ITEMS; i++) {
+            json.append(i == 0 ? "\"" : ",\"").append(message).append(i).append('"');
+        }
+        return json.append(']').toString();
+    }
+
+    private String verifyBatchJson(String message) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < BATCH_ITEMS; i++) {
+            json.append(i == 0 ? "" : ",").append(verifyJson(message + i));
+        }
+        return json.append(']').toString();
+    }
+
+    private static FrameBuffer signFrames(String message) {
+        byte[] bytes = message.getBytes(AppConstants.CHARSET);
+        FrameBuffer frames = new FrameBuffer(HmacFrames.LENGTH_FIELD_SIZE + bytes.length);
+        frames.writeFrame(bytes, 0, bytes.length);
+        return frames;
+    }
+
+    private FrameBuffer verifyFrames(String message) {
+        byte[] bytes = message.getBytes(AppConstants.CHARSET);
+        byte[] mac = new byte[hmacService.getMacLength()];
+        hmacService.sign(bytes, 0, bytes.length, mac, 0);
+        FrameBuffer frames = new FrameBuffer(2 * HmacFrames.LENGTH_FIELD_SIZE + bytes.length + mac.length);
+        frames.writeFrame(bytes, 0, bytes.length);
+        frames.writeFrame(mac, 0, mac.length);
+        return frames;
+    }
+
+    private static byte[] streamBody(String message) {
+        byte[] body = new byte[STREAM_SIZE];
+        byte[] bytes = message.getBytes(AppConstants.CHARSET);
+        for (int offset = 0; offset < body.length; offset += bytes.length) {
+            System.arraycopy(bytes, 0, body, offset, Math.min(bytes.length, body.length - offset));
+        }
+        return body;
+    }
+
+    private static byte[] json(String json) {
+        return json.getBytes(AppConstants.CHARSET);
+    }
+
+    private static HttpRequest.Builder post(URI base, String path, MediaType mediaType, byte[] body) {
+        return post(base, path, mediaType, body, body.length);
+    }
+
+    private static HttpRequest.Builder post(URI base, String path, MediaType mediaType, FrameBuffer frames) {
+        return post(base, path, mediaType, frames.array(), frames.size());
+    }
+
+    private static HttpRequest.Builder post(URI base, String path, MediaType mediaType, byte[] body, int length) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header(AppConstants.CONTENT_TYPE, mediaType.getValue())
+                .header(TOKEN_HEADER, TOKEN)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body, 0, length));
+    }
+
+    private static String newToken() {
+        byte[] token = new byte[16];
+        new SecureRandom().nextBytes(token);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+}
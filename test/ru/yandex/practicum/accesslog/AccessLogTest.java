@@ -0,0 +1,133 @@
+package ru.yandex.practicum.accesslog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLinesAreWrittenWithSampling() throws IOException {
+        Path file = dir.resolve("access.log");
+        AccessLog accessLog = new AccessLog(file, 16, 0, 1024 * 1024, 1);
+        assertTrue(accessLog.isEnabled());
+        assertFalse(accessLog.isSampled(200));
+        assertTrue(accessLog.isSampled(400));
+
+        InetSocketAddress client = new InetSocketAddress("127.0.0.1", 5000);
+        accessLog.record("POST", "/sign", client, 400, 12, 1_234_567, "Field \"msg\" is required");
+        accessLog.record("GET", "/metrics", null, 500, -1, 5_000, null);
+        accessLog.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(Pattern.matches("\\d{4}-\\d\\d-\\d\\dT\\d\\d:\\d\\d:\\d\\d\\.\\d{3}Z "
+                + "127\\.0\\.0\\.1:5000 POST /sign 400 12 1\\.234 \"Field \\\\\"msg\\\\\" is required\"", lines.get(0)));
+        assertTrue(lines.get(1).endsWith(" - GET /metrics 500 - 0.005 -"));
+        assertEquals(2, accessLog.getWritten());
+        assertEquals(0, accessLog.getDropped());
+        assertFalse(accessLog.isSampled(500));
+    }
+
+    @Test
+    void testWritingContinuesWhenRollFails() throws IOException {
+        Path file = dir.resolve("access.log");
+        Path blocker = Files.createDirectories(dir.resolve("access.log.1").resolve("blocker"));
+        RollingFileWriter writer = new RollingFileWriter(file, 8, 1);
+        byte[] line = "0123456789\n".getBytes(StandardCharsets.UTF_8);
+        writer.write(line, 0, line.length);
+        writer.write(line, 0, line.length);
+        Files.delete(blocker);
+        writer.write(line, 0, line.length);
+        writer.close();
+
+        assertEquals(List.of("0123456789"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        assertEquals(List.of("0123456789", "0123456789"),
+                Files.readAllLines(dir.resolve("access.log.1"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testDisabledWithoutFile() {
+        AccessLog accessLog = new AccessLog(null, 16, 1, 1024, 1);
+        assertFalse(accessLog.isEnabled());
+        assertFalse(accessLog.isSampled(500));
+        accessLog.close();
+    }
+
+    @Test
+    void testRingDropsWhenFull() {
+        AccessLogRing ring = new AccessLogRing(3);
+        assertEquals(4, ring.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i, "POST", "/sign", null, 200, i, i, null));
+        }
+        assertFalse(ring.offer(4, "POST", "/sign", null, 200, 4, 4, null));
+
+        List<Long> drained = new ArrayList<>();
+        assertEquals(4, ring.drain((timestamp, method, path, address, status, bytes, duration, message)
+                -> drained.add(timestamp), 10));
+        assertEquals(List.of(0L, 1L, 2L, 3L), drained);
+        assertTrue(ring.offer(5, "POST", "/sign", null, 200, 5, 5, null));
+        assertEquals(1, ring.drain((timestamp, method, path, address, status, bytes, duration, message) -> {}, 10));
+    }
+
+    @Test
+    void testRingWithConcurrentProducers() throws InterruptedException {
+        AccessLogRing ring = new AccessLogRing(64);
+        int producers = 4;
+        int events = 20_000;
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < events; i++) {
+                    while (!ring.offer(i, "POST", "/sign", null, producer, i, i, null)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+        long[] next = new long[producers];
+        int received = 0;
+        while (received < producers * events) {
+            received += ring.drain((timestamp, method, path, address, status, bytes, duration, message) -> {
+                assertEquals(next[status]++, timestamp);
+                assertEquals(timestamp, bytes);
+            }, 100);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (long count : next) {
+            assertEquals(events, count);
+        }
+    }
+
+    @Test
+    void testFileRolling() throws IOException {
+        Path file = dir.resolve("roll.log");
+        byte[] line = "0123456789\n".getBytes(StandardCharsets.UTF_8);
+        try (RollingFileWriter writer = new RollingFileWriter(file, 25, 2)) {
+            for (int i = 0; i < 9; i++) {
+                writer.write(line, 0, line.length);
+            }
+        }
+        assertEquals(11, Files.size(file));
+        assertEquals(22, Files.size(dir.resolve("roll.log.1")));
+        assertEquals(22, Files.size(dir.resolve("roll.log.2")));
+        assertFalse(Files.exists(dir.resolve("roll.log.3")));
+    }
+}
@@ -0,0 +1,112 @@
+package ru.yandex.practicum.codec;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.codec.impl.Base64Codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сравнивает {@link Base64Codec} с {@link Base64#getUrlEncoder()} и {@link Base64#getUrlDecoder()}.
+ */
+class Base64CodecTest {
+    private static final byte[] CHARS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_==+/ \n".getBytes();
+
+    private final Base64Codec codec = new Base64Codec();
+    private final Random random = new Random(42);
+
+    @Test
+    void testEncodeMatchesJdk() {
+        for (int length = 0; length < 200; length++) {
+            byte[] bytes = randomBytes(length);
+            byte[] expected = Base64.getUrlEncoder().encode(bytes);
+            assertArrayEquals(expected, codec.encode(bytes));
+            assertEquals(expected.length, codec.encodedLength(length));
+
+            byte[] out = new byte[expected.length + 5];
+            byte[] source = new byte[length + 3];
+            System.arraycopy(bytes, 0, source, 3, length);
+            assertEquals(expected.length, codec.encode(source, 3, length, out, 5));
+            assertArrayEquals(expected, Arrays.copyOfRange(out, 5, out.length));
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+            ByteBuffer heap = ByteBuffer.wrap(bytes);
+            assertEquals(expected.length, codec.encode(heap, direct));
+            assertFalse(heap.hasRemaining());
+            assertArrayEquals(expected, toArray(direct.flip()));
+        }
+    }
+
+    @Test
+    void testDecodeMatchesJdk() {
+        for (int length = 0; length < 200; length++) {
+            byte[] bytes = randomBytes(length);
+            byte[] padded = Base64.getUrlEncoder().encode(bytes);
+            byte[] unpadded = Base64.getUrlEncoder().withoutPadding().encode(bytes);
+            for (byte[] text : new byte[][]{padded, unpadded}) {
+                assertArrayEquals(bytes, codec.decode(text));
+                assertEquals(length, codec.decodedLength(text, 0, text.length));
+                assertTrue(Codec.isValidBase64(text));
+
+                byte[] out = new byte[length + 2];
+                assertEquals(length, codec.decode(text, 0, text.length, out, 2));
+                assertArrayEquals(bytes, Arrays.copyOfRange(out, 2, out.length));
+
+                ByteBuffer directText = ByteBuffer.allocateDirect(text.length).put(text).flip();
+                ByteBuffer directOut = ByteBuffer.allocateDirect(length);
+                assertEquals(length, codec.decode(directText, directOut));
+                assertArrayEquals(bytes, toArray(directOut.flip()));
+            }
+        }
+    }
+
+    @Test
+    void testValidationMatchesJdkOnRandomText() {
+        for (int i = 0; i < 200_000; i++) {
+            byte[] text = new byte[random.nextInt(12)];
+            for (int j = 0; j < text.length; j++) {
+                text[j] = CHARS[random.nextInt(CHARS.length)];
+            }
+            byte[] expected;
+            try {
+                expected = Base64.getUrlDecoder().decode(text);
+            } catch (IllegalArgumentException e) {
+                expected = null;
+            }
+            String message = new String(text);
+            assertEquals(expected != null, Codec.isValidBase64(text), message);
+            if (expected != null) {
+                assertArrayEquals(expected, codec.decode(text), message);
+            } else {
+                assertThrows(IllegalArgumentException.class, () -> codec.decode(text), message);
+                ByteBuffer buffer = ByteBuffer.wrap(text);
+                assertThrows(IllegalArgumentException.class, () -> codec.decode(buffer, ByteBuffer.allocate(16)));
+                assertEquals(0, buffer.position());
+            }
+        }
+    }
+
+    @Test
+    void testOutputTooSmall() {
+        byte[] text = codec.encode(new byte[32]);
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(new byte[32], 0, 32, new byte[43], 0));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(text, 0, text.length, new byte[31], 0));
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
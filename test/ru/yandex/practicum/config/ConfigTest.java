@@ -48,6 +48,85 @@ class ConfigTest {
         assertEquals("maxMsgSizeBytes must greater than zero", e.getMessage());
     }
 
+    @Test
+    void testInvalidHmacEngine() {
+        String config = changeJson(getDefaultConfig(), "hmacEngine", "UNKNOWN");
+        Throwable e = assertThrows(InvalidConfigurationException.class, () -> AppContext.setConfig(config, true));
+        assertEquals("hmacEngine must be one of [JCE, PRECOMPUTED]", e.getMessage());
+    }
+
+    @Test
+    void testInvalidExecutorType() {
+        String config = changeJson(getDefaultConfig(), "executorType", "UNKNOWN");
+        Throwable e = assertThrows(InvalidConfigurationException.class, () -> AppContext.setConfig(config, true));
+        assertEquals("executorType must be one of [VIRTUAL, FIXED, WORK_STEALING]", e.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void testInvalidExecutorQueueCapacity(int executorQueueCapacity) {
+        String config = changeJson(getDefaultConfig(), "executorQueueCapacity", String.valueOf(executorQueueCapacity));
+        Throwable e = assertThrows(InvalidConfigurationException.class, () -> AppContext.setConfig(config, true));
+        assertEquals("executorQueueCapacity must greater than zero", e.getMessage());
+    }
+
+    @Test
+    void testInvalidSignatureCacheSize() {
+        String config = changeJson(getDefaultConfig(), "signatureCacheSize", "-1");
+        Throwable e = assertThrows(InvalidConfigurationException.class, () -> AppContext.setConfig(config, true));
+        assertEquals("signatureCacheSize cannot be negative", e.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {-0.1, 1.5})
+    void testInvalidAccessLogSampleRate(double sampleRate) {
+        String config = changeJson(getDefaultConfig(), "accessLogSampleRate", String.valueOf(sampleRate));
+        Throwable e = assertThrows(InvalidConfigurationException.class, () -> AppContext.setConfig(config, true));
+        assertEquals("accessLogSampleRate must be between 0 and 1", e.getMessage());
+    }
+
+    @Test
+    void testInvalidAcceptBacklog() {
+        String config = changeJson(getDefaultConfig(), "acceptBacklog", "-1");
+        Throwable e = assertThrows(InvalidConfigurationException.class, () -> AppContext.setConfig(config, true));
+        assertEquals("acceptBacklog cannot be negative", e.getMessage());
+    }
+
+    @Test
+    void testInvalidWarmupRequests() {
+        String config = changeJson(getDefaultConfig(), "warmupRequests", "-1");
+        Throwable e = assertThrows(InvalidConfigurationException.class, () -> AppContext.setConfig(config, true));
+        assertEquals("warmupRequests cannot be negative", e.getMessage());
+    }
+
+    @Test
+    void testInvalidRateLimitPerSecond() {
+        String config = changeJson(getDefaultConfig(), "rateLimitPerSecond", "-1");
+        Throwable e = assertThrows(InvalidConfigurationException.class, () -> AppContext.setConfig(config, true));
+        assertEquals("rateLimitPerSecond cannot be negative", e.getMessage());
+    }
+
+    @Test
+    void testInvalidConcurrencyLimitInitial() {
+        String config = changeJson(getDefaultConfig(), "concurrencyLimitInitial", "1");
+        Throwable e = assertThrows(InvalidConfigurationException.class, () -> AppContext.setConfig(config, true));
+        assertEquals("concurrencyLimitInitial must be between concurrencyLimitMin and concurrencyLimitMax",
+                e.getMessage());
+    }
+
+    @Test
+    void testInvalidTenantSecret() {
+        JsonObject obj = JsonParser.parseString(getDefaultConfig()).getAsJsonObject();
+        JsonObject tenant = new JsonObject();
+        tenant.addProperty("secret", "not base64!");
+        JsonObject tenants = new JsonObject();
+        tenants.add("acme", tenant);
+        obj.add("tenants", tenants);
+        String config = gson.toJson(obj);
+        Throwable e = assertThrows(InvalidConfigurationException.class, () -> AppContext.setConfig(config, true));
+        assertEquals("tenants.acme.secret must be a valid base64 encoded string", e.getMessage());
+    }
+
     private String changeJson(String config, String field, String value) {
         JsonElement json = JsonParser.parseString(config);
         JsonObject obj = json.getAsJsonObject();
@@ -0,0 +1,63 @@
+package ru.yandex.practicum.crypto;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.exception.app.InvalidConfigurationException;
+import ru.yandex.practicum.utils.TestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyringFileWatcherTest {
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void init() {
+        AppContext.setConfig(TestUtils.loadTestConfig(), true);
+    }
+
+    @Test
+    void testReload() throws IOException {
+        Path file = dir.resolve("keys.json");
+        Keyring keyring = new Keyring(MacEngineType.JCE, "HmacSHA256");
+        KeyringFileWatcher watcher = new KeyringFileWatcher(file, keyring);
+
+        Files.writeString(file, "{\"active\":\"k1\",\"keys\":{\"k1\":\"AQ==\",\"k2\":\"Ag==\"}}");
+        watcher.reload();
+        assertEquals(Set.of("k1", "k2"), keyring.getKeyIds());
+        assertEquals("k1", keyring.getActive().getId());
+
+        Files.writeString(file, "{\"active\":\"k3\",\"keys\":{\"k2\":\"Ag==\"}}");
+        Throwable e = assertThrows(InvalidConfigurationException.class, watcher::reload);
+        assertEquals("active must be one of [k2]", e.getMessage());
+        assertEquals(Set.of("k1", "k2"), keyring.getKeyIds());
+    }
+
+    @Test
+    void testWatchAppliesChanges() throws Exception {
+        Path file = dir.resolve("keys.json");
+        Files.writeString(file, "{\"active\":\"k1\",\"keys\":{\"k1\":\"AQ==\"}}");
+        Keyring keyring = new Keyring(MacEngineType.JCE, "HmacSHA256");
+        KeyringFileWatcher watcher = new KeyringFileWatcher(file, keyring);
+        watcher.reload();
+        watcher.start();
+
+        Path tmp = dir.resolve("keys.json.tmp");
+        Files.writeString(tmp, "{\"active\":\"k2\",\"keys\":{\"k1\":\"AQ==\",\"k2\":\"Ag==\"}}");
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!"k2".equals(keyring.getActive().getId()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("k2", keyring.getActive().getId());
+    }
+}
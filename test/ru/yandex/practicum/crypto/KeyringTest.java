@@ -0,0 +1,49 @@
+package ru.yandex.practicum.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyringTest {
+    private static final byte[] MESSAGE = "message".getBytes();
+
+    @Test
+    void testRotation() {
+        Keyring keyring = new Keyring(MacEngineType.JCE, "HmacSHA256");
+        keyring.put("k1", new byte[]{1});
+        keyring.put("k2", new byte[]{2});
+        assertEquals("k1", keyring.getActive().getId());
+        byte[] oldMac = keyring.getActive().getEngine().doFinal(MESSAGE);
+
+        keyring.activate("k2");
+        assertEquals("k2", keyring.getActive().getId());
+        assertArrayEquals(oldMac, keyring.get("k1").getEngine().doFinal(MESSAGE));
+        assertFalse(Arrays.equals(oldMac, keyring.getActive().getEngine().doFinal(MESSAGE)));
+
+        keyring.retire("k1");
+        assertNull(keyring.get("k1"));
+        assertEquals(Set.of("k2"), keyring.getKeyIds());
+        assertThrows(IllegalArgumentException.class, () -> keyring.retire("k2"));
+        assertThrows(IllegalArgumentException.class, () -> keyring.activate("k1"));
+    }
+
+    @Test
+    void testReplaceAllReusesUnchangedKeys() {
+        Keyring keyring = new Keyring(MacEngineType.JCE, "HmacSHA256");
+        keyring.replaceAll(Map.of("k1", new byte[]{1}, "k2", new byte[]{2}), "k1");
+        MacEngine k1 = keyring.get("k1").getEngine();
+        MacEngine k2 = keyring.get("k2").getEngine();
+
+        keyring.replaceAll(Map.of("k1", new byte[]{1}, "k2", new byte[]{3}), "k2");
+        assertSame(k1, keyring.get("k1").getEngine());
+        assertNotSame(k2, keyring.get("k2").getEngine());
+        assertEquals("k2", keyring.getActive().getId());
+
+        assertThrows(IllegalArgumentException.class, () -> keyring.replaceAll(Map.of("k3", new byte[]{3}), "k1"));
+        assertEquals(Set.of("k1", "k2"), keyring.getKeyIds());
+    }
+}
@@ -0,0 +1,169 @@
+package ru.yandex.practicum.crypto;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.crypto.impl.JceMacEngine;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeMacTest {
+    private static final int CHUNK = 64;
+    private static final byte[] KEY = "tree-mac-test-key".getBytes();
+
+    private final MacEngine engine = newEngine();
+    private final TreeMac treeMac = new TreeMac(ForkJoinPool.commonPool(), CHUNK);
+
+    @Test
+    void testStreamAndBufferAgreeAcrossChunkBoundaries() throws IOException {
+        Random random = new Random(7);
+        for (int size : new int[]{0, 1, CHUNK - 1, CHUNK, CHUNK + 1, 2 * CHUNK, 5 * CHUNK + 3, 64 * CHUNK + 17}) {
+            byte[] message = new byte[size];
+            random.nextBytes(message);
+            byte[] expected = treeMac.sign(engine, ByteBuffer.wrap(message));
+            assertArrayEquals(expected, treeMac.sign(engine, new ByteArrayInputStream(message)), "size " + size);
+            assertArrayEquals(expected, treeMac.sign(engine, new ShortReads(new ByteArrayInputStream(message))),
+                    "size " + size);
+        }
+    }
+
+    @Test
+    void testMatchesSchemeDefinition() throws Exception {
+        byte[] message = new byte[2 * CHUNK + 10];
+        new Random(1).nextBytes(message);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(KEY, "HmacSHA256"));
+
+        byte[] leaf0 = leaf(mac, 0, Arrays.copyOfRange(message, 0, CHUNK));
+        byte[] leaf1 = leaf(mac, 1, Arrays.copyOfRange(message, CHUNK, 2 * CHUNK));
+        byte[] leaf2 = leaf(mac, 2, Arrays.copyOfRange(message, 2 * CHUNK, message.length));
+        byte[] tree = node(mac, node(mac, leaf0, leaf1), leaf2);
+        mac.update(ByteBuffer.allocate(13).put((byte) 2).putLong(message.length).putInt(CHUNK).array());
+        byte[] root = mac.doFinal(tree);
+
+        assertArrayEquals(root, treeMac.sign(engine, new ByteArrayInputStream(message)));
+    }
+
+    @Test
+    void testDetectsTampering() throws IOException {
+        byte[] message = new byte[4 * CHUNK];
+        new Random(3).nextBytes(message);
+        byte[] signature = treeMac.sign(engine, new ByteArrayInputStream(message));
+
+        byte[] flipped = message.clone();
+        flipped[3 * CHUNK + 5] ^= 1;
+        assertFalse(Arrays.equals(signature, treeMac.sign(engine, new ByteArrayInputStream(flipped))));
+
+        byte[] swapped = message.clone();
+        System.arraycopy(message, 0, swapped, CHUNK, CHUNK);
+        System.arraycopy(message, CHUNK, swapped, 0, CHUNK);
+        assertFalse(Arrays.equals(signature, treeMac.sign(engine, new ByteArrayInputStream(swapped))));
+
+        byte[] truncated = Arrays.copyOf(message, 3 * CHUNK);
+        assertFalse(Arrays.equals(signature, treeMac.sign(engine, new ByteArrayInputStream(truncated))));
+
+        TreeMac otherChunks = new TreeMac(ForkJoinPool.commonPool(), 2 * CHUNK);
+        assertFalse(Arrays.equals(signature, otherChunks.sign(engine, new ByteArrayInputStream(message))));
+        assertFalse(Arrays.equals(engine.doFinal(message), signature));
+    }
+
+    @Test
+    void testReadFailureCancelsPendingLeaves() throws Exception {
+        AtomicInteger sessions = new AtomicInteger();
+        MacEngine counting = new MacEngine() {
+            @Override
+            public void init(byte[] key, String algorithm) {
+                engine.init(key, algorithm);
+            }
+
+            @Override
+            public int getMacLength() {
+                return engine.getMacLength();
+            }
+
+            @Override
+            public int doFinal(byte[] message, int offset, int length, byte[] out, int outOffset) {
+                return engine.doFinal(message, offset, length, out, outOffset);
+            }
+
+            @Override
+            public MacSession newSession() {
+                sessions.incrementAndGet();
+                return engine.newSession();
+            }
+        };
+        ForkJoinPool pool = new ForkJoinPool(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            pool.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            InputStream failing = new InputStream() {
+                private int remaining = 2 * CHUNK;
+
+                @Override
+                public int read() throws IOException {
+                    if (remaining-- == 0) {
+                        throw new IOException("Body is too large");
+                    }
+                    return 0;
+                }
+            };
+            TreeMac blocked = new TreeMac(pool, CHUNK);
+            assertThrows(IOException.class, () -> blocked.sign(counting, failing));
+            release.countDown();
+            assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+            assertEquals(0, sessions.get());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    private static byte[] leaf(Mac mac, long index, byte[] chunk) {
+        mac.update(ByteBuffer.allocate(9).put((byte) 0).putLong(index).array());
+        return mac.doFinal(chunk);
+    }
+
+    private static byte[] node(Mac mac, byte[] left, byte[] right) {
+        mac.update((byte) 1);
+        mac.update(left);
+        return mac.doFinal(right);
+    }
+
+    private static MacEngine newEngine() {
+        MacEngine engine = new JceMacEngine();
+        engine.init(KEY, "HmacSHA256");
+        return engine;
+    }
+
+    /**
+     * Поток, отдающий не больше 7 байт за чтение, как сетевой.
+     */
+    private static final class ShortReads extends FilterInputStream {
+        private ShortReads(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 7));
+        }
+    }
+}
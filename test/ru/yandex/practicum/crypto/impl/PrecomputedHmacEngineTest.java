@@ -0,0 +1,58 @@
+package ru.yandex.practicum.crypto.impl;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.yandex.practicum.crypto.MacEngine;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrecomputedHmacEngineTest {
+    @ParameterizedTest
+    @ValueSource(strings = {"HmacSHA256", "HmacSHA384", "HmacSHA512"})
+    void testMatchesJceForRandomKeysAndMessages(String algorithm) throws Exception {
+        Random random = new Random(algorithm.hashCode());
+        for (int i = 0; i < 200; i++) {
+            byte[] key = randomBytes(random, 1 + random.nextInt(300));
+            MacEngine engine = new PrecomputedHmacEngine();
+            engine.init(key, algorithm);
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(key, algorithm));
+
+            for (int j = 0; j < 10; j++) {
+                byte[] message = randomBytes(random, random.nextInt(i % 2 == 0 ? 300 : 3000));
+                assertArrayEquals(mac.doFinal(message), engine.doFinal(message));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"HmacSHA256", "HmacSHA384", "HmacSHA512"})
+    void testWritesIntoCallerBuffer(String algorithm) throws Exception {
+        Random random = new Random(42);
+        byte[] key = randomBytes(random, 32);
+        byte[] message = randomBytes(random, 100);
+        MacEngine engine = new PrecomputedHmacEngine();
+        engine.init(key, algorithm);
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(new SecretKeySpec(key, algorithm));
+
+        byte[] out = new byte[engine.getMacLength() + 7];
+        assertEquals(engine.getMacLength(), engine.doFinal(message, 10, 50, out, 7));
+
+        mac.update(message, 10, 50);
+        byte[] expected = mac.doFinal();
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], out[i + 7]);
+        }
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,78 @@
+package ru.yandex.practicum.file;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.crypto.Keyring;
+import ru.yandex.practicum.crypto.MacEngineType;
+import ru.yandex.practicum.crypto.TreeMac;
+import ru.yandex.practicum.utils.TestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSignerTest {
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setUp() {
+        AppContext.setConfig(TestUtils.loadTestConfig(), true);
+    }
+
+    @Test
+    void testSignatureMatchesStreamingTreeMac() throws IOException {
+        Keyring keyring = newKeyring();
+        byte[] content = new byte[3 * TreeMac.CHUNK_SIZE + 123];
+        new Random(5).nextBytes(content);
+        Path file = Files.write(dir.resolve("large.bin"), content);
+
+        byte[] expected = new TreeMac(ForkJoinPool.commonPool())
+                .sign(keyring.getActive().getEngine(), new ByteArrayInputStream(content));
+        String signature = new FileSigner(keyring, ForkJoinPool.commonPool()).sign(file);
+        assertEquals(TreeMac.PREFIX + Base64.getUrlEncoder().encodeToString(expected), signature);
+    }
+
+    @Test
+    void testManifestRoundTripDetectsChanges() throws IOException {
+        Files.createDirectories(dir.resolve("data/nested"));
+        Files.writeString(dir.resolve("data/a.txt"), "alpha");
+        Files.writeString(dir.resolve("data/nested/b c.txt"), "bravo");
+        Files.write(dir.resolve("data/empty.bin"), new byte[0]);
+        FileSigner signer = new FileSigner(newKeyring(), ForkJoinPool.commonPool());
+
+        Path manifest = dir.resolve("manifest.txt");
+        FileSigner.writeManifest(manifest, signer.signAll(dir.resolve("data")));
+        List<FileSigner.Entry> entries = FileSigner.readManifest(manifest);
+        assertEquals(List.of("a.txt", "empty.bin", "nested/b c.txt"),
+                entries.stream().map(FileSigner.Entry::getPath).toList());
+        assertTrue(signer.verifyAll(dir.resolve("data"), entries).stream()
+                .allMatch(result -> result.getStatus() == FileSigner.Status.OK));
+
+        Files.writeString(dir.resolve("data/a.txt"), "alphA");
+        Files.delete(dir.resolve("data/nested/b c.txt"));
+        List<FileSigner.Status> statuses = signer.verifyAll(dir.resolve("data"), entries).stream()
+                .map(FileSigner.Result::getStatus)
+                .toList();
+        assertEquals(List.of(FileSigner.Status.FAILED, FileSigner.Status.OK, FileSigner.Status.MISSING), statuses);
+
+        FileSigner.Entry outside = new FileSigner.Entry("../manifest.txt", "k1", entries.get(0).getSignature());
+        assertEquals(FileSigner.Status.FAILED,
+                signer.verifyAll(dir.resolve("data"), List.of(outside)).get(0).getStatus());
+    }
+
+    private static Keyring newKeyring() {
+        Keyring keyring = new Keyring(MacEngineType.PRECOMPUTED, "HmacSHA256");
+        keyring.put("k1", "file-signer-key".getBytes());
+        return keyring;
+    }
+}
@@ -3,43 +3,66 @@ package ru.yandex.practicum.http;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
 import ru.yandex.practicum.constant.AppConstants;
 import ru.yandex.practicum.context.app.AppContext;
 import ru.yandex.practicum.mapper.JsonObjectMapper;
+import ru.yandex.practicum.protocol.FrameBuffer;
+import ru.yandex.practicum.protocol.HmacFrames;
+import ru.yandex.practicum.schema.SignBatchResponseDto;
 import ru.yandex.practicum.schema.SignRequestDto;
 import ru.yandex.practicum.schema.SignResponseDto;
+import ru.yandex.practicum.schema.VerifyBatchResponseDto;
 import ru.yandex.practicum.schema.VerifyRequestDto;
 import ru.yandex.practicum.schema.VerifyResponseDto;
+import ru.yandex.practicum.server.HttpServerEngine;
 import ru.yandex.practicum.utils.TestHttpServer;
 import ru.yandex.practicum.utils.TestUtils;
+import ru.yandex.practicum.warmup.Readiness;
+import ru.yandex.practicum.warmup.Warmup;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class HttpIntegrationTest {
-    private static TestHttpServer server;
-    private static HttpClient client;
-    private static String url;
+    private TestHttpServer server;
+    private HttpClient client;
+    protected String url;
 
     @BeforeAll
-    static void setUp() {
+    void setUp() {
         AppContext.setConfig(TestUtils.loadTestConfig(), true);
-        server = TestUtils.initializeNewHttpServer();
+        server = startServer();
         client = HttpClient.newHttpClient();
         url = "http://localhost" + ":" + server.getPort();
     }
 
     @AfterAll
-    static void tearDown() {
+    void tearDown() {
         server.stop();
     }
 
+    protected TestHttpServer startServer() {
+        return TestUtils.initializeNewHttpServer(HttpServerEngine.JDK);
+    }
+
     @Test
     void testSuccessful() {
         SignRequestDto signRequestDto = new SignRequestDto();
@@ -52,10 +75,12 @@ class HttpIntegrationTest {
         SignResponseDto signResponseDto = JsonObjectMapper.fromJson(signResponse.body(), SignResponseDto.class);
         assertNotNull(signResponseDto.getSignature());
         assertFalse(signResponseDto.getSignature().isBlank());
+        assertEquals("default", signResponseDto.getKid());
 
         VerifyRequestDto verifyRequestDto = new VerifyRequestDto();
         verifyRequestDto.setMsg(signRequestDto.getMsg());
         verifyRequestDto.setSignature(signResponseDto.getSignature());
+        verifyRequestDto.setKid(signResponseDto.getKid());
         HttpRequest verifyRequest = buildPostRequest(getVerifyUri(), JsonObjectMapper.toJson(verifyRequestDto));
         HttpResponse<String> verifyResponse = sendRequest(verifyRequest);
         assertEquals(200, verifyResponse.statusCode());
@@ -170,6 +195,320 @@ class HttpIntegrationTest {
         }
     }
 
+    @Test
+    void testSignBatchMatchesSingleSign() {
+        String[] messages = new String[300];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = "message-" + i;
+        }
+
+        HttpRequest batchRequest = buildPostRequest(getSignBatchUri(), JsonObjectMapper.toJson(messages));
+        HttpResponse<String> batchResponse = sendRequest(batchRequest);
+        assertEquals(200, batchResponse.statusCode());
+        String[] signatures = JsonObjectMapper.fromJson(batchResponse.body(), SignBatchResponseDto.class).getSignatures();
+        assertEquals(messages.length, signatures.length);
+
+        for (int i = 0; i < messages.length; i += 50) {
+            SignRequestDto signRequestDto = new SignRequestDto();
+            signRequestDto.setMsg(messages[i]);
+            HttpResponse<String> signResponse = sendRequest(buildPostRequest(getSignUri(), JsonObjectMapper.toJson(signRequestDto)));
+            assertEquals(JsonObjectMapper.fromJson(signResponse.body(), SignResponseDto.class).getSignature(), signatures[i]);
+        }
+    }
+
+    @Test
+    void test400ResponseCodeWithInvalidBatch() {
+        HttpResponse<String> emptyResponse = sendRequest(buildPostRequest(getSignBatchUri(), "[]"));
+        assertEquals(400, emptyResponse.statusCode());
+        assertEquals("messages array cannot be empty", emptyResponse.body());
+
+        HttpResponse<String> blankResponse = sendRequest(buildPostRequest(getSignBatchUri(), "[\"a\", \" \"]"));
+        assertEquals(400, blankResponse.statusCode());
+        assertEquals("msg at index 1 cannot be empty", blankResponse.body());
+    }
+
+    @Test
+    void testVerifyBatchReturnsPerItemResults() {
+        String[] messages = {"first", "second"};
+        HttpResponse<String> signResponse = sendRequest(buildPostRequest(getSignBatchUri(), JsonObjectMapper.toJson(messages)));
+        String[] signatures = JsonObjectMapper.fromJson(signResponse.body(), SignBatchResponseDto.class).getSignatures();
+
+        VerifyRequestDto[] requests = new VerifyRequestDto[4];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = new VerifyRequestDto();
+        }
+        requests[0].setMsg(messages[0]);
+        requests[0].setSignature(signatures[0]);
+        requests[1].setMsg(messages[0]);
+        requests[1].setSignature(signatures[1]);
+        requests[2].setMsg(messages[1]);
+        requests[2].setSignature("@@@");
+        requests[3].setMsg(messages[1]);
+        requests[3].setSignature(signatures[1]);
+
+        HttpResponse<String> verifyResponse = sendRequest(buildPostRequest(getVerifyBatchUri(), JsonObjectMapper.toJson(requests)));
+        assertEquals(200, verifyResponse.statusCode());
+        VerifyBatchResponseDto verifyBatchResponseDto = JsonObjectMapper.fromJson(verifyResponse.body(), VerifyBatchResponseDto.class);
+        assertArrayEquals(new boolean[]{true, false, false, true}, verifyBatchResponseDto.getResults());
+        assertArrayEquals(new String[]{null, null, "signature is not a valid base64 encoded string", null},
+                verifyBatchResponseDto.getErrors());
+    }
+
+    @Test
+    void testSignStreamMatchesSign() {
+        String message = "streamed message ".repeat(10_000);
+        SignRequestDto signRequestDto = new SignRequestDto();
+        signRequestDto.setMsg(message);
+        HttpResponse<String> signResponse = sendRequest(buildPostRequest(getSignUri(), JsonObjectMapper.toJson(signRequestDto)));
+        String expected = JsonObjectMapper.fromJson(signResponse.body(), SignResponseDto.class).getSignature();
+
+        byte[] body = message.getBytes(AppConstants.CHARSET);
+        HttpRequest streamRequest = HttpRequest.newBuilder()
+                .uri(URI.create(getSignStreamUri()))
+                .headers("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(body)))
+                .build();
+        HttpResponse<String> streamResponse = sendRequest(streamRequest);
+        assertEquals(200, streamResponse.statusCode());
+        assertEquals(expected, JsonObjectMapper.fromJson(streamResponse.body(), SignResponseDto.class).getSignature());
+    }
+
+    @Test
+    void testTreeSignatureVerifiesOverStream() {
+        byte[] body = "tree message ".repeat(200_000).getBytes(AppConstants.CHARSET);
+        HttpResponse<String> signResponse = sendRequest(buildStreamRequest(getSignStreamUri() + "?scheme=tmac1", body));
+        assertEquals(200, signResponse.statusCode());
+        SignResponseDto tree = JsonObjectMapper.fromJson(signResponse.body(), SignResponseDto.class);
+        assertTrue(tree.getSignature().startsWith("tmac1."));
+
+        HttpResponse<String> verifyResponse = sendRequest(buildVerifyStreamRequest(body, tree.getSignature()));
+        assertEquals(200, verifyResponse.statusCode());
+        assertEquals("true", JsonObjectMapper.fromJson(verifyResponse.body(), VerifyResponseDto.class).getOk());
+
+        SignResponseDto plain = JsonObjectMapper.fromJson(
+                sendRequest(buildStreamRequest(getSignStreamUri(), body)).body(), SignResponseDto.class);
+        verifyResponse = sendRequest(buildVerifyStreamRequest(body, plain.getSignature()));
+        assertEquals("true", JsonObjectMapper.fromJson(verifyResponse.body(), VerifyResponseDto.class).getOk());
+
+        body[body.length - 1] ^= 1;
+        verifyResponse = sendRequest(buildVerifyStreamRequest(body, tree.getSignature()));
+        assertEquals("false", JsonObjectMapper.fromJson(verifyResponse.body(), VerifyResponseDto.class).getOk());
+
+        byte[] small = "small".getBytes(AppConstants.CHARSET);
+        assertEquals(400, sendRequest(buildStreamRequest(getSignStreamUri() + "?scheme=md5", small)).statusCode());
+    }
+
+    @Test
+    void testEarlyErrorKeepsConnectionAfterShortBody() throws IOException {
+        URI uri = URI.create(url);
+        try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+            socket.setSoTimeout(5_000);
+            String json = "{\"msg\":\"after early error\"}";
+            String requests = "POST /sign/stream?scheme=md5 HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Type: application/octet-stream\r\nContent-Length: 1000\r\n\r\n" + "x".repeat(1000)
+                    + "POST /sign HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                    + "Content-Length: " + json.length() + "\r\n\r\n" + json;
+            OutputStream out = socket.getOutputStream();
+            out.write(requests.getBytes(AppConstants.CHARSET));
+            out.flush();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), AppConstants.CHARSET));
+            List<String> rejected = readResponseHead(reader);
+            assertTrue(rejected.get(0).startsWith("HTTP/1.1 400 "), rejected.get(0));
+            assertFalse(hasConnectionClose(rejected));
+            assertTrue(readResponseHead(reader).get(0).startsWith("HTTP/1.1 200 "));
+        }
+    }
+
+    @Test
+    void testEarlyErrorClosesConnectionAfterLongBody() throws Exception {
+        URI uri = URI.create(url);
+        try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+            socket.setSoTimeout(5_000);
+            int length = 256 * 1024;
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /sign/stream?scheme=md5 HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Type: application/octet-stream\r\nContent-Length: " + length + "\r\n\r\n")
+                    .getBytes(AppConstants.CHARSET));
+            Thread writer = new Thread(() -> {
+                try {
+                    out.write(new byte[length]);
+                    out.flush();
+                } catch (IOException e) {
+                    // сервер закрывает соединение, не дочитав тело
+                }
+            });
+            writer.start();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), AppConstants.CHARSET));
+            List<String> rejected = readResponseHead(reader);
+            assertTrue(rejected.get(0).startsWith("HTTP/1.1 400 "), rejected.get(0));
+            assertTrue(hasConnectionClose(rejected));
+            socket.close();
+            writer.join(5_000);
+        }
+    }
+
+    @Test
+    void test400ResponseCodeWithEmptyStream() {
+        assertEquals(400, sendRequest(buildStreamRequest(getSignStreamUri(), new byte[0])).statusCode());
+        assertEquals(400, sendRequest(buildStreamRequest(getSignStreamUri() + "?scheme=tmac1", new byte[0])).statusCode());
+    }
+
+    @Test
+    void testFramesMatchJson() throws IOException {
+        String[] messages = {"first", "второе сообщение", "x".repeat(10_000)};
+        HttpResponse<String> batchResponse = sendRequest(buildPostRequest(getSignBatchUri(), JsonObjectMapper.toJson(messages)));
+        String[] signatures = JsonObjectMapper.fromJson(batchResponse.body(), SignBatchResponseDto.class).getSignatures();
+
+        FrameBuffer signFrames = new FrameBuffer(64);
+        for (String message : messages) {
+            byte[] bytes = message.getBytes(AppConstants.CHARSET);
+            signFrames.writeFrame(bytes, 0, bytes.length);
+        }
+        HttpResponse<byte[]> signResponse = sendFramesRequest(getSignUri(), signFrames);
+        assertEquals(200, signResponse.statusCode());
+        assertEquals("application/x-hmac-frames", signResponse.headers().firstValue("Content-Type").orElse(null));
+
+        InputStream signBody = new ByteArrayInputStream(signResponse.body());
+        FrameBuffer verifyFrames = new FrameBuffer(64);
+        byte[] mac = new byte[0];
+        for (int i = 0; i < messages.length; i++) {
+            int length = HmacFrames.readLength(signBody, Integer.MAX_VALUE);
+            mac = HmacFrames.readPayload(signBody, mac, length);
+            byte[] signature = Arrays.copyOf(mac, length);
+            assertArrayEquals(Base64.getUrlDecoder().decode(signatures[i]), signature);
+
+            byte[] bytes = messages[i].getBytes(AppConstants.CHARSET);
+            if (i == 1) {
+                signature[0] ^= 1;
+            }
+            verifyFrames.writeFrame(bytes, 0, bytes.length);
+            verifyFrames.writeFrame(signature, 0, signature.length);
+        }
+        assertEquals(-1, HmacFrames.readLength(signBody, Integer.MAX_VALUE));
+
+        HttpResponse<byte[]> verifyResponse = sendFramesRequest(getVerifyUri(), verifyFrames);
+        assertEquals(200, verifyResponse.statusCode());
+        assertArrayEquals(new byte[]{HmacFrames.VALID, HmacFrames.INVALID, HmacFrames.VALID}, verifyResponse.body());
+    }
+
+    @Test
+    void test400ResponseCodeWithTruncatedFrame() {
+        FrameBuffer frames = new FrameBuffer(16);
+        frames.writeFrame(new byte[]{1, 2, 3}, 0, 3);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(getVerifyUri()))
+                .headers("Content-Type", "application/x-hmac-frames")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(frames.array(), 0, frames.size() - 1))
+                .build();
+        assertEquals(400, sendRequest(request).statusCode());
+    }
+
+    @Test
+    void testMetricsCountRequestsByStatus() {
+        SignRequestDto signRequestDto = new SignRequestDto();
+        signRequestDto.setMsg("message");
+        assertEquals(200, sendRequest(buildPostRequest(getSignUri(), JsonObjectMapper.toJson(signRequestDto))).statusCode());
+        assertEquals(400, sendRequest(buildPostRequest(getSignUri(), "{}")).statusCode());
+
+        HttpResponse<String> response = sendRequest(HttpRequest.newBuilder().uri(URI.create(url + "/metrics")).GET().build());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/plain; version=0.0.4"));
+        String body = response.body();
+        assertTrue(Pattern.compile("^hmac_http_requests_total\\{path=\"/sign\",code=\"200\"} [1-9]", Pattern.MULTILINE)
+                .matcher(body).find());
+        assertTrue(Pattern.compile("^hmac_http_requests_total\\{path=\"/sign\",code=\"400\"} [1-9]", Pattern.MULTILINE)
+                .matcher(body).find());
+        assertTrue(body.contains("hmac_http_request_duration_seconds_bucket{path=\"/sign\",le=\"+Inf\"}"));
+        assertTrue(body.contains("hmac_http_request_size_bytes_bucket{path=\"/sign\",le=\"64\"}"));
+        assertTrue(body.contains("hmac_concurrency_limit{path=\"/sign\"}"));
+        assertFalse(body.contains("hmac_concurrency_limit{path=\"/metrics\"}"));
+    }
+
+    @Test
+    void testTenantUsesOwnKeyAndLimits() {
+        SignRequestDto signRequestDto = new SignRequestDto();
+        signRequestDto.setMsg("message");
+        String body = JsonObjectMapper.toJson(signRequestDto);
+
+        HttpResponse<String> signResponse = sendRequest(buildPostRequest(getSignUri(), body, "acme"));
+        assertEquals(200, signResponse.statusCode());
+        SignResponseDto tenantSignature = JsonObjectMapper.fromJson(signResponse.body(), SignResponseDto.class);
+        assertEquals("acme-1", tenantSignature.getKid());
+        assertEquals(64, Base64.getUrlDecoder().decode(tenantSignature.getSignature()).length);
+
+        VerifyRequestDto verifyRequestDto = new VerifyRequestDto();
+        verifyRequestDto.setMsg(signRequestDto.getMsg());
+        verifyRequestDto.setSignature(tenantSignature.getSignature());
+        String verifyBody = JsonObjectMapper.toJson(verifyRequestDto);
+        HttpResponse<String> tenantVerify = sendRequest(buildPostRequest(getVerifyUri(), verifyBody, "acme"));
+        assertTrue(Boolean.parseBoolean(JsonObjectMapper.fromJson(tenantVerify.body(), VerifyResponseDto.class).getOk()));
+        HttpResponse<String> defaultVerify = sendRequest(buildPostRequest(getVerifyUri(), verifyBody));
+        assertFalse(Boolean.parseBoolean(JsonObjectMapper.fromJson(defaultVerify.body(), VerifyResponseDto.class).getOk()));
+
+        signRequestDto.setMsg("a".repeat(2048));
+        String largeBody = JsonObjectMapper.toJson(signRequestDto);
+        assertEquals(413, sendRequest(buildPostRequest(getSignUri(), largeBody, "acme")).statusCode());
+        assertEquals(200, sendRequest(buildPostRequest(getSignUri(), largeBody)).statusCode());
+
+        HttpResponse<String> unknown = sendRequest(buildPostRequest(getSignUri(), body, "unknown"));
+        assertEquals(400, unknown.statusCode());
+        assertEquals("Unknown tenant", unknown.body());
+    }
+
+    @Test
+    void testReadyAfterWarmup() throws InterruptedException {
+        Readiness readiness = AppContext.getBean(Readiness.class);
+        readiness.setReady(false);
+        HttpRequest readyRequest = HttpRequest.newBuilder().uri(URI.create(url + "/ready")).GET().build();
+        assertEquals(503, sendRequest(readyRequest).statusCode());
+
+        assertEquals(32, new Warmup(32, 10_000, 2).run(server.getPort()));
+        readiness.setReady(true);
+        assertEquals(200, sendRequest(readyRequest).statusCode());
+
+        String metrics = sendRequest(HttpRequest.newBuilder().uri(URI.create(url + "/metrics")).GET().build()).body();
+        for (String path : new String[]{"/sign", "/verify", "/sign/batch", "/verify/batch", "/sign/stream"}) {
+            assertTrue(metrics.contains("hmac_http_requests_total{path=\"" + path + "\",code=\"200\"}"), path);
+        }
+        assertFalse(metrics.contains("code=\"500\""));
+    }
+
+    /**
+     * Читает строку статуса и заголовки ответа и пропускает его тело.
+     */
+    private static List<String> readResponseHead(BufferedReader reader) throws IOException {
+        List<String> head = new ArrayList<>();
+        int contentLength = 0;
+        String line;
+        while (!(line = reader.readLine()).isEmpty()) {
+            head.add(line);
+            if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                contentLength = Integer.parseInt(line.substring(15).trim());
+            }
+        }
+        assertEquals(contentLength, reader.skip(contentLength));
+        return head;
+    }
+
+    private static boolean hasConnectionClose(List<String> head) {
+        return head.stream().anyMatch(line -> line.equalsIgnoreCase("Connection: close"));
+    }
+
+    private HttpResponse<byte[]> sendFramesRequest(String uri, FrameBuffer frames) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(uri))
+                .headers("Content-Type", "application/x-hmac-frames")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(frames.array(), 0, frames.size()))
+                .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException | InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     private HttpRequest buildPostRequest(String uri, String body) {
         return HttpRequest.newBuilder()
                 .uri(URI.create(uri))
@@ -178,6 +517,30 @@ class HttpIntegrationTest {
                 .build();
     }
 
+    private HttpRequest buildPostRequest(String uri, String body, String tenant) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(uri))
+                .headers("Content-Type", "application/json", "X-Tenant-Id", tenant)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest buildStreamRequest(String uri, byte[] body) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(uri))
+                .headers("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private HttpRequest buildVerifyStreamRequest(byte[] body, String signature) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url + "/verify/stream"))
+                .headers("Content-Type", "application/octet-stream", "X-Signature", signature)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
     private HttpResponse<String> sendRequest(HttpRequest request) {
         try {
             return client.send(request, HttpResponse.BodyHandlers.ofString());
@@ -193,4 +556,16 @@ class HttpIntegrationTest {
     private String getVerifyUri() {
         return url + "/verify";
     }
+
+    private String getSignBatchUri() {
+        return url + "/sign/batch";
+    }
+
+    private String getVerifyBatchUri() {
+        return url + "/verify/batch";
+    }
+
+    private String getSignStreamUri() {
+        return url + "/sign/stream";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package ru.yandex.practicum.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.limiter.QueueTimeExecutor;
+import ru.yandex.practicum.mapper.JsonObjectMapper;
+import ru.yandex.practicum.schema.SignResponseDto;
+import ru.yandex.practicum.server.HttpServerEngine;
+import ru.yandex.practicum.utils.TestHttpServer;
+import ru.yandex.practicum.utils.TestUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тот же набор интеграционных тестов на {@link HttpServerEngine#NIO} плюс проверки keep-alive и конвейеризации.
+ */
+class NioHttpIntegrationTest extends HttpIntegrationTest {
+    @Override
+    protected TestHttpServer startServer() {
+        return TestUtils.initializeNewHttpServer(HttpServerEngine.NIO);
+    }
+
+    @Test
+    void testPipelinedRequestsOnSingleConnection() throws IOException {
+        URI uri = URI.create(url);
+        try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+            socket.setSoTimeout(5_000);
+            StringBuilder requests = new StringBuilder();
+            for (int i = 0; i < 3; i++) {
+                String body = "{\"msg\":\"message-" + i + "\"}";
+                requests.append("POST /sign HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n")
+                        .append("Content-Length: ").append(body.length()).append("\r\n\r\n").append(body);
+            }
+            requests.append("GET /sign HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+            OutputStream out = socket.getOutputStream();
+            out.write(requests.toString().getBytes(AppConstants.CHARSET));
+            out.flush();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), AppConstants.CHARSET));
+            String previous = null;
+            for (int i = 0; i < 3; i++) {
+                String body = readResponse(reader, 200);
+                String signature = JsonObjectMapper.fromJson(body, SignResponseDto.class).getSignature();
+                assertNotEquals(previous, signature);
+                previous = signature;
+            }
+            readResponse(reader, 405);
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    void testPipelinedRequestsAreNotShedByQueueTime() throws Exception {
+        int count = 10_000;
+        URI uri = URI.create(url);
+        try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+            socket.setSoTimeout(30_000);
+            String body = "{\"msg\":\"pipelined\"}";
+            byte[] request = ("POST /sign HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                    + "Content-Length: " + body.length() + "\r\n\r\n" + body).getBytes(AppConstants.CHARSET);
+            Thread writer = new Thread(() -> {
+                try {
+                    OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+                    for (int i = 0; i < count; i++) {
+                        out.write(request);
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.start();
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), AppConstants.CHARSET));
+            for (int i = 0; i < count; i++) {
+                readResponse(reader, 200);
+            }
+            writer.join();
+        }
+    }
+
+    @Test
+    void testPipelinedRequestsDoNotInheritQueueTime() throws Exception {
+        int count = 200;
+        long[] queued = new long[count];
+        long[] finished = new long[count];
+        int[] next = new int[1];
+        HttpServer server = HttpServerEngine.NIO.create(new InetSocketAddress(0), 0);
+        server.createContext("/probe", exchange -> {
+            int i = next[0]++;
+            queued[i] = QueueTimeExecutor.getQueuedNanos(System.nanoTime());
+            exchange.sendResponseHeaders(200, -1);
+            finished[i] = System.nanoTime();
+            exchange.close();
+        });
+        server.setExecutor(new QueueTimeExecutor(Executors.newSingleThreadExecutor()));
+        server.start();
+        try (Socket socket = new Socket("localhost", server.getAddress().getPort())) {
+            socket.setSoTimeout(5_000);
+            byte[] request = "GET /probe HTTP/1.1\r\nHost: localhost\r\n\r\n".repeat(count).getBytes(AppConstants.CHARSET);
+            socket.getOutputStream().write(request);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), AppConstants.CHARSET));
+            for (int i = 0; i < count; i++) {
+                readResponse(reader, 200);
+            }
+        } finally {
+            server.stop(0);
+        }
+        for (int i = 1; i < count; i++) {
+            assertTrue(queued[i] >= finished[i - 1], "request " + i + " reused the queue time of an earlier request");
+        }
+    }
+
+    private static String readResponse(BufferedReader reader, int expectedCode) throws IOException {
+        assertTrue(reader.readLine().startsWith("HTTP/1.1 " + expectedCode + " "));
+        int contentLength = 0;
+        String line;
+        while (!(line = reader.readLine()).isEmpty()) {
+            if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                contentLength = Integer.parseInt(line.substring(15).trim());
+            }
+        }
+        char[] body = new char[contentLength];
+        int read = 0;
+        while (read < contentLength) {
+            read += reader.read(body, read, contentLength - read);
+        }
+        return new String(body);
+    }
+}
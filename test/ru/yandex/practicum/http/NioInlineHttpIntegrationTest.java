@@ -0,0 +1,25 @@
+package ru.yandex.practicum.http;
+
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.server.impl.NioHttpServer;
+import ru.yandex.practicum.utils.TestHttpServer;
+import ru.yandex.practicum.utils.TestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Интеграционные тесты {@link NioHttpServer} с обработкой коротких запросов в потоках селекторов.
+ */
+class NioInlineHttpIntegrationTest extends NioHttpIntegrationTest {
+    @Override
+    protected TestHttpServer startServer() {
+        try {
+            return TestUtils.initializeNewHttpServer(
+                    NioHttpServer.create(new InetSocketAddress(AppContext.getListenPort()), 0, 2, true));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
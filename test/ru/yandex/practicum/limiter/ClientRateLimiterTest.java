@@ -0,0 +1,58 @@
+package ru.yandex.practicum.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testAllowsBurstThenRejects() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 3, 1000, null);
+        long now = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("client", now));
+        }
+        long wait = limiter.tryAcquire("client", now);
+        assertEquals(SECOND / 10, wait);
+        assertEquals(1, limiter.getRejected());
+
+        assertEquals(0, limiter.tryAcquire("other", now));
+    }
+
+    @Test
+    void testRefillsAtConfiguredRate() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 1, 1000, null);
+        long now = System.nanoTime();
+        assertEquals(0, limiter.tryAcquire("client", now));
+        assertTrue(limiter.tryAcquire("client", now + SECOND / 20) > 0);
+        assertEquals(0, limiter.tryAcquire("client", now + SECOND / 10));
+        assertEquals(0, limiter.tryAcquire("client", now + 10 * SECOND));
+    }
+
+    @Test
+    void testMemoryBoundedByMaxClients() {
+        int maxClients = ClientRateLimiter.STRIPES * 4;
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 2, maxClients, null);
+        long now = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire(i, now);
+        }
+        assertTrue(limiter.size() <= maxClients);
+        assertTrue(limiter.getEvicted() > 0);
+    }
+
+    @Test
+    void testIdleBucketsEvictedFirst() {
+        int maxClients = ClientRateLimiter.STRIPES * 4;
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, maxClients, null);
+        long now = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire(i, now + i * SECOND);
+        }
+        assertEquals(0, limiter.getEvicted());
+    }
+}
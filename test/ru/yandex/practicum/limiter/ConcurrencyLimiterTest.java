@@ -0,0 +1,77 @@
+package ru.yandex.practicum.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testRejectsAboveLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 4, 4, LATENCY);
+        long now = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(now, now));
+        }
+        assertFalse(limiter.tryAcquire(now, now));
+        assertEquals(4, limiter.getInFlight());
+        assertEquals(1, limiter.getRejectedByLimit());
+
+        limiter.release(now, now + FAST);
+        assertTrue(limiter.tryAcquire(now, now + FAST));
+    }
+
+    @Test
+    void testIncreasesWhileSaturatedAndFast() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 2, 6, LATENCY);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 3; j++) {
+                limiter.tryAcquire(now, now);
+            }
+            for (int j = 0; j < 3; j++) {
+                limiter.release(now, now + FAST);
+            }
+        }
+        assertEquals(6, limiter.getLimit());
+
+        ConcurrencyLimiter idle = new ConcurrencyLimiter(4, 2, 6, LATENCY);
+        for (int i = 0; i < 10; i++) {
+            idle.tryAcquire(now, now);
+            idle.release(now, now + FAST);
+        }
+        assertEquals(4, idle.getLimit());
+    }
+
+    @Test
+    void testDecreasesOncePerResponseTime() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(100, 10, 100, LATENCY);
+        long start = System.nanoTime() + 1;
+        long end = start + 2 * LATENCY;
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(start, start);
+        }
+        for (int i = 0; i < 5; i++) {
+            limiter.release(start, end);
+        }
+        assertEquals(90, limiter.getLimit());
+
+        limiter.tryAcquire(end, end);
+        limiter.release(end, end + 2 * LATENCY);
+        assertEquals(81, limiter.getLimit());
+    }
+
+    @Test
+    void testRejectsRequestQueuedTooLong() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 5, 10, LATENCY);
+        long queued = System.nanoTime() + 1;
+        assertFalse(limiter.tryAcquire(queued, queued + 2 * LATENCY));
+        assertEquals(1, limiter.getRejectedByQueue());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(9, limiter.getLimit());
+    }
+}
@@ -0,0 +1,49 @@
+package ru.yandex.practicum.mapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.schema.SignBatchResponseDto;
+import ru.yandex.practicum.schema.SignResponseDto;
+import ru.yandex.practicum.schema.VerifyResponseDto;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonObjectMapperTest {
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "P0OexNSMup6vIouWoI-3tnfhB-FkGrVw9R_EzVmC_e0=",
+            "true",
+            "",
+            "quotes \" and \\ backslash",
+            "<html> & 'x'=1",
+            "\t\b\n\r\f\u0001\u001f",
+            "кириллица",
+            "  €",
+            "😀 pair",
+            "\ud83d lone high, lone low \ude00"
+    })
+    void testWriteJsonMatchesGson(String value) {
+        assertWrittenAsGson(new SignResponseDto(value));
+        assertWrittenAsGson(new SignResponseDto(value, value));
+        assertWrittenAsGson(new SignResponseDto(null, value));
+        assertWrittenAsGson(new VerifyResponseDto(value));
+        assertWrittenAsGson(new SignBatchResponseDto(new String[]{value, null}));
+    }
+
+    @Test
+    void testWriteJsonOmitsNullFields() {
+        assertWrittenAsGson(new SignResponseDto());
+        assertWrittenAsGson(new VerifyResponseDto());
+    }
+
+    private static void assertWrittenAsGson(Object value) {
+        JsonOutput out = new JsonOutput(4);
+        JsonObjectMapper.writeJson(value, out);
+        assertArrayEquals(JsonObjectMapper.toJson(value).getBytes(AppConstants.CHARSET),
+                Arrays.copyOf(out.array(), out.size()));
+    }
+}
@@ -0,0 +1,59 @@
+package ru.yandex.practicum.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpMetricsTest {
+    @Test
+    void testHistogramBuckets() {
+        Histogram histogram = new Histogram(10, 100);
+        histogram.record(5);
+        histogram.record(10);
+        histogram.record(11);
+        histogram.record(1000);
+
+        assertArrayEquals(new long[]{2, 3, 4}, histogram.getCumulativeCounts());
+        assertEquals(1026, histogram.getSum());
+        assertThrows(IllegalArgumentException.class, () -> new Histogram(10, 10));
+    }
+
+    @Test
+    void testPrometheusText() {
+        HttpMetrics metrics = new HttpMetrics();
+        EndpointMetrics sign = metrics.forEndpoint("/sign");
+        assertSame(sign, metrics.forEndpoint("/sign"));
+        sign.record(200, 32, TimeUnit.MICROSECONDS.toNanos(300));
+        sign.record(200, -1, TimeUnit.MILLISECONDS.toNanos(20));
+        sign.record(413, 4096, TimeUnit.MICROSECONDS.toNanos(50));
+        assertEquals(2, sign.getResponseCount(200));
+        assertEquals(1, sign.getResponseCount(413));
+        assertEquals(0, sign.getResponseCount(500));
+
+        StringBuilder text = new StringBuilder();
+        metrics.writeTo(new PrometheusTextWriter(text));
+        String body = text.toString();
+
+        assertTrue(body.contains("# TYPE hmac_http_requests_total counter\n"));
+        assertTrue(body.contains("hmac_http_requests_total{path=\"/sign\",code=\"200\"} 2\n"));
+        assertTrue(body.contains("hmac_http_requests_total{path=\"/sign\",code=\"413\"} 1\n"));
+        assertFalse(body.contains("code=\"500\""));
+        assertTrue(body.contains("hmac_http_request_duration_seconds_bucket{path=\"/sign\",le=\"0.0001\"} 1\n"));
+        assertTrue(body.contains("hmac_http_request_duration_seconds_bucket{path=\"/sign\",le=\"0.0005\"} 2\n"));
+        assertTrue(body.contains("hmac_http_request_duration_seconds_bucket{path=\"/sign\",le=\"+Inf\"} 3\n"));
+        assertTrue(body.contains("hmac_http_request_duration_seconds_sum{path=\"/sign\"} 0.02035\n"));
+        assertTrue(body.contains("hmac_http_request_duration_seconds_count{path=\"/sign\"} 3\n"));
+        assertTrue(body.contains("hmac_http_request_size_bytes_bucket{path=\"/sign\",le=\"64\"} 1\n"));
+        assertTrue(body.contains("hmac_http_request_size_bytes_count{path=\"/sign\"} 2\n"));
+        assertThrows(IllegalArgumentException.class, () -> sign.record(-1, 0, 0));
+    }
+
+    @Test
+    void testLabelValuesAreEscaped() {
+        StringBuilder text = new StringBuilder();
+        new PrometheusTextWriter(text).sample("metric", 1, "path", "a\"b\\c\nd");
+        assertEquals("metric{path=\"a\\\"b\\\\c\\nd\"} 1\n", text.toString());
+    }
+}
@@ -12,6 +12,8 @@ import ru.yandex.practicum.utils.TestUtils;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -51,6 +53,63 @@ class HmacServiceImplTest {
         assertTrue(Boolean.parseBoolean(verifyResponseDto.getOk()));
     }
 
+    @Test
+    void testVerifyDecodedSignature() {
+        SignRequestDto signRequestDto = new SignRequestDto();
+        signRequestDto.setMsg("message");
+        byte[] signature = Base64.getUrlDecoder().decode(hmacService.sign(signRequestDto).getSignature());
+
+        VerifyRequestDto verifyRequestDto = new VerifyRequestDto();
+        verifyRequestDto.setMsg(signRequestDto.getMsg());
+
+        assertTrue(Boolean.parseBoolean(hmacService.verify(verifyRequestDto, signature).getOk()));
+        assertFalse(Boolean.parseBoolean(
+                hmacService.verify(verifyRequestDto, Arrays.copyOf(signature, signature.length - 1)).getOk()));
+        signature[signature.length - 1] ^= 1;
+        assertFalse(Boolean.parseBoolean(hmacService.verify(verifyRequestDto, signature).getOk()));
+    }
+
+    @Test
+    void testVerifyByKeyId() {
+        HmacServiceImpl service = new HmacServiceImpl();
+        service.init("k1", "AQ==", "SHA256");
+        SignRequestDto signRequestDto = new SignRequestDto();
+        signRequestDto.setMsg("message");
+        SignResponseDto oldSignature = service.sign(signRequestDto);
+        assertEquals("k1", oldSignature.getKid());
+
+        service.getKeyring().put("k2", new byte[]{2});
+        service.getKeyring().activate("k2");
+        SignResponseDto newSignature = service.sign(signRequestDto);
+        assertEquals("k2", newSignature.getKid());
+
+        VerifyRequestDto verifyRequestDto = new VerifyRequestDto();
+        verifyRequestDto.setMsg(signRequestDto.getMsg());
+        verifyRequestDto.setSignature(oldSignature.getSignature());
+        assertFalse(Boolean.parseBoolean(service.verify(verifyRequestDto).getOk()));
+        verifyRequestDto.setKid("k1");
+        assertTrue(Boolean.parseBoolean(service.verify(verifyRequestDto).getOk()));
+
+        service.getKeyring().retire("k1");
+        assertFalse(Boolean.parseBoolean(service.verify(verifyRequestDto).getOk()));
+    }
+
+    @Test
+    void testSignatureCacheIsClearedOnKeyChange() {
+        HmacServiceImpl service = new HmacServiceImpl(100, 60_000);
+        service.init("k1", "AQ==", "SHA256");
+        SignRequestDto signRequestDto = new SignRequestDto();
+        signRequestDto.setMsg("message");
+
+        String signature = service.sign(signRequestDto).getSignature();
+        assertEquals(signature, service.sign(signRequestDto).getSignature());
+        assertEquals(1, service.getSignatureCache().getHits());
+
+        service.getKeyring().put("k1", new byte[]{2});
+        assertEquals(0, service.getSignatureCache().size());
+        assertNotEquals(signature, service.sign(signRequestDto).getSignature());
+    }
+
     @Test
     void testVerifyConstantTime() {
         String s = "a".repeat(1_000_000);
@@ -0,0 +1,135 @@
+package ru.yandex.practicum.tcp;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.constant.AppConstants;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.protocol.HmacFrames;
+import ru.yandex.practicum.protocol.TcpFrames;
+import ru.yandex.practicum.service.impl.HmacServiceImpl;
+import ru.yandex.practicum.utils.TestUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TcpFrameServerTest {
+    private static final int MAX_MESSAGE_SIZE = 1024;
+
+    private static HmacServiceImpl hmacService;
+    private static TcpFrameServer server;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        AppContext.setConfig(TestUtils.loadTestConfig(), true);
+        hmacService = AppContext.getBean(HmacServiceImpl.class);
+        server = TcpFrameServer.create(new InetSocketAddress("localhost", 0), 2, hmacService, MAX_MESSAGE_SIZE);
+        server.start();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void testPipelinedSignAndVerify() throws IOException {
+        try (Socket socket = connect()) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            byte[][] messages = new byte[100][];
+            for (int i = 0; i < messages.length; i++) {
+                messages[i] = ("message-" + i).getBytes(AppConstants.CHARSET);
+                writeSign(out, messages[i]);
+            }
+            out.flush();
+
+            byte[][] macs = new byte[messages.length][];
+            for (int i = 0; i < messages.length; i++) {
+                byte[] response = readResponse(in);
+                assertEquals(TcpFrames.STATUS_OK, response[0]);
+                macs[i] = Arrays.copyOfRange(response, 1, response.length);
+                byte[] expected = new byte[hmacService.getMacLength()];
+                hmacService.sign(messages[i], 0, messages[i].length, expected, 0);
+                assertArrayEquals(expected, macs[i]);
+            }
+
+            writeVerify(out, messages[0], macs[0]);
+            writeVerify(out, messages[0], macs[1]);
+            writeVerify(out, messages[1], Arrays.copyOf(macs[1], 4));
+            out.flush();
+            assertArrayEquals(new byte[]{TcpFrames.STATUS_OK, HmacFrames.VALID}, readResponse(in));
+            assertArrayEquals(new byte[]{TcpFrames.STATUS_OK, HmacFrames.INVALID}, readResponse(in));
+            assertArrayEquals(new byte[]{TcpFrames.STATUS_OK, HmacFrames.INVALID}, readResponse(in));
+        }
+    }
+
+    @Test
+    void testInvalidFramesKeepConnection() throws IOException {
+        try (Socket socket = connect()) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            out.writeInt(1);
+            out.writeByte(42);
+            out.writeInt(3);
+            out.writeByte(TcpFrames.OP_VERIFY);
+            out.writeShort(0);
+            writeSign(out, new byte[MAX_MESSAGE_SIZE + 1]);
+            writeSign(out, new byte[]{1});
+            out.flush();
+
+            assertEquals(TcpFrames.STATUS_BAD_REQUEST, readResponse(in)[0]);
+            assertEquals(TcpFrames.STATUS_BAD_REQUEST, readResponse(in)[0]);
+            assertEquals(TcpFrames.STATUS_PAYLOAD_TOO_LARGE, readResponse(in)[0]);
+            assertEquals(TcpFrames.STATUS_OK, readResponse(in)[0]);
+        }
+    }
+
+    @Test
+    void testOversizedFrameClosesConnection() throws IOException {
+        try (Socket socket = connect()) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            out.writeInt(Integer.MAX_VALUE);
+            out.flush();
+
+            assertEquals(TcpFrames.STATUS_FRAME_TOO_LARGE, readResponse(in)[0]);
+            assertEquals(-1, in.read());
+        }
+    }
+
+    private static Socket connect() throws IOException {
+        Socket socket = new Socket("localhost", server.getAddress().getPort());
+        socket.setSoTimeout(5_000);
+        return socket;
+    }
+
+    private static void writeSign(DataOutputStream out, byte[] message) throws IOException {
+        out.writeInt(1 + message.length);
+        out.writeByte(TcpFrames.OP_SIGN);
+        out.write(message);
+    }
+
+    private static void writeVerify(DataOutputStream out, byte[] message, byte[] mac) throws IOException {
+        out.writeInt(1 + Integer.BYTES + message.length + mac.length);
+        out.writeByte(TcpFrames.OP_VERIFY);
+        out.writeInt(message.length);
+        out.write(message);
+        out.write(mac);
+    }
+
+    private static byte[] readResponse(DataInputStream in) throws IOException {
+        byte[] response = new byte[in.readInt()];
+        in.readFully(response);
+        return response;
+    }
+}
@@ -0,0 +1,125 @@
+package ru.yandex.practicum.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+    @Test
+    void testHitsAndSizeEviction() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(2, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("v0", cache.get(0, key -> {
+                loads.incrementAndGet();
+                return "v" + key;
+            }));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        cache.get(1, String::valueOf);
+        cache.get(2, String::valueOf);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        cache.get(0, key -> "v0");
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    void testExpiredEntryIsReloaded() throws InterruptedException {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(10, 20);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(0, key -> loads.incrementAndGet());
+        Thread.sleep(50);
+        assertEquals(2, cache.get(0, key -> loads.incrementAndGet()));
+    }
+
+    @Test
+    void testFailureIsNotCached() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(10, 60_000);
+        assertThrows(IllegalStateException.class, () -> cache.get(0, key -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(1, cache.get(0, key -> 1));
+    }
+
+    @Test
+    void testErrorIsNotCached() throws Exception {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(10, 60_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> loader = executor.submit(() -> cache.get(0, key -> {
+                loading.countDown();
+                awaitQuietly(fail);
+                throw new AssertionError("provider failure");
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Integer> waiter = executor.submit(() -> cache.get(0, key -> 2));
+            while (cache.getCoalesced() == 0) {
+                Thread.onSpinWait();
+            }
+            fail.countDown();
+
+            ExecutionException failed = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertTrue(failed.getCause() instanceof AssertionError);
+            assertTrue(assertThrows(ExecutionException.class, () -> loader.get(5, TimeUnit.SECONDS)).getCause()
+                    instanceof AssertionError);
+            assertEquals(0, cache.size());
+            assertEquals(1, cache.get(0, key -> 1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentRequestsAreCoalesced() throws Exception {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(10, 60_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Integer> first = executor.submit(() -> cache.get(0, key -> {
+                loading.countDown();
+                awaitQuietly(release);
+                return loads.incrementAndGet();
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<?>[] others = new Future<?>[3];
+            for (int i = 0; i < others.length; i++) {
+                others[i] = executor.submit(() -> cache.get(0, key -> loads.incrementAndGet()));
+            }
+            while (cache.getCoalesced() < others.length) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            for (Future<?> other : others) {
+                assertEquals(1, other.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
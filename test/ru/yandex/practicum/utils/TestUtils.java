@@ -4,12 +4,13 @@ import com.sun.net.httpserver.HttpServer;
 import ru.yandex.practicum.context.app.AppContext;
 import ru.yandex.practicum.context.web.WebContext;
 import ru.yandex.practicum.exception.app.ServerInstantiationException;
+import ru.yandex.practicum.limiter.QueueTimeExecutor;
+import ru.yandex.practicum.server.HttpServerEngine;
 
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
 
 public class TestUtils {
     private static final String CONFIG_PATH = "ru/yandex/practicum/context/app/test-config.json";
@@ -17,10 +18,23 @@ public class TestUtils {
     private TestUtils() {}
 
     public static TestHttpServer initializeNewHttpServer() {
+        return initializeNewHttpServer(AppContext.getHttpServerEngine());
+    }
+
+    public static TestHttpServer initializeNewHttpServer(HttpServerEngine engine) {
+        try {
+            return initializeNewHttpServer(engine.create(new InetSocketAddress(AppContext.getListenPort()),
+                    AppContext.getAcceptBacklog()));
+        } catch (Exception e) {
+            throw new ServerInstantiationException("Failed to instantiate test http server: " + e.getMessage(), e);
+        }
+    }
+
+    public static TestHttpServer initializeNewHttpServer(HttpServer server) {
         try {
-            HttpServer server = HttpServer.create(new InetSocketAddress(AppContext.getListenPort()), 0);
             WebContext.init(server);
-            server.setExecutor(Executors.newWorkStealingPool());
+            server.setExecutor(new QueueTimeExecutor(AppContext.getExecutorType().create(
+                    AppContext.getExecutorThreads(), AppContext.getExecutorQueueCapacity())));
             server.start();
             return new TestHttpServer(server);
         } catch (Exception e) {
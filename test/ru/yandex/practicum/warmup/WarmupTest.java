@@ -0,0 +1,66 @@
+package ru.yandex.practicum.warmup;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.accesslog.AccessLog;
+import ru.yandex.practicum.context.app.AppContext;
+import ru.yandex.practicum.handler.HandlerWrapper;
+import ru.yandex.practicum.limiter.ClientRateLimiter;
+import ru.yandex.practicum.metrics.HttpMetrics;
+import ru.yandex.practicum.model.ApiSettings;
+import ru.yandex.practicum.utils.TestUtils;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmupTest {
+    @BeforeAll
+    static void setUp() {
+        AppContext.setConfig(TestUtils.loadTestConfig(), true);
+    }
+
+    @Test
+    void testDeadlineBoundsStalledServer() throws Exception {
+        // соединения принимаются очередью сокета, но запросы никогда не читаются
+        try (ServerSocket stalled = new ServerSocket(0)) {
+            long start = System.nanoTime();
+            int sent = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> new Warmup(100, 500, 4).run(stalled.getLocalPort()));
+            assertEquals(4, sent);
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        }
+    }
+
+    @Test
+    void testWarmupIsNotRateLimited() throws Exception {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 1, 1000, null);
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", new HandlerWrapper(ApiSettings.SIGN_ENDPOINT, exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        }, new HttpMetrics().forEndpoint("/"), new AccessLog(null, 1, 1, 1, 0), null, rateLimiter));
+        server.start();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            assertEquals(32, new Warmup(32, 10_000, 2).run(server.getAddress().getPort()));
+            assertEquals(0, rateLimiter.getRejected());
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort()))
+                    .header(Warmup.TOKEN_HEADER, "guessed")
+                    .GET()
+                    .build();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+            assertEquals(429, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        } finally {
+            server.stop(0);
+        }
+    }
+}